@@ -0,0 +1,124 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.aggregate.KeyedTotals;
+import com.fetch.challenge.receipt_processor_challenge.aggregate.ReceiptAggregates;
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptAggregateProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeping per-retailer and per-day totals at ingest, and reading them. Adds run on four threads:
+ * {@code add} to retailers counted exactly, {@code addSketched} to retailers past
+ * {@code exact-retailers}, and {@code addLocked} to a HashMap under one lock, as a baseline.
+ * Reads are a retailer, a day and the top retailers, against {@code scanStore}, which totals one
+ * retailer by walking a map of {@code stored} receipts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregatesBenchmark {
+    private static final int RETAILERS = 100;
+    private static final int RECEIPTS = 4096;
+
+    @Param({"100000"})
+    public int stored;
+
+    private ReceiptAggregates aggregates;
+    private ReceiptDTO[] receipts;
+    private ReceiptDTO[] sketchedReceipts;
+    private final Map<String, long[]> locked = new HashMap<>();
+    private Map<String, Stored> store;
+
+    @Setup
+    public void setUp() {
+        ReceiptAggregateProperties properties = new ReceiptAggregateProperties();
+        properties.setExactRetailers(RETAILERS);
+        aggregates = new ReceiptAggregates(properties);
+        receipts = new ReceiptDTO[RECEIPTS];
+        sketchedReceipts = new ReceiptDTO[RECEIPTS];
+        for (int i = 0; i < RECEIPTS; i++) {
+            receipts[i] = receipt("Retailer " + i % RETAILERS, i);
+            sketchedReceipts[i] = receipt("Sketched retailer " + i, i);
+        }
+        store = new ConcurrentHashMap<>();
+        for (int i = 0; i < stored; i++) {
+            ReceiptDTO receipt = receipts[i % RECEIPTS];
+            store.put("receipt-" + i, new Stored(receipt, 28));
+            aggregates.add(receipt, 28);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void add() {
+        aggregates.add(receipts[ThreadLocalRandom.current().nextInt(RECEIPTS)], 28);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addSketched() {
+        aggregates.add(sketchedReceipts[ThreadLocalRandom.current().nextInt(RECEIPTS)], 28);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addLocked() {
+        ReceiptDTO receipt = receipts[ThreadLocalRandom.current().nextInt(RECEIPTS)];
+        synchronized (locked) {
+            long[] retailer = locked.computeIfAbsent(receipt.getRetailer(), k -> new long[2]);
+            retailer[0]++;
+            retailer[1] += 28;
+            long[] day = locked.computeIfAbsent(receipt.getPurchaseDate().toString(), k -> new long[2]);
+            day[0]++;
+            day[1] += 28;
+        }
+    }
+
+    @Benchmark
+    public KeyedTotals.Totals<String> retailer() {
+        return aggregates.retailer("Retailer " + ThreadLocalRandom.current().nextInt(RETAILERS));
+    }
+
+    @Benchmark
+    public KeyedTotals.Totals<LocalDate> day() {
+        return aggregates.day(LocalDate.ofEpochDay(18_000 + ThreadLocalRandom.current().nextInt(365)));
+    }
+
+    @Benchmark
+    public List<KeyedTotals.Totals<String>> topRetailers() {
+        return aggregates.topRetailers();
+    }
+
+    @Benchmark
+    public long scanStore() {
+        String retailer = "Retailer " + ThreadLocalRandom.current().nextInt(RETAILERS);
+        long points = 0;
+        for (Stored value : store.values()) {
+            if (retailer.equals(value.receipt.getRetailer())) {
+                points += value.points;
+            }
+        }
+        return points;
+    }
+
+    private static ReceiptDTO receipt(String retailer, int day) {
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer(retailer);
+        receipt.setPurchaseDate(LocalDate.ofEpochDay(18_000 + day % 365));
+        return receipt;
+    }
+
+    private record Stored(ReceiptDTO receipt, int points) {
+    }
+}
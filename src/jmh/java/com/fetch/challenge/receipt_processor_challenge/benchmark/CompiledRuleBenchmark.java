@@ -0,0 +1,64 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.rule.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring with the built-in rule classes against the same rules compiled from expressions, both
+ * through {@link ScoringEngine}, and the two variants of the rule with the most work per item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CompiledRuleBenchmark {
+
+    @Param({ReceiptFixtures.ONE_ITEM, ReceiptFixtures.FIFTY_ITEMS, ReceiptFixtures.LONG_RETAILER})
+    public String shape;
+
+    private ScoringEngine handWritten;
+    private ScoringEngine compiled;
+    private FeatureRule handWrittenDescription;
+    private FeatureRule compiledDescription;
+    private ReceiptDTO receipt;
+    private ReceiptFeatures features;
+
+    @Setup
+    public void setUp() {
+        handWritten = new ScoringEngine(ReceiptFixtures.rules());
+        compiled = new ScoringEngine(ReceiptFixtures.compiledRules());
+        handWrittenDescription = new ItemDescriptionRule();
+        compiledDescription = RuleExpressionCompiler.compile("item-description",
+                "sum(descriptionLength % 3 == 0 ? ceilDiv(price, 500) : 0)");
+        receipt = ReceiptFixtures.receipt(shape);
+        features = new ReceiptFeatures(receipt);
+        if (handWritten.score(receipt) != compiled.score(receipt)) {
+            throw new IllegalStateException("Compiled rules disagree with the rule classes");
+        }
+    }
+
+    @Benchmark
+    public int scoreHandWritten() {
+        return handWritten.score(receipt);
+    }
+
+    @Benchmark
+    public int scoreCompiled() {
+        return compiled.score(receipt);
+    }
+
+    @Benchmark
+    public int descriptionHandWritten() {
+        return handWrittenDescription.calculatePoints(features);
+    }
+
+    @Benchmark
+    public int descriptionCompiled() {
+        return compiledDescription.calculatePoints(features);
+    }
+}
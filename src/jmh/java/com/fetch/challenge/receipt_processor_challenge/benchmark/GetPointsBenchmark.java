@@ -0,0 +1,79 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptMetricsProperties;
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptMetrics;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptServiceImpl;
+import com.fetch.challenge.receipt_processor_challenge.store.ConcurrentReceiptStore;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getPoints} against a pre-filled store, once with readers only and once with a writer
+ * scoring new receipts alongside them. Points are unbounded so that every read is a hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetPointsBenchmark {
+    private static final int PREFILLED = 100_000;
+
+    /** Whether lookups are timed into a Prometheus registry with the default sampling. */
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private ReceiptServiceImpl service;
+    private ReceiptDTO receipt;
+    private String[] ids;
+
+    @Setup
+    public void setUp() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setRetainReceipts(false);
+        ReceiptServiceImpl.Options options = new ReceiptServiceImpl.Options();
+        options.setStore(new ConcurrentReceiptStore(properties, Clock.systemUTC()));
+        if (metrics) {
+            options.setMetrics(new ReceiptMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT),
+                    new ReceiptMetricsProperties()));
+        }
+        service = new ReceiptServiceImpl(ReceiptFixtures.rules(), options);
+        receipt = ReceiptFixtures.receipt(ReceiptFixtures.ONE_ITEM);
+        ids = new String[PREFILLED];
+        for (int i = 0; i < PREFILLED; i++) {
+            ids[i] = service.processReceipt(receipt);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer readers() {
+        return service.getPoints(randomId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Integer mixedReaders() {
+        return service.getPoints(randomId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public String mixedWriter() {
+        return service.processReceipt(receipt);
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,64 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.store.ConcurrentReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.util.RandomIdGenerator;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdGenerator;
+import com.fetch.challenge.receipt_processor_challenge.util.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a new receipt ID from each generator, on one thread and on four sharing the generator,
+ * and of generating it and writing it to a store held at a million points.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+    private static final int PREFILLED = 1_000_000;
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    public String generator;
+
+    private ReceiptIdGenerator ids;
+    private ConcurrentReceiptStore store;
+    private ReceiptDTO receipt;
+
+    @Setup
+    public void setUp() {
+        ids = "RANDOM".equals(generator) ? new RandomIdGenerator() : new TimeOrderedIdGenerator();
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setRetainReceipts(false);
+        properties.setMaxPoints(PREFILLED);
+        store = new ConcurrentReceiptStore(properties, Clock.systemUTC());
+        receipt = ReceiptFixtures.receipt(ReceiptFixtures.ONE_ITEM);
+        for (int i = 0; i < PREFILLED; i++) {
+            store.put(ids.next(), receipt, 1);
+        }
+    }
+
+    @Benchmark
+    public String generate() {
+        return ids.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateFourThreads() {
+        return ids.next();
+    }
+
+    @Benchmark
+    public String generateAndStore() {
+        String id = ids.next();
+        store.put(id, receipt, 1);
+        return id;
+    }
+}
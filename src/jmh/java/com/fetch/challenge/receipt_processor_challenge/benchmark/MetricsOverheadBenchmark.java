@@ -0,0 +1,72 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptMetricsProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.rule.ScoringEngine;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptMetrics;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the instrumentation adds to each call, measured on its own because it is far smaller than
+ * the run-to-run noise of {@link ReceiptServiceBenchmark} and {@link GetPointsBenchmark}. Uses a
+ * Prometheus registry and the default sampling rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MetricsOverheadBenchmark {
+    private ReceiptMetrics metrics;
+    private ReceiptMetrics unsampled;
+    private ScoringEngine plainEngine;
+    private ScoringEngine sampledEngine;
+    private ReceiptDTO receipt;
+
+    @Setup
+    public void setUp() {
+        metrics = new ReceiptMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT),
+                new ReceiptMetricsProperties());
+        ReceiptMetricsProperties everyCall = new ReceiptMetricsProperties();
+        everyCall.setProcessSampling(1);
+        everyCall.setLookupSampling(1);
+        unsampled = new ReceiptMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), everyCall);
+        plainEngine = new ScoringEngine(ReceiptFixtures.rules());
+        sampledEngine = metrics.scoringEngine(ReceiptFixtures.rules());
+        receipt = ReceiptFixtures.receipt(ReceiptFixtures.ONE_ITEM);
+    }
+
+    /** Timing and item count added to one upload. */
+    @Benchmark
+    public void process() {
+        metrics.processed(metrics.startProcess(), receipt);
+    }
+
+    /** The same with every upload timed, for comparison. */
+    @Benchmark
+    public void processEveryCall() {
+        unsampled.processed(unsampled.startProcess(), receipt);
+    }
+
+    /** Timing added to one lookup. */
+    @Benchmark
+    public void lookup() {
+        metrics.lookedUp(metrics.startLookup());
+    }
+
+    @Benchmark
+    public int scorePlain() {
+        return plainEngine.score(receipt);
+    }
+
+    /** Scoring with per-rule timing on one receipt in {@code rule-sampling}. */
+    @Benchmark
+    public int scoreSampled() {
+        return sampledEngine.score(receipt);
+    }
+}
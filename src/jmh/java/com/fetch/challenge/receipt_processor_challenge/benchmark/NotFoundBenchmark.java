@@ -0,0 +1,83 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.exception.ResourceNotFoundException;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptServiceImpl;
+import com.fetch.challenge.receipt_processor_challenge.store.ConcurrentReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of IDs that were never stored, answered three ways: as {@code findPoints} returning
+ * {@link ReceiptStore#MISSING}, as the stackless {@link ResourceNotFoundException} thrown and
+ * caught, and as the exception with a stack trace that was thrown before. Stacks here are a few
+ * frames deep; under a servlet container they are closer to a hundred, which only widens the gap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotFoundBenchmark {
+    private static final int PREFILLED = 100_000;
+    private static final int UNKNOWN = 4096;
+
+    private ReceiptServiceImpl service;
+    private String[] unknownIds;
+
+    @Setup
+    public void setUp() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setRetainReceipts(false);
+        ReceiptServiceImpl.Options options = new ReceiptServiceImpl.Options();
+        options.setStore(new ConcurrentReceiptStore(properties, Clock.systemUTC()));
+        service = new ReceiptServiceImpl(ReceiptFixtures.rules(), options);
+        ReceiptDTO receipt = ReceiptFixtures.receipt(ReceiptFixtures.ONE_ITEM);
+        for (int i = 0; i < PREFILLED; i++) {
+            service.processReceipt(receipt);
+        }
+        unknownIds = new String[UNKNOWN];
+        for (int i = 0; i < UNKNOWN; i++) {
+            unknownIds[i] = UUID.randomUUID().toString();
+        }
+    }
+
+    @Benchmark
+    public int returned() {
+        return service.findPoints(randomId());
+    }
+
+    @Benchmark
+    public Object thrownStackless() {
+        try {
+            return service.getPoints(randomId());
+        } catch (ResourceNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object thrownWithStackTrace() {
+        String id = randomId();
+        try {
+            int points = service.findPoints(id);
+            if (points == ReceiptStore.MISSING) {
+                throw new IllegalStateException(ResourceNotFoundException.message(id));
+            }
+            return points;
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+
+    private String randomId() {
+        return unknownIds[ThreadLocalRandom.current().nextInt(UNKNOWN)];
+    }
+}
@@ -0,0 +1,70 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.rule.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointRuleBenchmark {
+
+    @Param({ReceiptFixtures.ONE_ITEM, ReceiptFixtures.FIFTY_ITEMS,
+            ReceiptFixtures.FIVE_THOUSAND_ITEMS, ReceiptFixtures.LONG_RETAILER})
+    public String shape;
+
+    private final RetailerNameRule retailerNameRule = new RetailerNameRule();
+    private final RoundDollarRule roundDollarRule = new RoundDollarRule();
+    private final QuarterMultipleRule quarterMultipleRule = new QuarterMultipleRule();
+    private final ItemCountRule itemCountRule = new ItemCountRule();
+    private final ItemDescriptionRule itemDescriptionRule = new ItemDescriptionRule();
+    private final OddDayRule oddDayRule = new OddDayRule();
+    private final TimeRangeRule timeRangeRule = new TimeRangeRule();
+
+    private ReceiptDTO receipt;
+
+    @Setup
+    public void setUp() {
+        receipt = ReceiptFixtures.receipt(shape);
+    }
+
+    @Benchmark
+    public int retailerName() {
+        return retailerNameRule.calculatePoints(receipt);
+    }
+
+    @Benchmark
+    public int roundDollar() {
+        return roundDollarRule.calculatePoints(receipt);
+    }
+
+    @Benchmark
+    public int quarterMultiple() {
+        return quarterMultipleRule.calculatePoints(receipt);
+    }
+
+    @Benchmark
+    public int itemCount() {
+        return itemCountRule.calculatePoints(receipt);
+    }
+
+    @Benchmark
+    public int itemDescription() {
+        return itemDescriptionRule.calculatePoints(receipt);
+    }
+
+    @Benchmark
+    public int oddDay() {
+        return oddDayRule.calculatePoints(receipt);
+    }
+
+    @Benchmark
+    public int timeRange() {
+        return timeRangeRule.calculatePoints(receipt);
+    }
+}
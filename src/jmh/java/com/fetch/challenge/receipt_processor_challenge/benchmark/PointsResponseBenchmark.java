@@ -0,0 +1,73 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import com.fetch.challenge.receipt_processor_challenge.controller.PointsResponses;
+import com.fetch.challenge.receipt_processor_challenge.dto.PointsResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a successful points response: {@link PointsResponseDTO} through Spring's Jackson message
+ * converter, as the controllers did before, against the pre-encoded bytes of
+ * {@link PointsResponses}, and the 304 answered to a matching {@code If-None-Match}. Each
+ * invocation writes into a fresh MockHttpServletResponse; {@code emptyResponse} measures that
+ * alone, to be subtracted from the others.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointsResponseBenchmark {
+    private static final int POINTS = 128;
+
+    private MappingJackson2HttpMessageConverter converter;
+    private PointsResponses responses;
+
+    @Setup
+    public void setUp() {
+        converter = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        responses = new PointsResponses(new ReceiptStoreProperties());
+    }
+
+    @Benchmark
+    public MockHttpServletResponse emptyResponse() {
+        return new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse jackson() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        converter.write(new PointsResponseDTO(points()), MediaType.APPLICATION_JSON,
+                new ServletServerHttpResponse(response));
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse preEncoded() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responses.write(response, points(), null);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse notModified() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int points = points();
+        responses.write(response, points, "\"" + points + "\"");
+        return response;
+    }
+
+    private static int points() {
+        return ThreadLocalRandom.current().nextInt(POINTS);
+    }
+}
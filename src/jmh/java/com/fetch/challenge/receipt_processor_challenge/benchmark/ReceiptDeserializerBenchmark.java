@@ -0,0 +1,59 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptJsonModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a request body into a {@link ReceiptDTO} with Jackson's reflective bean deserializer and
+ * with the hand-written one. Both mappers are configured the way Spring Boot configures its own.
+ * Prices are sent as strings, as in the API examples.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReceiptDeserializerBenchmark {
+
+    @Param({ReceiptFixtures.ONE_ITEM, ReceiptFixtures.FIFTY_ITEMS, ReceiptFixtures.LONG_RETAILER})
+    public String shape;
+
+    private byte[] body;
+    private ObjectReader jackson;
+    private ObjectReader handWritten;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        ObjectNode receipt = mapper.valueToTree(ReceiptFixtures.receipt(shape));
+        for (JsonNode item : receipt.withArray("items")) {
+            ((ObjectNode) item).put("price", String.format("%.2f", item.get("price").asDouble()));
+        }
+        body = mapper.writeValueAsBytes(receipt);
+        jackson = mapper.readerFor(ReceiptDTO.class);
+        handWritten = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ReceiptJsonModule())
+                .build()
+                .readerFor(ReceiptDTO.class);
+    }
+
+    @Benchmark
+    public ReceiptDTO jackson() throws IOException {
+        return jackson.readValue(body);
+    }
+
+    @Benchmark
+    public ReceiptDTO handWritten() throws IOException {
+        return handWritten.readValue(body);
+    }
+}
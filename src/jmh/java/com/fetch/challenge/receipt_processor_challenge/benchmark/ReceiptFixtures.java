@@ -0,0 +1,80 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.rule.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Receipt shapes shared by the benchmarks, selected through a {@code shape} parameter. */
+final class ReceiptFixtures {
+    static final String ONE_ITEM = "ONE_ITEM";
+    static final String FIFTY_ITEMS = "FIFTY_ITEMS";
+    static final String FIVE_THOUSAND_ITEMS = "FIVE_THOUSAND_ITEMS";
+    static final String LONG_RETAILER = "LONG_RETAILER";
+
+    private static final String[] DESCRIPTIONS = {
+            "Mountain Dew 12PK", "Emils Cheese Pizza", "Knorr Creamy Chicken",
+            "Doritos Nacho Cheese", "   Klarbrunn 12-PK 12 FL OZ  "
+    };
+
+    private ReceiptFixtures() {
+    }
+
+    static ReceiptDTO receipt(String shape) {
+        return switch (shape) {
+            case ONE_ITEM -> receipt("Target", 1);
+            case FIFTY_ITEMS -> receipt("Target", 50);
+            case FIVE_THOUSAND_ITEMS -> receipt("Target", 5000);
+            case LONG_RETAILER -> receipt("M&M Corner Market & Sons - ".repeat(40), 5);
+            default -> throw new IllegalArgumentException("Unknown receipt shape: " + shape);
+        };
+    }
+
+    static List<PointRule> rules() {
+        return List.of(
+                new RetailerNameRule(),
+                new RoundDollarRule(),
+                new QuarterMultipleRule(),
+                new ItemCountRule(),
+                new ItemDescriptionRule(),
+                new OddDayRule(),
+                new TimeRangeRule());
+    }
+
+    /** The built-in rules written as {@code receipt.rules.definitions} expressions. */
+    static List<PointRule> compiledRules() {
+        return List.of(
+                RuleExpressionCompiler.compile("retailer-name", "retailerAlphanumerics"),
+                RuleExpressionCompiler.compile("round-dollar", "total % 100 == 0 ? 50 : 0"),
+                RuleExpressionCompiler.compile("quarter-multiple", "total % 25 == 0 ? 25 : 0"),
+                RuleExpressionCompiler.compile("item-count", "items / 2 * 5"),
+                RuleExpressionCompiler.compile("item-description",
+                        "sum(descriptionLength % 3 == 0 ? ceilDiv(price, 500) : 0)"),
+                RuleExpressionCompiler.compile("odd-day", "day % 2 == 1 ? 6 : 0"),
+                RuleExpressionCompiler.compile("time-range", "time > 14:00 && time < 16:00 ? 10 : 0"));
+    }
+
+    private static ReceiptDTO receipt(String retailer, int itemCount) {
+        List<ItemDTO> items = new ArrayList<>(itemCount);
+        long cents = 0;
+        for (int i = 0; i < itemCount; i++) {
+            ItemDTO item = new ItemDTO();
+            item.setShortDescription(DESCRIPTIONS[i % DESCRIPTIONS.length]);
+            item.setPrice((125 + i % 1000) / 100.0);
+            cents += 125 + i % 1000;
+            items.add(item);
+        }
+
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer(retailer);
+        receipt.setPurchaseDate(LocalDate.of(2022, 1, 1));
+        receipt.setPurchaseTime(LocalTime.of(14, 33));
+        receipt.setItems(items);
+        receipt.setTotal(String.format("%d.%02d", cents / 100, cents % 100));
+        return receipt;
+    }
+}
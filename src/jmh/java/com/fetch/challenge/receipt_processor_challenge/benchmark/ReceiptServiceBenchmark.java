@@ -0,0 +1,58 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptMetricsProperties;
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptMetrics;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptServiceImpl;
+import com.fetch.challenge.receipt_processor_challenge.store.ConcurrentReceiptStore;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full {@code processReceipt} path: scoring with every rule plus the store write. The store is
+ * bounded so that long runs measure steady-state eviction rather than heap growth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReceiptServiceBenchmark {
+
+    @Param({ReceiptFixtures.ONE_ITEM, ReceiptFixtures.FIFTY_ITEMS,
+            ReceiptFixtures.FIVE_THOUSAND_ITEMS, ReceiptFixtures.LONG_RETAILER})
+    public String shape;
+
+    /** Whether uploads are timed into a Prometheus registry with the default sampling. */
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private ReceiptServiceImpl service;
+    private ReceiptDTO receipt;
+
+    @Setup
+    public void setUp() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setMaxPoints(1_000_000);
+        properties.setMaxReceipts(256);
+        ReceiptServiceImpl.Options options = new ReceiptServiceImpl.Options();
+        options.setStore(new ConcurrentReceiptStore(properties, Clock.systemUTC()));
+        if (metrics) {
+            options.setMetrics(new ReceiptMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT),
+                    new ReceiptMetricsProperties()));
+        }
+        service = new ReceiptServiceImpl(ReceiptFixtures.rules(), options);
+        receipt = ReceiptFixtures.receipt(shape);
+    }
+
+    @Benchmark
+    public String processReceipt() {
+        return service.processReceipt(receipt);
+    }
+}
@@ -0,0 +1,85 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validating a valid receipt with Hibernate Validator over the constraint annotations ReceiptDTO
+ * used to carry, and with {@link ReceiptValidator}. The hand-written validator also checks the
+ * total, every price and the item sum, which the annotations never did.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReceiptValidatorBenchmark {
+
+    @Param({ReceiptFixtures.ONE_ITEM, ReceiptFixtures.FIFTY_ITEMS})
+    public String shape;
+
+    private ReceiptDTO receipt;
+    private AnnotatedReceipt annotated;
+    private Validator hibernate;
+    private final ReceiptValidator handWritten = new ReceiptValidator();
+
+    @Setup
+    public void setUp() {
+        receipt = ReceiptFixtures.receipt(shape);
+        annotated = new AnnotatedReceipt(receipt);
+        hibernate = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<AnnotatedReceipt>> hibernate() {
+        return hibernate.validate(annotated);
+    }
+
+    @Benchmark
+    public Map<String, String> handWritten() {
+        return handWritten.validate(receipt);
+    }
+
+    /** The constraints ReceiptDTO carried while requests were validated with {@code @Valid}. */
+    public static class AnnotatedReceipt {
+        @NotBlank(message = "Retailer is required")
+        private final String retailer;
+
+        @NotNull(message = "Purchase date is required")
+        private final LocalDate purchaseDate;
+
+        @NotNull(message = "Purchase time is required")
+        private final LocalTime purchaseTime;
+
+        @NotNull(message = "Items cannot be null")
+        @NotEmpty(message = "Items cannot be empty")
+        private final List<ItemDTO> items;
+
+        @NotBlank(message = "Total is required")
+        private final String total;
+
+        AnnotatedReceipt(ReceiptDTO receipt) {
+            retailer = receipt.getRetailer();
+            purchaseDate = receipt.getPurchaseDate();
+            purchaseTime = receipt.getPurchaseTime();
+            items = receipt.getItems();
+            total = receipt.getTotal();
+        }
+    }
+}
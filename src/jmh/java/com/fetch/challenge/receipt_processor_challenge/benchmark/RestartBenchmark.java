@@ -0,0 +1,104 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.store.ConcurrentReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.DurableReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.WriteAheadLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time from opening the write-ahead log until the first {@code getPoints} lookup is answered,
+ * either by replaying the whole log or by mapping a snapshot taken before the last 1% of writes
+ * and replaying only that tail. Files are written once per trial, so the page cache is warm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RestartBenchmark {
+    private static final int CHUNK = 10_000;
+
+    public enum Recovery { LOG, SNAPSHOT }
+
+    @Param("10000000")
+    public int receipts;
+
+    @Param({"LOG", "SNAPSHOT"})
+    public Recovery recovery;
+
+    private Path directory;
+    private String firstId;
+    private DurableReceiptStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("restart-benchmark");
+        firstId = UUID.randomUUID().toString();
+        int snapshotAt = receipts - receipts / 100;
+        try (DurableReceiptStore writer = open()) {
+            List<ReceiptDTO> noReceipts = Arrays.asList(new ReceiptDTO[CHUNK]);
+            int[] points = new int[CHUNK];
+            Arrays.fill(points, 28);
+            for (int written = 0; written < receipts; written += CHUNK) {
+                List<String> ids = new ArrayList<>(CHUNK);
+                ids.add(written == 0 ? firstId : UUID.randomUUID().toString());
+                while (ids.size() < CHUNK) {
+                    ids.add(UUID.randomUUID().toString());
+                }
+                writer.putAll(ids, noReceipts, points);
+                if (recovery == Recovery.SNAPSHOT && written + CHUNK == snapshotAt) {
+                    long started = System.nanoTime();
+                    long entries = writer.snapshot(false);
+                    System.out.printf("Snapshot of %d entries took %d ms%n", entries,
+                            (System.nanoTime() - started) / 1_000_000);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int timeToReady() throws IOException {
+        store = open();
+        return store.findPoints(firstId).getAsInt();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeStore() throws IOException {
+        store.close();
+        store = null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private DurableReceiptStore open() throws IOException {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setRetainReceipts(false);
+        WriteAheadLog wal = new WriteAheadLog(directory.resolve("receipts.wal"), WriteAheadLog.FsyncPolicy.BATCH,
+                Duration.ofMillis(100));
+        return DurableReceiptStore.recover(new ConcurrentReceiptStore(properties, Clock.systemUTC()), wal,
+                directory.resolve("receipts.snapshot"), false, 0, 0, Clock.systemUTC(), null);
+    }
+}
@@ -0,0 +1,81 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.store.PointsSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Lookups of absent IDs in a memory-mapped snapshot, with its Bloom filter and with the filter
+ * hidden by rewriting the header as version 1, which makes every miss probe the table. The file
+ * is written once per trial, so the page cache is warm; a cold or evicted table costs more.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotMissBenchmark {
+
+    @Param("4000000")
+    public int entries;
+
+    @Param({"true", "false"})
+    public boolean filtered;
+
+    private Path directory;
+    private PointsSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("snapshot-miss-benchmark");
+        Path file = directory.resolve("points.snapshot");
+        SplittableRandom random = new SplittableRandom(42);
+        try (PointsSnapshot.Writer writer = new PointsSnapshot.Writer(file, entries, 0)) {
+            for (int i = 0; i < entries; i++) {
+                writer.add(random.nextLong() | 1, random.nextLong(), 28, 0, null);
+            }
+            writer.commit(0).close();
+        }
+        if (!filtered) {
+            hideFilter(file);
+        }
+        snapshot = PointsSnapshot.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        snapshot.close();
+        Files.deleteIfExists(directory.resolve("points.snapshot"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int miss() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Even high halves were never written
+        return snapshot.get(random.nextLong() & ~1L, random.nextLong(), 0, 0);
+    }
+
+    private static void hideFilter(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(64);
+            channel.read(header, 0);
+            header.putInt(4, 1).putLong(32, 64 + header.getLong(8) * 32);
+            CRC32C crc = new CRC32C();
+            crc.update(header.array(), 0, 48);
+            header.putInt(48, (int) crc.getValue());
+            channel.write(header.clear(), 0);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.fetch.challenge.receipt_processor_challenge.benchmark;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.store.ConcurrentReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStoreStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A write followed by a read of the same ID, on one thread and on four, against
+ * {@link ConcurrentReceiptStore} and the pair of synchronized maps the service used before it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreContentionBenchmark {
+    private static final int IDS = 100_000;
+
+    @Param({"concurrent", "synchronizedMaps"})
+    public String store;
+
+    private ReceiptStore receiptStore;
+    private final ReceiptDTO receipt = new ReceiptDTO();
+    private String[] ids;
+
+    @Setup
+    public void setUp() {
+        receiptStore = store.equals("concurrent") ? new ConcurrentReceiptStore() : new SynchronizedMapsStore();
+        ids = new String[IDS];
+        for (int i = 0; i < IDS; i++) {
+            ids[i] = UUID.randomUUID().toString();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int oneThread() {
+        return putAndGet();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int fourThreads() {
+        return putAndGet();
+    }
+
+    private int putAndGet() {
+        int i = ThreadLocalRandom.current().nextInt(IDS);
+        receiptStore.put(ids[i], receipt, i);
+        return receiptStore.findPoints(ids[i]).orElse(-1);
+    }
+
+    /** The layout ReceiptServiceImpl used before the store existed: two independently locked maps. */
+    private static class SynchronizedMapsStore implements ReceiptStore {
+        private final Map<String, ReceiptDTO> receiptStore = Collections.synchronizedMap(new HashMap<>());
+        private final Map<String, Integer> pointStore = Collections.synchronizedMap(new HashMap<>());
+
+        @Override
+        public void put(String id, ReceiptDTO receipt, int points) {
+            receiptStore.put(id, receipt);
+            pointStore.put(id, points);
+        }
+
+        /** Looks the ID up as given, as the service did, without parsing it. */
+        @Override
+        public OptionalInt findPoints(String id) {
+            Integer points = pointStore.get(id);
+            return points == null ? OptionalInt.empty() : OptionalInt.of(points);
+        }
+
+        @Override
+        public int findPoints(long high, long low) {
+            return findPoints(new UUID(high, low).toString()).orElse(MISSING);
+        }
+
+        @Override
+        public Optional<ReceiptDTO> findReceipt(String id) {
+            return Optional.ofNullable(receiptStore.get(id));
+        }
+
+        @Override
+        public int size() {
+            return pointStore.size();
+        }
+
+        @Override
+        public ReceiptStoreStats stats() {
+            return new ReceiptStoreStats(pointStore.size(), receiptStore.size(), 0, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.fetch.challenge.receipt_processor_challenge.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one endpoint in nanoseconds. The corrected histogram holds what a user arriving on
+ * schedule would have waited, so stalls are not hidden by the requests they delayed; the
+ * uncorrected one holds the time from sending to the response.
+ */
+final class LatencyStats {
+    private final String name;
+    private final Recorder corrected = new Recorder(3);
+    private final Recorder uncorrected = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+    private final Histogram correctedTotal = new Histogram(3);
+    private final Histogram uncorrectedTotal = new Histogram(3);
+    private Histogram correctedInterval;
+    private Histogram uncorrectedInterval;
+    private long errorsTotal;
+    private long intervalErrors;
+
+    LatencyStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * @param latency          nanoseconds from the request's scheduled start to its response
+     * @param service          nanoseconds from sending the request to its response
+     * @param expectedInterval nanoseconds between a connection's requests when it keeps up, used to
+     *                         fill in the requests a closed loop skipped while it waited; 0 for none
+     */
+    void record(long latency, long service, long expectedInterval) {
+        if (expectedInterval > 0) {
+            corrected.recordValueWithExpectedInterval(latency, expectedInterval);
+        } else {
+            corrected.recordValue(latency);
+        }
+        uncorrected.recordValue(service);
+    }
+
+    void error() {
+        errors.increment();
+    }
+
+    /**
+     * Swaps in fresh interval histograms. Called from one thread only.
+     *
+     * @param measured whether the interval counts towards the totals, i.e. lies after the warmup
+     */
+    void nextInterval(boolean measured) {
+        correctedInterval = corrected.getIntervalHistogram(correctedInterval);
+        uncorrectedInterval = uncorrected.getIntervalHistogram(uncorrectedInterval);
+        intervalErrors = errors.sumThenReset();
+        if (measured) {
+            correctedTotal.add(correctedInterval);
+            uncorrectedTotal.add(uncorrectedInterval);
+            errorsTotal += intervalErrors;
+        }
+    }
+
+    /** Responses in the last interval; corrected histograms also count the filled-in requests. */
+    long intervalCount() {
+        return uncorrectedInterval.getTotalCount();
+    }
+
+    long intervalErrors() {
+        return intervalErrors;
+    }
+
+    Histogram correctedInterval() {
+        return correctedInterval;
+    }
+
+    Histogram correctedTotal() {
+        return correctedTotal;
+    }
+
+    Histogram uncorrectedTotal() {
+        return uncorrectedTotal;
+    }
+
+    long errorsTotal() {
+        return errorsTotal;
+    }
+}
@@ -0,0 +1,257 @@
+package com.fetch.challenge.receipt_processor_challenge.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@code POST /receipts/process} and {@code GET /receipts/{id}/points} against a running
+ * service and reports latency percentiles per interval and for the whole run.
+ *
+ * <p>In open mode requests start on a fixed schedule at {@code --rate} per second and latency is
+ * measured from the scheduled start, so time spent queued behind a slow response is counted.
+ * {@code --connections} caps the requests in flight. In closed mode each of {@code --connections}
+ * threads sends one request at a time; with a {@code --rate} the requests a stalled thread failed
+ * to send are filled into the corrected histogram, without one the run measures peak throughput
+ * and only service times are meaningful.
+ *
+ * <pre>
+ * mvn -Pload test-compile exec:exec -Dload.args="--mode=open --rate=2000 --duration=60s"
+ * </pre>
+ */
+public final class LoadGenerator {
+    private static final int ID_SLOTS = 1 << 16;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LoadOptions options;
+    private final RequestBodies bodies;
+    private final HttpClient client;
+    private final URI processUri;
+    private final LatencyStats process = new LatencyStats("process");
+    private final LatencyStats points = new LatencyStats("points");
+    private final AtomicReferenceArray<String> ids = new AtomicReferenceArray<>(ID_SLOTS);
+    private final AtomicLong idCount = new AtomicLong();
+    private long start;
+    private long warmupEnd;
+    private long end;
+
+    LoadGenerator(LoadOptions options, RequestBodies bodies) {
+        this.options = options;
+        this.bodies = bodies;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.processUri = options.target().resolve("/receipts/process");
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        new LoadGenerator(options, RequestBodies.from(options.input())).run(System.out);
+    }
+
+    void run(PrintStream out) throws IOException, InterruptedException {
+        out.printf("%s loop against %s: %s, %d connections, %.0f%% lookups (%.0f%% of them misses), %d receipt bodies, "
+                        + "warmup %s, duration %s%n",
+                options.mode().name().toLowerCase(), options.target(),
+                options.rate() > 0 ? options.rate() + " req/s" : "unthrottled", options.connections(),
+                options.readRatio() * 100, options.missRatio() * 100, bodies.size(), options.warmup(),
+                options.duration());
+
+        long intervalNanos = options.interval().toNanos();
+        start = System.nanoTime() + intervalNanos / 10;
+        warmupEnd = start + options.warmup().toNanos();
+        end = warmupEnd + options.duration().toNanos();
+
+        List<Thread> threads = new ArrayList<>();
+        if (options.mode() == LoadOptions.Mode.OPEN) {
+            threads.add(new Thread(this::openLoop, "load-open"));
+        } else {
+            for (int i = 0; i < options.connections(); i++) {
+                int connection = i;
+                threads.add(new Thread(() -> closedLoop(connection), "load-closed-" + i));
+            }
+        }
+        threads.forEach(Thread::start);
+
+        List<String> curve = new ArrayList<>();
+        curve.add("seconds,process_per_s,points_per_s,errors,p50_ms,p99_ms,p999_ms,max_ms");
+        for (long intervalStart = start; intervalStart < end; intervalStart += intervalNanos) {
+            parkUntil(Math.min(intervalStart + intervalNanos, end));
+            boolean measured = intervalStart >= warmupEnd;
+            process.nextInterval(measured);
+            points.nextInterval(measured);
+            curve.add(report(out, intervalStart, Math.min(intervalStart + intervalNanos, end), measured));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // Responses that arrived after the last interval closed
+        process.nextInterval(true);
+        points.nextInterval(true);
+
+        summary(out);
+        if (options.output() != null) {
+            Files.write(options.output(), curve);
+            out.println("Throughput curve written to " + options.output());
+        }
+    }
+
+    private void openLoop() {
+        double periodNanos = 1e9 / options.rate();
+        Semaphore inFlight = new Semaphore(options.connections());
+        for (long i = 0; ; i++) {
+            long scheduled = start + (long) (i * periodNanos);
+            if (scheduled >= end) {
+                break;
+            }
+            parkUntil(scheduled);
+            inFlight.acquireUninterruptibly();
+            Call call = nextCall();
+            long sent = System.nanoTime();
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, failure) -> {
+                        long now = System.nanoTime();
+                        complete(call, response, failure, now - scheduled, now - sent, 0);
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquireUninterruptibly(options.connections());
+    }
+
+    private void closedLoop(int connection) {
+        long expectedInterval = options.rate() > 0 ? (long) (options.connections() * 1e9 / options.rate()) : 0;
+        long next = start + expectedInterval * connection / options.connections();
+        while (true) {
+            parkUntil(next);
+            long sent = System.nanoTime();
+            if (sent >= end) {
+                return;
+            }
+            Call call = nextCall();
+            try {
+                HttpResponse<String> response = client.send(call.request(), HttpResponse.BodyHandlers.ofString());
+                long latency = System.nanoTime() - sent;
+                complete(call, response, null, latency, latency, expectedInterval);
+            } catch (IOException e) {
+                complete(call, null, e, 0, 0, 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // A late connection does not catch up; the corrected histogram accounts for the gap
+            next = Math.max(next + expectedInterval, System.nanoTime());
+        }
+    }
+
+    private Call nextCall() {
+        long known = Math.min(idCount.get(), ID_SLOTS);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean miss = options.missRatio() > 0 && random.nextDouble() < options.missRatio();
+        if ((known > 0 || miss) && random.nextDouble() < options.readRatio()) {
+            String id = miss
+                    ? new UUID(random.nextLong(), random.nextLong()).toString()
+                    : ids.get(random.nextInt((int) known));
+            return new Call(points, HttpRequest.newBuilder(options.target().resolve("/receipts/" + id + "/points"))
+                    .GET()
+                    .build(), miss);
+        }
+        return new Call(process, HttpRequest.newBuilder(processUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(bodies.next()))
+                .build(), false);
+    }
+
+    private void complete(Call call, HttpResponse<String> response, Throwable failure,
+                          long latency, long service, long expectedInterval) {
+        if (failure != null || response.statusCode() >= 300 && !(call.miss() && response.statusCode() == 404)) {
+            call.stats().error();
+            return;
+        }
+        call.stats().record(latency, service, expectedInterval);
+        if (call.stats() == process) {
+            String body = response.body();
+            int from = body.indexOf("\"id\":\"") + 6;
+            int to = body.indexOf('"', from);
+            if (from > 5 && to > from) {
+                ids.set((int) (idCount.getAndIncrement() & (ID_SLOTS - 1)), body.substring(from, to));
+            }
+        }
+    }
+
+    private String report(PrintStream out, long intervalStart, long intervalEnd, boolean measured) {
+        double seconds = (intervalEnd - intervalStart) / 1e9;
+        double elapsed = (intervalEnd - start) / 1e9;
+        Histogram both = process.correctedInterval().copy();
+        both.add(points.correctedInterval());
+        long errors = process.intervalErrors() + points.intervalErrors();
+        out.printf(Locale.ROOT, "%7.1fs  process %8.0f/s  points %8.0f/s  errors %5d  p50 %8.3f ms  p99 %8.3f ms  p99.9 %8.3f ms%s%n",
+                elapsed, process.intervalCount() / seconds, points.intervalCount() / seconds, errors,
+                millis(both, 50), millis(both, 99), millis(both, 99.9), measured ? "" : "  (warmup)");
+        return String.format(Locale.ROOT, "%.1f,%.0f,%.0f,%d,%.3f,%.3f,%.3f,%.3f",
+                elapsed, process.intervalCount() / seconds, points.intervalCount() / seconds, errors,
+                millis(both, 50), millis(both, 99), millis(both, 99.9), both.getMaxValue() / NANOS_PER_MILLI);
+    }
+
+    private void summary(PrintStream out) {
+        double seconds = options.duration().toNanos() / 1e9;
+        Histogram allCorrected = process.correctedTotal().copy();
+        allCorrected.add(points.correctedTotal());
+        Histogram allUncorrected = process.uncorrectedTotal().copy();
+        allUncorrected.add(points.uncorrectedTotal());
+        long allErrors = process.errorsTotal() + points.errorsTotal();
+
+        out.println();
+        out.printf("%-10s %10s %10s %8s %10s %10s %10s %10s %10s%n",
+                "", "responses", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        out.println("Latency from scheduled start (corrected for coordinated omission):");
+        for (LatencyStats stats : List.of(process, points)) {
+            row(out, stats.name(), stats.uncorrectedTotal().getTotalCount(), seconds, stats.errorsTotal(),
+                    stats.correctedTotal());
+        }
+        row(out, "all", allUncorrected.getTotalCount(), seconds, allErrors, allCorrected);
+        out.println("Service time (send to response, uncorrected):");
+        for (LatencyStats stats : List.of(process, points)) {
+            row(out, stats.name(), stats.uncorrectedTotal().getTotalCount(), seconds, stats.errorsTotal(),
+                    stats.uncorrectedTotal());
+        }
+        row(out, "all", allUncorrected.getTotalCount(), seconds, allErrors, allUncorrected);
+    }
+
+    private static void row(PrintStream out, String name, long responses, double seconds, long errors,
+                            Histogram histogram) {
+        out.printf(Locale.ROOT, "%-10s %10d %10.0f %8d %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                name, responses, responses / seconds, errors, millis(histogram, 50), millis(histogram, 90),
+                millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / NANOS_PER_MILLI);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    private static void parkUntil(long deadline) {
+        for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /** @param miss whether the lookup is for an unknown ID, for which a 404 is the expected answer */
+    private record Call(LatencyStats stats, HttpRequest request, boolean miss) {
+    }
+}
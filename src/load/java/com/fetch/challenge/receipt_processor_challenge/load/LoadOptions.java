@@ -0,0 +1,61 @@
+package com.fetch.challenge.receipt_processor_challenge.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line options, given as {@code --name=value}.
+ */
+record LoadOptions(URI target, Mode mode, double rate, int connections, Duration duration, Duration warmup,
+                   double readRatio, double missRatio, Path input, Duration interval, Path output) {
+
+    enum Mode {
+        /** Requests start on a fixed schedule whether or not earlier ones have finished. */
+        OPEN,
+        /** Each connection sends its next request once the previous one has finished. */
+        CLOSED
+    }
+
+    private static final Set<String> NAMES = Set.of("url", "mode", "rate", "connections", "duration", "warmup",
+            "read-ratio", "miss-ratio", "input", "interval", "output");
+
+    static LoadOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0 || !NAMES.contains(arg.substring(2, equals))) {
+                throw new IllegalArgumentException("Unknown option " + arg + ", expected --name=value with name one of " + NAMES);
+            }
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        LoadOptions options = new LoadOptions(
+                URI.create(values.getOrDefault("url", "http://localhost:8080")),
+                Mode.valueOf(values.getOrDefault("mode", "open").toUpperCase()),
+                Double.parseDouble(values.getOrDefault("rate", "1000")),
+                Integer.parseInt(values.getOrDefault("connections", "64")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                Double.parseDouble(values.getOrDefault("read-ratio", "0.5")),
+                Double.parseDouble(values.getOrDefault("miss-ratio", "0")),
+                values.containsKey("input") ? Path.of(values.get("input")) : null,
+                DurationStyle.detectAndParse(values.getOrDefault("interval", "1s")),
+                values.containsKey("output") ? Path.of(values.get("output")) : null);
+        if (options.mode() == Mode.OPEN && options.rate() <= 0) {
+            throw new IllegalArgumentException("--rate must be positive in open mode");
+        }
+        if (options.connections() < 1 || options.readRatio() < 0 || options.readRatio() > 1
+                || options.missRatio() < 0 || options.missRatio() > 1
+                || options.interval().isZero() || options.duration().isZero()) {
+            throw new IllegalArgumentException(
+                    "--connections, --read-ratio, --miss-ratio, --interval or --duration out of range");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,75 @@
+package com.fetch.challenge.receipt_processor_challenge.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receipt bodies for {@code POST /receipts/process}, replayed in order from a JSONL file or
+ * generated up front so that building requests costs nothing during the run.
+ */
+final class RequestBodies {
+    private static final String[] RETAILERS = {"Target", "Walgreens", "M&M Corner Market", "Costco", "Trader Joe's"};
+    private static final String[] DESCRIPTIONS = {"Mountain Dew 12PK", "Emils Cheese Pizza", "Knorr Creamy Chicken",
+            "Doritos Nacho Cheese", "Klarbrunn 12-PK 12 FL OZ", "Gatorade", "Pepsi - 12-oz", "Dasani"};
+
+    private final List<String> bodies;
+    private final AtomicLong next = new AtomicLong();
+
+    private RequestBodies(List<String> bodies) {
+        if (bodies.isEmpty()) {
+            throw new IllegalArgumentException("No receipts to send");
+        }
+        this.bodies = bodies;
+    }
+
+    static RequestBodies from(Path input) throws IOException {
+        if (input == null) {
+            return synthetic(4096, new Random(42));
+        }
+        try (var lines = Files.lines(input)) {
+            return new RequestBodies(lines.filter(line -> !line.isBlank()).toList());
+        }
+    }
+
+    static RequestBodies synthetic(int count, Random random) {
+        List<String> bodies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder json = new StringBuilder(256)
+                    .append("{\"retailer\":\"").append(RETAILERS[random.nextInt(RETAILERS.length)])
+                    .append("\",\"purchaseDate\":\"").append(LocalDate.of(2022, 1, 1).plusDays(random.nextInt(365)))
+                    .append("\",\"purchaseTime\":\"")
+                    .append(String.format(Locale.ROOT, "%02d:%02d", random.nextInt(24), random.nextInt(60)))
+                    .append("\",\"items\":[");
+            int items = 1 + random.nextInt(8);
+            long totalCents = 0;
+            for (int item = 0; item < items; item++) {
+                int cents = random.nextInt(4) == 0 ? 100 * (1 + random.nextInt(20)) : 50 + random.nextInt(2000);
+                totalCents += cents;
+                json.append(item == 0 ? "" : ",")
+                        .append("{\"shortDescription\":\"").append(DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)])
+                        .append("\",\"price\":\"").append(dollars(cents)).append("\"}");
+            }
+            bodies.add(json.append("],\"total\":\"").append(dollars(totalCents)).append("\"}").toString());
+        }
+        return new RequestBodies(bodies);
+    }
+
+    String next() {
+        return bodies.get((int) (next.getAndIncrement() % bodies.size()));
+    }
+
+    int size() {
+        return bodies.size();
+    }
+
+    private static String dollars(long cents) {
+        return String.format(Locale.ROOT, "%d.%02d", cents / 100, cents % 100);
+    }
+}
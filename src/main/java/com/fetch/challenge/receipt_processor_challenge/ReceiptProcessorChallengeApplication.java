@@ -1,13 +1,20 @@
 package com.fetch.challenge.receipt_processor_challenge;
 
+import com.fetch.challenge.receipt_processor_challenge.cli.BulkScoringMode;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class ReceiptProcessorChallengeApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ReceiptProcessorChallengeApplication.class, args);
+		SpringApplication application = new SpringApplication(ReceiptProcessorChallengeApplication.class);
+		application.addListeners(new BulkScoringMode());
+		ConfigurableApplicationContext context = application.run(args);
+		if (BulkScoringMode.isEnabled(context.getEnvironment())) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -0,0 +1,55 @@
+package com.fetch.challenge.receipt_processor_challenge.aggregate;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min sketch of receipt counts and points: {@code depth} rows of {@code width} counters, with
+ * each key adding to one counter in every row and read back as the smallest of them. An estimate
+ * never falls below the true total, and with probability {@code 1 - e^-depth} exceeds it by at most
+ * {@code e / width} of everything added. Points are never negative, which that bound relies on.
+ * <p>
+ * Counters are plain atomic adds, so writers only contend when their keys share a counter.
+ */
+final class CountMinSketch {
+    private final AtomicLongArray receipts;
+    private final AtomicLongArray points;
+    private final int width;
+    private final int depth;
+
+    CountMinSketch(int width, int depth) {
+        this.width = Integer.highestOneBit(Math.max(16, Math.min(width, 1 << 24)) - 1) << 1;
+        this.depth = Math.max(1, depth);
+        this.receipts = new AtomicLongArray(this.width * this.depth);
+        this.points = new AtomicLongArray(this.width * this.depth);
+    }
+
+    void add(long hash, int receiptPoints) {
+        for (int row = 0; row < depth; row++) {
+            int index = index(hash, row);
+            receipts.getAndIncrement(index);
+            points.getAndAdd(index, receiptPoints);
+        }
+    }
+
+    long receipts(long hash) {
+        return estimate(receipts, hash);
+    }
+
+    long points(long hash) {
+        return estimate(points, hash);
+    }
+
+    private long estimate(AtomicLongArray counters, long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(index(hash, row)));
+        }
+        return min;
+    }
+
+    /** Row {@code row}'s counter, picked by double hashing on the two halves of the hash. */
+    private int index(long hash, int row) {
+        int column = ((int) hash + row * ((int) (hash >>> 32) | 1)) & (width - 1);
+        return row * width + column;
+    }
+}
@@ -0,0 +1,130 @@
+package com.fetch.challenge.receipt_processor_challenge.aggregate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Receipt counts and points per key, added to as receipts are stored and read without scanning.
+ * <p>
+ * The first {@code exactKeys} keys, give or take concurrent arrivals, get a pair of LongAdders and
+ * are counted exactly. Keys arriving after that are counted in a {@link CountMinSketch}, so memory
+ * stays bounded however many keys there are, and are read back as overestimates.
+ * <p>
+ * The {@code top} keys with the most points are tracked as they are added to: a key whose total
+ * passes the smallest tracked total takes that key's place. Adding to a tracked key, or to one
+ * below that threshold, takes no lock.
+ */
+public final class KeyedTotals<K> {
+    private final ConcurrentHashMap<K, Counter> exact = new ConcurrentHashMap<>();
+    private final int exactKeyLimit;
+    private final Function<K, Counter> newCounter;
+    private final CountMinSketch sketch;
+    private final ToLongFunction<K> hasher;
+    private final int topSize;
+    private final Set<K> top = ConcurrentHashMap.newKeySet();
+    // Stale only downwards: tracked totals only grow, so a key above it may still be too small
+    private volatile long topThreshold = Long.MIN_VALUE;
+    private volatile boolean overflowed;
+
+    /**
+     * @param hasher 64-bit hash of a key for the sketch
+     * @param top    keys with the most points to track, or 0 for none
+     */
+    public KeyedTotals(int exactKeys, int sketchWidth, int sketchDepth, int top, ToLongFunction<K> hasher) {
+        this.exactKeyLimit = exactKeys;
+        this.newCounter = key -> exact.size() < exactKeyLimit ? new Counter() : null;
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        this.hasher = hasher;
+        this.topSize = top;
+    }
+
+    public void add(K key, int points) {
+        Counter counter = exact.get(key);
+        if (counter == null) {
+            counter = exact.computeIfAbsent(key, newCounter);
+        }
+        long total;
+        if (counter != null) {
+            counter.receipts.increment();
+            counter.points.add(points);
+            total = topSize == 0 ? 0 : counter.points.sum();
+        } else {
+            if (!overflowed) {
+                overflowed = true;
+            }
+            long hash = hasher.applyAsLong(key);
+            sketch.add(hash, points);
+            total = topSize == 0 ? 0 : sketch.points(hash);
+        }
+        if (topSize > 0 && total > topThreshold && !top.contains(key)) {
+            offerTop(key);
+        }
+    }
+
+    /** Totals for the key, exact unless it arrived after the first {@code exactKeys}. */
+    public Totals<K> get(K key) {
+        Counter counter = exact.get(key);
+        if (counter != null) {
+            return new Totals<>(key, counter.receipts.sum(), counter.points.sum(), true);
+        }
+        if (!overflowed) {
+            return new Totals<>(key, 0, 0, true);
+        }
+        long hash = hasher.applyAsLong(key);
+        return new Totals<>(key, sketch.receipts(hash), sketch.points(hash), false);
+    }
+
+    /** The tracked keys with the most points, most first. */
+    public List<Totals<K>> top() {
+        List<Totals<K>> totals = new ArrayList<>(topSize + 1);
+        for (K key : top) {
+            totals.add(get(key));
+        }
+        totals.sort(Comparator.comparingLong(Totals<K>::points).reversed());
+        return totals.size() > topSize ? totals.subList(0, topSize) : totals;
+    }
+
+    /** Keys counted exactly so far. */
+    public int exactKeys() {
+        return exact.size();
+    }
+
+    private synchronized void offerTop(K key) {
+        if (!top.add(key) || top.size() < topSize) {
+            return;
+        }
+        K smallest = null;
+        long smallestPoints = Long.MAX_VALUE;
+        long secondPoints = Long.MAX_VALUE;
+        for (K tracked : top) {
+            long points = get(tracked).points();
+            if (points < smallestPoints) {
+                secondPoints = smallestPoints;
+                smallestPoints = points;
+                smallest = tracked;
+            } else if (points < secondPoints) {
+                secondPoints = points;
+            }
+        }
+        if (top.size() > topSize) {
+            top.remove(smallest);
+            topThreshold = secondPoints;
+        } else {
+            topThreshold = smallestPoints;
+        }
+    }
+
+    public record Totals<K>(K key, long receipts, long points, boolean exact) {
+    }
+
+    private static final class Counter {
+        private final LongAdder receipts = new LongAdder();
+        private final LongAdder points = new LongAdder();
+    }
+}
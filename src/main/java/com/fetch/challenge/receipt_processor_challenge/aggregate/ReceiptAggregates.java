@@ -0,0 +1,71 @@
+package com.fetch.challenge.receipt_processor_challenge.aggregate;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptAggregateProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Receipt counts and points by retailer and by purchase date, kept up to date as new receipts are
+ * stored so that reading them does not touch the store. Uploads answered with the ID of a stored
+ * duplicate are not counted again. Totals cover every receipt stored since startup, including
+ * receipts the store has since evicted, and in cluster mode only those stored on this node. A
+ * durable store adds the receipts it recovers on startup.
+ */
+public class ReceiptAggregates {
+    private final KeyedTotals<String> retailers;
+    private final KeyedTotals<LocalDate> days;
+
+    public ReceiptAggregates(ReceiptAggregateProperties properties) {
+        this.retailers = new KeyedTotals<>(properties.getExactRetailers(), properties.getSketchWidth(),
+                properties.getSketchDepth(), properties.getTopRetailers(), ReceiptAggregates::hash);
+        this.days = new KeyedTotals<>(properties.getExactDays(), properties.getSketchWidth(),
+                properties.getSketchDepth(), 0, date -> mix(date.toEpochDay()));
+    }
+
+    public void add(ReceiptDTO receipt, int points) {
+        if (receipt.getRetailer() != null) {
+            retailers.add(receipt.getRetailer(), points);
+        }
+        if (receipt.getPurchaseDate() != null) {
+            days.add(receipt.getPurchaseDate(), points);
+        }
+    }
+
+    /** Adds receipt {@code i} with {@code points[i]}. */
+    public void addAll(List<ReceiptDTO> receipts, int[] points) {
+        for (int i = 0; i < receipts.size(); i++) {
+            add(receipts.get(i), points[i]);
+        }
+    }
+
+    public KeyedTotals.Totals<String> retailer(String retailer) {
+        return retailers.get(retailer);
+    }
+
+    public List<KeyedTotals.Totals<String>> topRetailers() {
+        return retailers.top();
+    }
+
+    public KeyedTotals.Totals<LocalDate> day(LocalDate date) {
+        return days.get(date);
+    }
+
+    /** FNV-1a over the characters, finished with {@link #mix} since FNV's low bits mix poorly. */
+    static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,60 @@
+package com.fetch.challenge.receipt_processor_challenge.cli;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptCliProperties;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Selects offline bulk scoring when {@code receipt.cli.input} is set from any property source
+ * (arguments, environment variables, config files or a profile). Bulk scoring starts no web
+ * server. When it writes to standard output, it also prints no banner and logs nothing to the
+ * console, so that standard output carries only {@code offset,points} lines.
+ */
+public class BulkScoringMode implements ApplicationListener<ApplicationEnvironmentPreparedEvent>, Ordered {
+    static final String PROPERTY_SOURCE = "receiptBulkScoring";
+
+    /** Whether the bound {@code receipt.cli} properties select bulk scoring. */
+    public static boolean isEnabled(Environment environment) {
+        String input = cli(environment).getInput();
+        return input != null && !input.isEmpty();
+    }
+
+    /** Whether bulk scoring writes its lines to standard output. */
+    public static boolean writesToStandardOutput(Environment environment) {
+        return isEnabled(environment) && "-".equals(cli(environment).getOutput());
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        ConfigurableEnvironment environment = event.getEnvironment();
+        if (!isEnabled(environment)) {
+            return;
+        }
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("spring.main.web-application-type", "none");
+        if (writesToStandardOutput(environment)) {
+            overrides.put("spring.main.banner-mode", "off");
+            overrides.put("logging.threshold.console", "off");
+        }
+        environment.getPropertySources().addFirst(new MapPropertySource(PROPERTY_SOURCE, overrides));
+    }
+
+    // After config files and profiles are loaded, before the logging system reads its properties
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 15;
+    }
+
+    private static ReceiptCliProperties cli(Environment environment) {
+        return Binder.get(environment).bind("receipt.cli", ReceiptCliProperties.class)
+                .orElseGet(ReceiptCliProperties::new);
+    }
+}
@@ -0,0 +1,246 @@
+package com.fetch.challenge.receipt_processor_challenge.cli;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptCliProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.rule.PointRule;
+import com.fetch.challenge.receipt_processor_challenge.rule.ScoringEngine;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Offline bulk-scoring mode: memory-maps a JSONL file, splits it into line-aligned chunks and
+ * scores the chunks in parallel on a {@link ForkJoinPool} with the same {@link PointRule} beans
+ * the API uses. Selected by setting {@code receipt.cli.input}, see {@link BulkScoringMode}.
+ * <p>
+ * Each valid receipt is written as {@code offset,points}, where the offset is the byte offset of
+ * its line in the input, so results can be joined back to their receipts in any order.
+ */
+@Component
+@ConditionalOnProperty(prefix = "receipt.cli", name = "input")
+public class BulkScoringRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(BulkScoringRunner.class);
+
+    private final ScoringEngine scoringEngine;
+    private final ReceiptValidator receiptValidator;
+    private final ObjectReader receiptReader;
+    private final ReceiptCliProperties properties;
+
+    public BulkScoringRunner(@Qualifier("pointRules") List<PointRule> pointRules,
+                             ReceiptValidator receiptValidator,
+                             ObjectMapper objectMapper,
+                             ReceiptCliProperties properties) {
+        long chunkSize = properties.getChunkSize().toBytes();
+        if (chunkSize < 1 || chunkSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("receipt.cli.chunk-size must be between 1B and " + Integer.MAX_VALUE + "B");
+        }
+        this.scoringEngine = new ScoringEngine(pointRules);
+        this.receiptValidator = receiptValidator;
+        this.receiptReader = objectMapper.readerFor(ReceiptDTO.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Path input = Path.of(properties.getInput());
+        String output = properties.getOutput();
+        BulkScoringSummary summary;
+        if (output == null || output.isEmpty()) {
+            summary = score(input, null);
+        } else if ("-".equals(output)) {
+            summary = score(input, System.out);
+            // Console logging is off so that standard output carries only results
+            System.err.println(summary);
+        } else {
+            try (OutputStream out = new FileOutputStream(output)) {
+                summary = score(input, out);
+            }
+        }
+        log.info("{}", summary);
+    }
+
+    public BulkScoringSummary score(Path input, OutputStream output) throws IOException {
+        long started = System.nanoTime();
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        OutputStream out = output == null ? null : new BufferedOutputStream(output, 1 << 16);
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<Long> boundaries = chunkBoundaries(channel, size, properties.getChunkSize().toBytes());
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            ChunkResult result;
+            try {
+                result = pool.invoke(new ScoreChunks(channel, boundaries, 0, boundaries.size() - 1, out));
+            } finally {
+                pool.shutdown();
+            }
+            if (out != null) {
+                out.flush();
+            }
+            return new BulkScoringSummary(result.receipts, result.invalid, result.points, size,
+                    System.nanoTime() - started);
+        }
+    }
+
+    /** Offsets where chunks start, each just past a newline, ending with the file size. */
+    private static List<Long> chunkBoundaries(FileChannel channel, long size, long chunkSize) throws IOException {
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = Math.max(1, chunkSize);
+        while (position < size) {
+            long newline = -1;
+            long scan = position;
+            while (newline < 0 && scan < size) {
+                probe.clear();
+                int read = channel.read(probe, scan);
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = scan + i;
+                        break;
+                    }
+                }
+                scan += Math.max(read, 1);
+            }
+            if (newline < 0 || newline + 1 >= size) {
+                break;
+            }
+            boundaries.add(newline + 1);
+            position = newline + 1 + chunkSize;
+        }
+        boundaries.add(size);
+        return boundaries;
+    }
+
+    private record ChunkResult(long receipts, long invalid, long points) {
+        ChunkResult plus(ChunkResult other) {
+            return new ChunkResult(receipts + other.receipts, invalid + other.invalid, points + other.points);
+        }
+    }
+
+    private final class ScoreChunks extends RecursiveTask<ChunkResult> {
+        private final FileChannel channel;
+        private final List<Long> boundaries;
+        private final int from;
+        private final int to;
+        private final OutputStream out;
+
+        ScoreChunks(FileChannel channel, List<Long> boundaries, int from, int to, OutputStream out) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+            this.out = out;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                ScoreChunks left = new ScoreChunks(channel, boundaries, from, middle, out);
+                left.fork();
+                ChunkResult right = new ScoreChunks(channel, boundaries, middle, to, out).compute();
+                return left.join().plus(right);
+            }
+            try {
+                return scoreChunk(boundaries.get(from), boundaries.get(to));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private ChunkResult scoreChunk(long start, long end) throws IOException {
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line at offset " + start + " runs past the largest region that can be mapped");
+            }
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            ByteArrayOutputStream lines = out == null ? null : new ByteArrayOutputStream();
+            byte[] line = new byte[1024];
+            long receipts = 0;
+            long invalid = 0;
+            long points = 0;
+
+            while (region.hasRemaining()) {
+                long offset = start + region.position();
+                int length = 0;
+                while (region.hasRemaining()) {
+                    byte b = region.get();
+                    if (b == '\n') {
+                        break;
+                    }
+                    if (length == line.length) {
+                        byte[] grown = new byte[line.length * 2];
+                        System.arraycopy(line, 0, grown, 0, length);
+                        line = grown;
+                    }
+                    line[length++] = b;
+                }
+                if (isBlank(line, length)) {
+                    continue;
+                }
+
+                ReceiptDTO receipt;
+                try {
+                    receipt = receiptReader.readValue(line, 0, length);
+                } catch (IOException e) {
+                    invalid++;
+                    continue;
+                }
+                if (!receiptValidator.validate(receipt).isEmpty()) {
+                    invalid++;
+                    continue;
+                }
+                int receiptPoints = scoringEngine.score(receipt);
+                receipts++;
+                points += receiptPoints;
+                if (lines != null) {
+                    lines.write((offset + "," + receiptPoints + "\n").getBytes(StandardCharsets.US_ASCII));
+                }
+            }
+
+            if (lines != null) {
+                synchronized (out) {
+                    lines.writeTo(out);
+                }
+            }
+            return new ChunkResult(receipts, invalid, points);
+        }
+
+        private boolean isBlank(byte[] line, int length) {
+            for (int i = 0; i < length; i++) {
+                if (!Character.isWhitespace(line[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.fetch.challenge.receipt_processor_challenge.cli;
+
+public record BulkScoringSummary(long receipts, long invalid, long totalPoints, long bytes, long elapsedNanos) {
+
+    public double receiptsPerSecond() {
+        return receipts / seconds();
+    }
+
+    public double megabytesPerSecond() {
+        return bytes / (1024.0 * 1024.0) / seconds();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Scored %d receipts (%d invalid lines skipped), %d points total, in %.2f s: "
+                        + "%.0f receipts/s, %.1f MB/s",
+                receipts, invalid, totalPoints, seconds(), receiptsPerSecond(), megabytesPerSecond());
+    }
+
+    private double seconds() {
+        return Math.max(elapsedNanos, 1) / 1e9;
+    }
+}
@@ -0,0 +1,99 @@
+package com.fetch.challenge.receipt_processor_challenge.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fetch.challenge.receipt_processor_challenge.dto.PointsResponseDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.exception.NodeUnavailableException;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Calls the {@code /cluster/receipts} endpoints of other nodes, which store and look up receipts
+ * locally without routing them again. Requests use the application's {@link ObjectMapper} so
+ * receipts travel in the same JSON form the public API accepts, and carry the cluster secret in
+ * {@link #SECRET_HEADER}.
+ */
+public class ClusterClient {
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private final List<String> nodes;
+    private final RestClient[] clients;
+
+    public ClusterClient(List<String> nodes, String secret, Duration timeout, ObjectMapper objectMapper) {
+        this.nodes = List.copyOf(nodes);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+        clients = new RestClient[nodes.size()];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = RestClient.builder()
+                    .baseUrl(nodes.get(i))
+                    .requestFactory(requestFactory)
+                    .defaultHeader(SECRET_HEADER, secret)
+                    .messageConverters(converters -> {
+                        converters.removeIf(MappingJackson2HttpMessageConverter.class::isInstance);
+                        converters.add(new MappingJackson2HttpMessageConverter(objectMapper));
+                    })
+                    .build();
+        }
+    }
+
+    /** Stores the receipts on the node and returns their IDs in order. */
+    public List<String> store(int node, List<ReceiptDTO> receipts) {
+        try {
+            String[] ids = clients[node].post()
+                    .uri("/cluster/receipts")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(receipts)
+                    .retrieve()
+                    .body(String[].class);
+            if (ids == null || ids.length != receipts.size()) {
+                throw new NodeUnavailableException("Node " + nodes.get(node) + " returned "
+                        + (ids == null ? "no" : ids.length) + " IDs for " + receipts.size() + " receipts", null);
+            }
+            return Arrays.asList(ids);
+        } catch (RestClientException e) {
+            throw new NodeUnavailableException("Node " + nodes.get(node) + " could not store receipts: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /** Returns the points the node holds for the ID, or {@link ReceiptStore#MISSING}. */
+    public int points(int node, String id) {
+        try {
+            return clients[node].get()
+                    .uri("/cluster/receipts/{id}/points", id)
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+                            return ReceiptStore.MISSING;
+                        }
+                        if (response.getStatusCode().isError()) {
+                            throw new NodeUnavailableException("Node " + nodes.get(node) + " answered "
+                                    + response.getStatusCode().value() + " looking up " + id, null);
+                        }
+                        PointsResponseDTO body = response.bodyTo(PointsResponseDTO.class);
+                        if (body == null || body.getPoints() == null) {
+                            throw new NodeUnavailableException("Node " + nodes.get(node) + " returned no points for "
+                                    + id, null);
+                        }
+                        return body.getPoints();
+                    });
+        } catch (RestClientException e) {
+            throw new NodeUnavailableException("Node " + nodes.get(node) + " could not look up " + id + ": "
+                    + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.fetch.challenge.receipt_processor_challenge.cluster;
+
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptFingerprint;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdUtil;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring assigning shards to nodes. Each node is hashed onto the ring at
+ * {@code virtualNodes} points and a shard belongs to the first point at or after its own hash, so
+ * adding or removing a node moves only the shards next to that node's points. Ownership is worked
+ * out once for every shard, which makes routing an array lookup.
+ *
+ * <p>Receipts are hashed into shards by content, so uploads of the same receipt always reach the
+ * same node and its duplicate detection.
+ */
+public final class ShardRing {
+    private final List<String> nodes;
+    private final int self;
+    private final int[] owners;
+
+    public ShardRing(List<String> nodes, String self, int shards, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A cluster needs at least one node");
+        }
+        if (shards < 1 || shards > ReceiptIdUtil.MAX_SHARDS) {
+            throw new IllegalArgumentException("Shards must be between 1 and " + ReceiptIdUtil.MAX_SHARDS);
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be at least 1");
+        }
+        this.nodes = List.copyOf(nodes);
+        this.self = this.nodes.indexOf(self);
+        if (this.self < 0) {
+            throw new IllegalArgumentException("This node (" + self + ") is not one of " + nodes);
+        }
+
+        TreeMap<Long, Integer> ring = new TreeMap<>();
+        for (int node = 0; node < this.nodes.size(); node++) {
+            for (int point = 0; point < virtualNodes; point++) {
+                ring.putIfAbsent(hash(this.nodes.get(node), point), node);
+            }
+        }
+        owners = new int[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            Map.Entry<Long, Integer> point = ring.ceilingEntry(mix(shard * 0x9E3779B97F4A7C15L));
+            owners[shard] = (point == null ? ring.firstEntry() : point).getValue();
+        }
+    }
+
+    public int shardOf(ReceiptFingerprint fingerprint) {
+        return (int) Long.remainderUnsigned(fingerprint.high(), owners.length);
+    }
+
+    /** Index in {@link #nodes()} of the node owning the shard. */
+    public int owner(int shard) {
+        return owners[shard];
+    }
+
+    public boolean isLocal(int shard) {
+        return owners[shard] == self;
+    }
+
+    public int shards() {
+        return owners.length;
+    }
+
+    public int self() {
+        return self;
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    private static long hash(String node, int point) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < node.length(); i++) {
+            h = (h ^ node.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h ^ point * 0xC2B2AE3D27D4EB4FL);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,42 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fetch.challenge.receipt_processor_challenge.cluster.ClusterClient;
+import com.fetch.challenge.receipt_processor_challenge.cluster.ShardRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ReceiptClusterProperties.class)
+@ConditionalOnProperty(prefix = "receipt.cluster", name = "enabled", havingValue = "true")
+public class ClusterConfiguration {
+    private static final Logger log = LoggerFactory.getLogger(ClusterConfiguration.class);
+
+    @Bean
+    public ShardRing shardRing(ReceiptClusterProperties properties, ReceiptAsyncProperties asyncProperties) {
+        if (asyncProperties.isEnabled()) {
+            throw new IllegalStateException("receipt.cluster.enabled cannot be combined with receipt.async.enabled");
+        }
+        if (properties.getSecret() == null || properties.getSecret().isBlank()) {
+            throw new IllegalStateException("receipt.cluster.secret is required in cluster mode");
+        }
+        ShardRing ring = new ShardRing(properties.getNodes(), properties.getSelf(), properties.getShards(),
+                properties.getVirtualNodes());
+        int owned = 0;
+        for (int shard = 0; shard < ring.shards(); shard++) {
+            owned += ring.isLocal(shard) ? 1 : 0;
+        }
+        log.info("Node {} of {} owns {} of {} shards", ring.self() + 1, ring.nodes().size(), owned, ring.shards());
+        return ring;
+    }
+
+    @Bean
+    public ClusterClient clusterClient(ReceiptClusterProperties properties, ObjectMapper objectMapper) {
+        return new ClusterClient(properties.getNodes(), properties.getSecret(), properties.getForwardTimeout(),
+                objectMapper);
+    }
+}
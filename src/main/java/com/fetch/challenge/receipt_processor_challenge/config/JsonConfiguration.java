@@ -0,0 +1,15 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptJsonModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JsonConfiguration {
+
+    /** Picked up by Spring Boot's ObjectMapper, so both web stacks, NDJSON and the CLI use it. */
+    @Bean
+    public ReceiptJsonModule receiptJsonModule() {
+        return new ReceiptJsonModule();
+    }
+}
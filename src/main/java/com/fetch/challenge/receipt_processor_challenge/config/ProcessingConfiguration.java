@@ -0,0 +1,84 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import com.fetch.challenge.receipt_processor_challenge.aggregate.ReceiptAggregates;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptMetrics;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptServiceImpl;
+import com.fetch.challenge.receipt_processor_challenge.store.DuplicateIndex;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.util.RandomIdGenerator;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdGenerator;
+import com.fetch.challenge.receipt_processor_challenge.util.TimeOrderedIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableConfigurationProperties({ReceiptBatchProperties.class, ReceiptCliProperties.class, ReceiptAsyncProperties.class,
+        ReceiptMetricsProperties.class, ReceiptIdProperties.class, ReceiptAggregateProperties.class})
+public class ProcessingConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool scoringPool(ReceiptBatchProperties properties) {
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism);
+    }
+
+    @Bean
+    public ReceiptIdGenerator receiptIdGenerator(ReceiptIdProperties properties) {
+        return properties.getGenerator() == ReceiptIdProperties.Generator.TIME_ORDERED
+                ? new TimeOrderedIdGenerator()
+                : new RandomIdGenerator();
+    }
+
+    @Bean
+    public ReceiptMetrics receiptMetrics(MeterRegistry registry, ReceiptMetricsProperties properties) {
+        return new ReceiptMetrics(registry, properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "receipt.aggregates", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ReceiptAggregates receiptAggregates(ReceiptAggregateProperties properties) {
+        return new ReceiptAggregates(properties);
+    }
+
+    @Bean
+    public ReceiptServiceImpl.Options receiptServiceOptions(ReceiptStore receiptStore, ForkJoinPool scoringPool,
+                                                            ReceiptIdGenerator receiptIdGenerator,
+                                                            ReceiptMetrics receiptMetrics,
+                                                            ObjectProvider<DuplicateIndex> duplicateIndex,
+                                                            ObjectProvider<ReceiptAggregates> receiptAggregates) {
+        ReceiptServiceImpl.Options options = new ReceiptServiceImpl.Options();
+        options.setStore(receiptStore);
+        options.setScoringPool(scoringPool);
+        options.setIdGenerator(receiptIdGenerator);
+        options.setMetrics(receiptMetrics);
+        options.setDuplicates(duplicateIndex.getIfAvailable());
+        options.setAggregates(receiptAggregates.getIfAvailable());
+        return options;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "receipt.async", name = "enabled", havingValue = "true")
+    public ThreadPoolExecutor receiptQueue(ReceiptAsyncProperties properties) {
+        int threads = properties.getThreads() > 0
+                ? properties.getThreads()
+                : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = task -> new Thread(task, "receipt-scoring-" + count.incrementAndGet());
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
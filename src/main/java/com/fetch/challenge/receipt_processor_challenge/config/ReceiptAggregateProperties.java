@@ -0,0 +1,26 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.aggregates")
+public class ReceiptAggregateProperties {
+    /** Keep receipt counts and points per retailer and per purchase date as receipts are stored. */
+    private boolean enabled = true;
+
+    /** Retailers counted exactly; later ones are estimated by the sketch. */
+    private int exactRetailers = 10_000;
+
+    /** Purchase dates counted exactly; later ones are estimated by the sketch. */
+    private int exactDays = 36_600;
+
+    /** Counters per sketch row, rounded up to a power of two; estimates are off by at most e / width of the total. */
+    private int sketchWidth = 16_384;
+
+    /** Sketch rows; each row makes a larger error e times less likely. */
+    private int sketchDepth = 4;
+
+    /** Retailers with the most points to track. */
+    private int topRetailers = 10;
+}
@@ -0,0 +1,28 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.async")
+public class ReceiptAsyncProperties {
+    /** Return receipt IDs before scoring and score on a dedicated pool. */
+    private boolean enabled = false;
+
+    /** Receipts waiting to be scored; further receipts are rejected with 503 until the queue drains. */
+    private int queueCapacity = 10_000;
+
+    /** Scoring threads; 0 uses one per available processor. */
+    private int threads = 0;
+
+    /** How long a points lookup waits for a pending receipt before reporting it as pending. */
+    private Duration pointsWait = Duration.ZERO;
+
+    /** Receipts whose scoring failed that lookups still report as failed; older failures are forgotten. */
+    private int failuresRetained = 10_000;
+
+    /** How long shutdown waits for queued receipts to be scored before the store closes. */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
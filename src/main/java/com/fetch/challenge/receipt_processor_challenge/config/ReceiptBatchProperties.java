@@ -0,0 +1,20 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.batch")
+public class ReceiptBatchProperties {
+    /** Maximum number of receipts accepted in one batch request. */
+    private int maxSize = 1000;
+
+    /** Threads used to score a batch; 0 uses one per available processor. */
+    private int parallelism = 0;
+
+    /** Receipts scored together while streaming NDJSON; bounds the memory held per upload. */
+    private int streamChunkSize = 256;
+
+    /** Longest NDJSON line accepted, in bytes. */
+    private int maxLineLength = 1024 * 1024;
+}
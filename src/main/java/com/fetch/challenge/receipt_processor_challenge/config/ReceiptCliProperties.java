@@ -0,0 +1,21 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.cli")
+public class ReceiptCliProperties {
+    /** JSONL file to score; setting it starts the application in offline bulk-scoring mode. */
+    private String input;
+
+    /** Where {@code offset,points} lines are written; "-" for standard output, empty for a summary only. */
+    private String output;
+
+    /** Size of the line-aligned file regions scored as one task; at most 2 GB less one byte. */
+    private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+    /** Threads used to score chunks; 0 uses one per available processor. */
+    private int parallelism = 0;
+}
@@ -0,0 +1,33 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.cluster")
+public class ReceiptClusterProperties {
+    /** Spread receipts over the nodes below by shard, forwarding requests to the owning node. */
+    private boolean enabled = false;
+
+    /** Base URLs of every node, the same list on each node. */
+    private List<String> nodes = new ArrayList<>();
+
+    /** This node's entry in {@code nodes}. */
+    private String self;
+
+    /** Shards receipts are hashed into, at most 65536; changing it orphans existing IDs. */
+    private int shards = 4096;
+
+    /** Points per node on the hash ring; more points even out the shards each node owns. */
+    private int virtualNodes = 128;
+
+    /** Shared by every node and sent with each request between them; required in cluster mode. */
+    private String secret;
+
+    /** Connect and read timeout for requests forwarded to another node. */
+    private Duration forwardTimeout = Duration.ofSeconds(5);
+}
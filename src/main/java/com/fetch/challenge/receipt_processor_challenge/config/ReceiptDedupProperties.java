@@ -0,0 +1,14 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.dedup")
+public class ReceiptDedupProperties {
+    /** Answer uploads of an already stored receipt with its existing ID instead of scoring it again. */
+    private boolean enabled = false;
+
+    /** Fingerprints remembered; rounded up to a power of two. */
+    private int capacity = 1 << 20;
+}
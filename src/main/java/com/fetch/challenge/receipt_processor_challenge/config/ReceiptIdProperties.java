@@ -0,0 +1,16 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.id")
+public class ReceiptIdProperties {
+    /** How new receipt IDs are made: random version 4 UUIDs or time-ordered version 7 UUIDs. */
+    private Generator generator = Generator.RANDOM;
+
+    public enum Generator {
+        RANDOM,
+        TIME_ORDERED
+    }
+}
@@ -0,0 +1,22 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.metrics")
+public class ReceiptMetricsProperties {
+    /** Time one single-receipt upload, and record its item count, in this many; 0 disables both. */
+    private int processSampling = 32;
+
+    /** Time one points lookup in this many; 0 disables the lookup timer. */
+    private int lookupSampling = 64;
+
+    /** Time every rule on one scored receipt in this many; 0 disables per-rule timing. */
+    private int ruleSampling = 256;
+
+    /** Reuse one store stats snapshot for this long, so the store meters in one scrape agree. */
+    private Duration storeStatsMaxAge = Duration.ofSeconds(1);
+}
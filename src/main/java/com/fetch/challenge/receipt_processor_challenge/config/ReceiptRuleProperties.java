@@ -0,0 +1,17 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.rules")
+public class ReceiptRuleProperties {
+    /**
+     * Point rules as name to expression, compiled at startup. When any are given they replace the
+     * built-in rule classes; see {@code RuleExpressionCompiler} for the expression format.
+     */
+    private Map<String, String> definitions = new LinkedHashMap<>();
+}
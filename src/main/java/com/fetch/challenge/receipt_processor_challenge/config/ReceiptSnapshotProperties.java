@@ -0,0 +1,19 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.snapshot")
+public class ReceiptSnapshotProperties {
+    /** Periodically snapshot the points index next to the write-ahead log and restart from the latest snapshot. */
+    private boolean enabled = false;
+
+    /** Time between the end of one snapshot and the start of the next. */
+    private Duration interval = Duration.ofMinutes(5);
+
+    /** Also write retained receipts into the snapshot. */
+    private boolean includeReceipts = false;
+}
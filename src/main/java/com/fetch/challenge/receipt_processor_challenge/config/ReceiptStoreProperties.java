@@ -0,0 +1,30 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.store")
+public class ReceiptStoreProperties {
+    /** Maximum number of point totals kept; 0 keeps everything. */
+    private long maxPoints = 0;
+
+    /** How long a point total stays readable after it was scored; zero never expires. */
+    private Duration pointsTtl = Duration.ZERO;
+
+    /** Whether the raw receipt is kept next to its points at all. */
+    private boolean retainReceipts = true;
+
+    /** Maximum number of raw receipts kept; 0 keeps one per retained point total. */
+    private long maxReceipts = 0;
+
+    /** How raw receipts are held: as the parsed object graph or in the compact binary layout. */
+    private Encoding encoding = Encoding.OBJECT;
+
+    public enum Encoding {
+        OBJECT,
+        BINARY
+    }
+}
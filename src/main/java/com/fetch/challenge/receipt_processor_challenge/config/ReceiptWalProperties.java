@@ -0,0 +1,23 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import com.fetch.challenge.receipt_processor_challenge.store.WriteAheadLog;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "receipt.wal")
+public class ReceiptWalProperties {
+    /** Log every scored receipt to disk and replay the log on startup. */
+    private boolean enabled = false;
+
+    /** Directory holding the log file. */
+    private String directory = "data/wal";
+
+    /** When appended records are forced to disk. */
+    private WriteAheadLog.FsyncPolicy fsync = WriteAheadLog.FsyncPolicy.BATCH;
+
+    /** Longest time between forces with the {@code interval} policy. */
+    private Duration fsyncInterval = Duration.ofMillis(100);
+}
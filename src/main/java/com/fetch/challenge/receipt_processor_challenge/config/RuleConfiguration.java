@@ -1,13 +1,20 @@
 package com.fetch.challenge.receipt_processor_challenge.config;
 
 import com.fetch.challenge.receipt_processor_challenge.rule.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
+@EnableConfigurationProperties(ReceiptRuleProperties.class)
 public class RuleConfiguration {
+    private static final Logger log = LoggerFactory.getLogger(RuleConfiguration.class);
 
     @Bean
     public List<PointRule> pointRules(
@@ -17,8 +24,17 @@ public class RuleConfiguration {
             ItemCountRule itemCountRule,
             ItemDescriptionRule itemDescriptionRule,
             OddDayRule oddDayRule,
-            TimeRangeRule timeRangeRule
+            TimeRangeRule timeRangeRule,
+            ReceiptRuleProperties properties
     ) {
+        if (!properties.getDefinitions().isEmpty()) {
+            List<PointRule> rules = new ArrayList<>();
+            for (Map.Entry<String, String> definition : properties.getDefinitions().entrySet()) {
+                rules.add(RuleExpressionCompiler.compile(definition.getKey(), definition.getValue()));
+            }
+            log.info("Compiled {} point rules from receipt.rules.definitions: {}", rules.size(), rules);
+            return List.copyOf(rules);
+        }
         return List.of(
                 retailerNameRule,
                 roundDollarRule,
@@ -0,0 +1,98 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import com.fetch.challenge.receipt_processor_challenge.aggregate.ReceiptAggregates;
+import com.fetch.challenge.receipt_processor_challenge.store.ConcurrentReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.DuplicateIndex;
+import com.fetch.challenge.receipt_processor_challenge.store.DurableReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.WriteAheadLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties({ReceiptStoreProperties.class, ReceiptWalProperties.class,
+        ReceiptSnapshotProperties.class, ReceiptDedupProperties.class})
+public class StoreConfiguration {
+    private static final Logger log = LoggerFactory.getLogger(StoreConfiguration.class);
+
+    @Bean
+    public ReceiptStore receiptStore(ReceiptStoreProperties properties, ReceiptWalProperties walProperties,
+                                     ReceiptSnapshotProperties snapshotProperties,
+                                     ObjectProvider<ReceiptAggregates> aggregatesProvider) throws IOException {
+        Clock clock = Clock.systemUTC();
+        ConcurrentReceiptStore memory = new ConcurrentReceiptStore(properties, clock);
+        if (!walProperties.isEnabled()) {
+            if (snapshotProperties.isEnabled()) {
+                throw new IllegalStateException("receipt.snapshot.enabled requires receipt.wal.enabled");
+            }
+            return memory;
+        }
+
+        ReceiptAggregates aggregates = aggregatesProvider.getIfAvailable();
+        if (aggregates != null) {
+            // Totals are rebuilt from the receipts the log and the snapshot hold
+            if (!properties.isRetainReceipts()) {
+                log.warn("receipt.store.retain-receipts is off, so the log holds no receipts and aggregate "
+                        + "totals restart from zero");
+            } else if (snapshotProperties.isEnabled() && !snapshotProperties.isIncludeReceipts()) {
+                log.warn("receipt.snapshot.include-receipts is off, so aggregate totals restart from the "
+                        + "receipts logged since the last snapshot");
+            }
+        }
+
+        long started = System.nanoTime();
+        WriteAheadLog wal = new WriteAheadLog(Path.of(walProperties.getDirectory(), "receipts.wal"),
+                walProperties.getFsync(), walProperties.getFsyncInterval());
+        long ttlMillis = properties.getPointsTtl() == null ? 0 : properties.getPointsTtl().toMillis();
+        Path snapshotFile = snapshotProperties.isEnabled()
+                ? Path.of(walProperties.getDirectory(), "receipts.snapshot")
+                : null;
+        DurableReceiptStore store = DurableReceiptStore.recover(memory, wal, snapshotFile,
+                properties.isRetainReceipts(), ttlMillis, properties.getMaxPoints(), clock,
+                aggregates == null ? null : aggregates::add);
+        log.info("Recovered {} receipts ({} from the snapshot, {} from the log) from {} in {} ms", store.size(),
+                store.snapshot() == null ? 0 : store.snapshot().entries(), memory.size(),
+                walProperties.getDirectory(), (System.nanoTime() - started) / 1_000_000);
+        return store;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "receipt.dedup", name = "enabled", havingValue = "true")
+    public DuplicateIndex duplicateIndex(ReceiptStore receiptStore, ReceiptDedupProperties properties) {
+        return new DuplicateIndex(receiptStore, properties.getCapacity());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "receipt.snapshot", name = "enabled", havingValue = "true")
+    public ScheduledExecutorService receiptSnapshots(ReceiptStore receiptStore, ReceiptSnapshotProperties properties) {
+        DurableReceiptStore store = (DurableReceiptStore) receiptStore;
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "receipt-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getInterval().toMillis();
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                long started = System.nanoTime();
+                long entries = store.snapshot(properties.isIncludeReceipts());
+                log.info("Wrote snapshot of {} receipts in {} ms", entries, (System.nanoTime() - started) / 1_000_000);
+            } catch (IOException | RuntimeException e) {
+                log.error("Snapshot failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+}
@@ -0,0 +1,62 @@
+package com.fetch.challenge.receipt_processor_challenge.controller;
+
+import com.fetch.challenge.receipt_processor_challenge.aggregate.KeyedTotals;
+import com.fetch.challenge.receipt_processor_challenge.aggregate.ReceiptAggregates;
+import com.fetch.challenge.receipt_processor_challenge.cluster.ShardRing;
+import com.fetch.challenge.receipt_processor_challenge.dto.AggregateDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Receipt counts and points by retailer and by purchase date, on either web stack. Each answer is
+ * read from counters kept up to date at ingest, in the same time however many receipts are stored.
+ * In a cluster of more than one node, each node counts only the receipts it stores, so every answer
+ * is marked {@code partial}.
+ */
+@RestController
+@RequestMapping("/receipts/aggregates")
+@ConditionalOnProperty(prefix = "receipt.aggregates", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AggregateController {
+    private final ReceiptAggregates aggregates;
+    private final boolean partial;
+
+    public AggregateController(ReceiptAggregates aggregates, ObjectProvider<ShardRing> ring) {
+        this.aggregates = aggregates;
+        ShardRing shardRing = ring.getIfAvailable();
+        this.partial = shardRing != null && shardRing.nodes().size() > 1;
+    }
+
+    @GetMapping("/retailers")
+    public ResponseEntity<AggregateDTO> getRetailer(@RequestParam(required = false) String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Retailer name is required");
+        }
+        return ResponseEntity.ok(toDTO(aggregates.retailer(name)));
+    }
+
+    @GetMapping("/retailers/top")
+    public ResponseEntity<List<AggregateDTO>> getTopRetailers() {
+        return ResponseEntity.ok(aggregates.topRetailers().stream().map(this::toDTO).toList());
+    }
+
+    @GetMapping("/days/{date}")
+    public ResponseEntity<AggregateDTO> getDay(@PathVariable String date) {
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date must be in yyyy-MM-dd format");
+        }
+        return ResponseEntity.ok(toDTO(aggregates.day(day)));
+    }
+
+    private AggregateDTO toDTO(KeyedTotals.Totals<?> totals) {
+        return new AggregateDTO(totals.key().toString(), totals.receipts(), totals.points(), totals.exact(), partial);
+    }
+}
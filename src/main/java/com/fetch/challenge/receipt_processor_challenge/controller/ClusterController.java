@@ -0,0 +1,68 @@
+package com.fetch.challenge.receipt_processor_challenge.controller;
+
+import com.fetch.challenge.receipt_processor_challenge.cluster.ClusterClient;
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptClusterProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.PointsResponseDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.exception.ErrorResponse;
+import com.fetch.challenge.receipt_processor_challenge.exception.GlobalExceptionHandler;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ShardedReceiptService;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Node-to-node endpoints in cluster mode, on either web stack. Only requests carrying the cluster
+ * secret are served. Forwarded receipts are validated again and stored only when this node owns
+ * their shard; lookups are answered from this node's store alone.
+ */
+@RestController
+@RequestMapping("/cluster/receipts")
+@ConditionalOnProperty(prefix = "receipt.cluster", name = "enabled", havingValue = "true")
+public class ClusterController {
+    private final ShardedReceiptService receiptService;
+    private final byte[] secret;
+
+    public ClusterController(ShardedReceiptService receiptService, ReceiptClusterProperties properties) {
+        this.receiptService = receiptService;
+        this.secret = properties.getSecret().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PostMapping
+    public ResponseEntity<?> processReceipts(@RequestHeader(value = ClusterClient.SECRET_HEADER, required = false) String secret,
+                                             @RequestBody List<ReceiptDTO> receipts) {
+        if (!isTrusted(secret)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(receiptService.processForwarded(receipts));
+    }
+
+    @GetMapping("/{id}/points")
+    public ResponseEntity<?> getPoints(@RequestHeader(value = ClusterClient.SECRET_HEADER, required = false) String secret,
+                                       @PathVariable String id) {
+        if (!isTrusted(secret)) {
+            return forbidden();
+        }
+        int points = receiptService.findLocalPoints(id);
+        if (points == ReceiptStore.MISSING) {
+            return GlobalExceptionHandler.receiptNotFound(id);
+        }
+        return ResponseEntity.ok(new PointsResponseDTO(points));
+    }
+
+    private boolean isTrusted(String presented) {
+        return presented != null && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseEntity<ErrorResponse> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse("Forbidden", "Missing or wrong " + ClusterClient.SECRET_HEADER));
+    }
+}
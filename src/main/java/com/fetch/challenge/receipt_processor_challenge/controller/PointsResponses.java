@@ -0,0 +1,126 @@
+package com.fetch.challenge.receipt_processor_challenge.controller;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Successful {@code GET /receipts/{id}/points} responses, written without Jackson. The body
+ * {@code {"points":N}} depends only on the points, so it is encoded once per points value and
+ * shared by every receipt that scored it, together with its strong ETag.
+ * <p>
+ * Points never change once scored, so responses are marked {@code immutable}. They may be cached
+ * for {@code receipt.store.points-ttl} when one is set, or a year otherwise. A request whose
+ * {@code If-None-Match} lists the ETag gets a 304 with no body.
+ */
+@Component
+public class PointsResponses {
+    private static final int CACHED_VALUES = 4096;
+    private static final long ONE_YEAR_SECONDS = Duration.ofDays(365).toSeconds();
+
+    private final String cacheControl;
+    // Racy but safe: Encoded has only final fields, so a thread sees a complete entry or null
+    private final Encoded[] cache = new Encoded[CACHED_VALUES];
+
+    public PointsResponses(ReceiptStoreProperties properties) {
+        Duration ttl = properties.getPointsTtl();
+        long maxAge = ttl == null || ttl.isZero() ? ONE_YEAR_SECONDS : ttl.toSeconds();
+        this.cacheControl = "public, max-age=" + maxAge + ", immutable";
+    }
+
+    /** Writes the response for the points straight to the servlet response. */
+    public void write(HttpServletResponse response, int points, String ifNoneMatch) throws IOException {
+        Encoded encoded = encoded(points);
+        response.setHeader(HttpHeaders.ETAG, encoded.etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (matches(ifNoneMatch, encoded.etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(encoded.body.length);
+        response.getOutputStream().write(encoded.body);
+    }
+
+    /** The same response as an entity, for the reactive stack. */
+    public ResponseEntity<byte[]> entity(int points, String ifNoneMatch) {
+        Encoded encoded = encoded(points);
+        if (matches(ifNoneMatch, encoded.etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.ETAG, encoded.etag)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.ETAG, encoded.etag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(encoded.body);
+    }
+
+    private Encoded encoded(int points) {
+        if (points < 0 || points >= CACHED_VALUES) {
+            return new Encoded(points);
+        }
+        Encoded encoded = cache[points];
+        if (encoded == null) {
+            encoded = new Encoded(points);
+            cache[points] = encoded;
+        }
+        return encoded;
+    }
+
+    /**
+     * Whether an {@code If-None-Match} value lists the ETag, comparing weakly as RFC 9110 requires:
+     * {@code W/"28"} matches {@code "28"}, and {@code *} matches any.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        int length = ifNoneMatch.length();
+        int i = 0;
+        while (i < length) {
+            char c = ifNoneMatch.charAt(i);
+            if (c == ' ' || c == '\t' || c == ',') {
+                i++;
+            } else if (c == '*') {
+                return true;
+            } else {
+                if (ifNoneMatch.startsWith("W/", i)) {
+                    i += 2;
+                }
+                int end = i < length && ifNoneMatch.charAt(i) == '"' ? ifNoneMatch.indexOf('"', i + 1) : -1;
+                if (end < 0) {
+                    // Not a quoted tag; skip to the next element
+                    end = ifNoneMatch.indexOf(',', i);
+                    i = end < 0 ? length : end;
+                    continue;
+                }
+                if (end + 1 - i == etag.length() && ifNoneMatch.startsWith(etag, i)) {
+                    return true;
+                }
+                i = end + 1;
+            }
+        }
+        return false;
+    }
+
+    private static final class Encoded {
+        private final byte[] body;
+        private final String etag;
+
+        Encoded(int points) {
+            this.body = ("{\"points\":" + points + "}").getBytes(StandardCharsets.US_ASCII);
+            this.etag = "\"" + points + "\"";
+        }
+    }
+}
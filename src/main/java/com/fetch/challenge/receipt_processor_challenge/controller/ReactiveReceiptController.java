@@ -0,0 +1,72 @@
+package com.fetch.challenge.receipt_processor_challenge.controller;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.BatchResponseDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptResponseDTO;
+import com.fetch.challenge.receipt_processor_challenge.exception.GlobalExceptionHandler;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptBatchProcessor;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptService;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptValidator;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * The receipt API on WebFlux, active when the application runs as a reactive web application
+ * ({@code spring.main.web-application-type=reactive}). Event-loop threads only decode and encode;
+ * scoring and lookups, which may block in asynchronous mode, run on the bounded elastic scheduler.
+ */
+@RestController
+@RequestMapping("/receipts")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveReceiptController {
+    private final ReceiptService receiptService;
+    private final ReceiptBatchProcessor batchProcessor;
+    private final ReceiptValidator receiptValidator;
+    private final PointsResponses pointsResponses;
+    private final Scheduler scheduler = Schedulers.boundedElastic();
+
+    public ReactiveReceiptController(ReceiptService receiptService,
+                                     ReceiptBatchProcessor batchProcessor,
+                                     ReceiptValidator receiptValidator,
+                                     PointsResponses pointsResponses) {
+        this.receiptService = receiptService;
+        this.batchProcessor = batchProcessor;
+        this.receiptValidator = receiptValidator;
+        this.pointsResponses = pointsResponses;
+    }
+
+    @PostMapping("/process")
+    public Mono<ResponseEntity<ReceiptResponseDTO>> processReceipt(@RequestBody Mono<ReceiptDTO> receipt) {
+        return receipt.map(receiptValidator::requireValid)
+                .publishOn(scheduler)
+                .map(body -> ResponseEntity.ok(new ReceiptResponseDTO(receiptService.processReceipt(body))));
+    }
+
+    @PostMapping("/process/batch")
+    public Mono<ResponseEntity<BatchResponseDTO>> processReceipts(@RequestBody Mono<List<ReceiptDTO>> receipts) {
+        return receipts.publishOn(scheduler)
+                .map(body -> ResponseEntity.ok(batchProcessor.process(body)));
+    }
+
+    @GetMapping("/{id}/points")
+    public Mono<ResponseEntity<?>> getPoints(@PathVariable String id,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                             String ifNoneMatch) {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+                    int points = receiptService.findPoints(id);
+                    return points == ReceiptStore.MISSING
+                            ? GlobalExceptionHandler.receiptNotFound(id)
+                            : pointsResponses.entity(points, ifNoneMatch);
+                })
+                .subscribeOn(scheduler);
+    }
+}
@@ -1,33 +1,74 @@
 package com.fetch.challenge.receipt_processor_challenge.controller;
 
-import com.fetch.challenge.receipt_processor_challenge.dto.PointsResponseDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.BatchResponseDTO;
 import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
 import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptResponseDTO;
+import com.fetch.challenge.receipt_processor_challenge.exception.GlobalExceptionHandler;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptBatchProcessor;
 import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptService;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptStreamProcessor;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptValidator;
 
-import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
 @RestController
 @RequestMapping("/receipts")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ReceiptController {
     private final ReceiptService receiptService;
+    private final ReceiptStreamProcessor streamProcessor;
+    private final ReceiptBatchProcessor batchProcessor;
+    private final ReceiptValidator receiptValidator;
+    private final PointsResponses pointsResponses;
 
-    public ReceiptController(ReceiptService receiptService) {
+    public ReceiptController(ReceiptService receiptService,
+                             ReceiptStreamProcessor streamProcessor,
+                             ReceiptBatchProcessor batchProcessor,
+                             ReceiptValidator receiptValidator,
+                             PointsResponses pointsResponses) {
         this.receiptService = receiptService;
+        this.streamProcessor = streamProcessor;
+        this.batchProcessor = batchProcessor;
+        this.receiptValidator = receiptValidator;
+        this.pointsResponses = pointsResponses;
     }
 
     @PostMapping("/process")
-    public ResponseEntity<?> processReceipt(@Valid @RequestBody ReceiptDTO receipt) {
-        String id = receiptService.processReceipt(receipt);
+    public ResponseEntity<?> processReceipt(@RequestBody ReceiptDTO receipt) {
+        String id = receiptService.processReceipt(receiptValidator.requireValid(receipt));
         return ResponseEntity.ok(new ReceiptResponseDTO(id));
     }
 
+    @PostMapping(value = "/process", consumes = ReceiptStreamProcessor.NDJSON_VALUE)
+    public void processReceiptStream(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(ReceiptStreamProcessor.NDJSON_VALUE);
+        streamProcessor.process(body, response.getOutputStream());
+    }
+
+    @PostMapping("/process/batch")
+    public ResponseEntity<BatchResponseDTO> processReceipts(@RequestBody List<ReceiptDTO> receipts) {
+        return ResponseEntity.ok(batchProcessor.process(receipts));
+    }
+
     @GetMapping("/{id}/points")
-    public ResponseEntity<PointsResponseDTO> getPoints(@PathVariable String id) {
-        Integer points = receiptService.getPoints(id);
-        return ResponseEntity.ok(new PointsResponseDTO(points));
+    public ResponseEntity<?> getPoints(@PathVariable String id,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                       HttpServletResponse response) throws IOException {
+        int points = receiptService.findPoints(id);
+        if (points == ReceiptStore.MISSING) {
+            return GlobalExceptionHandler.receiptNotFound(id);
+        }
+        pointsResponses.write(response, points, ifNoneMatch);
+        return null;
     }
 
 }
@@ -0,0 +1,16 @@
+package com.fetch.challenge.receipt_processor_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AggregateDTO {
+    private String key;
+    private Long receipts;
+    private Long points;
+    private Boolean exact;
+    private Boolean partial;
+}
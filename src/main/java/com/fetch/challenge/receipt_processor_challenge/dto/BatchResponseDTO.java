@@ -0,0 +1,12 @@
+package com.fetch.challenge.receipt_processor_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchResponseDTO {
+    private List<BatchItemResultDTO> results;
+}
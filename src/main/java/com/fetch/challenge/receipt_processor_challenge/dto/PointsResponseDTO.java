@@ -2,9 +2,11 @@ package com.fetch.challenge.receipt_processor_challenge.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class PointsResponseDTO {
     private Integer points;
 }
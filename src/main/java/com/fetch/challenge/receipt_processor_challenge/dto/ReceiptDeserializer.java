@@ -0,0 +1,235 @@
+package com.fetch.challenge.receipt_processor_challenge.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a {@link ReceiptDTO} straight from the token stream. Dates in {@code yyyy-MM-dd}, times in
+ * {@code HH:mm} and plain decimal prices are parsed from the parser's character buffer, without
+ * building a String or running a formatter.
+ *
+ * <p>Any value outside those forms is handed to the property's deserializer from Jackson's own
+ * bean deserializer, with its {@code @JsonFormat} applied. That covers nulls, numbers given for
+ * strings, out-of-range dates and malformed input. Such values therefore parse exactly as before,
+ * and fail with the same error messages. So do receipts that are not JSON objects.
+ */
+final class ReceiptDeserializer extends StdDeserializer<ReceiptDTO> implements ResolvableDeserializer {
+    /** Digits that always fit a double's 53-bit mantissa exactly. */
+    private static final int MAX_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+    private final BeanDeserializerBase receiptDeserializer;
+    private SettableBeanProperty retailer;
+    private SettableBeanProperty purchaseDate;
+    private SettableBeanProperty purchaseTime;
+    private SettableBeanProperty items;
+    private SettableBeanProperty total;
+    private BeanDeserializerBase itemDeserializer;
+    private SettableBeanProperty shortDescription;
+    private SettableBeanProperty price;
+
+    ReceiptDeserializer(BeanDeserializerBase receiptDeserializer) {
+        super(ReceiptDTO.class);
+        this.receiptDeserializer = receiptDeserializer;
+    }
+
+    @Override
+    public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+        receiptDeserializer.resolve(ctxt);
+        retailer = receiptDeserializer.findProperty("retailer");
+        purchaseDate = receiptDeserializer.findProperty("purchaseDate");
+        purchaseTime = receiptDeserializer.findProperty("purchaseTime");
+        items = receiptDeserializer.findProperty("items");
+        total = receiptDeserializer.findProperty("total");
+
+        JsonDeserializer<Object> item = ctxt.findRootValueDeserializer(ctxt.constructType(ItemDTO.class));
+        if (!(item instanceof BeanDeserializerBase bean)) {
+            throw JsonMappingException.from(ctxt, "Unexpected deserializer for ItemDTO: " + item.getClass());
+        }
+        itemDeserializer = bean;
+        shortDescription = bean.findProperty("shortDescription");
+        price = bean.findProperty("price");
+    }
+
+    @Override
+    public ReceiptDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartObjectToken()) {
+            return (ReceiptDTO) receiptDeserializer.deserialize(p, ctxt);
+        }
+
+        ReceiptDTO receipt = new ReceiptDTO();
+        for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            switch (name) {
+                case "retailer" -> receipt.setRetailer(token == JsonToken.VALUE_STRING
+                        ? p.getText()
+                        : (String) retailer.deserialize(p, ctxt));
+                case "purchaseDate" -> {
+                    LocalDate date = token == JsonToken.VALUE_STRING ? date(p) : null;
+                    receipt.setPurchaseDate(date != null ? date : (LocalDate) purchaseDate.deserialize(p, ctxt));
+                }
+                case "purchaseTime" -> {
+                    LocalTime time = token == JsonToken.VALUE_STRING ? time(p) : null;
+                    receipt.setPurchaseTime(time != null ? time : (LocalTime) purchaseTime.deserialize(p, ctxt));
+                }
+                case "items" -> receipt.setItems(token == JsonToken.START_ARRAY
+                        ? items(p, ctxt)
+                        : castItems(items.deserialize(p, ctxt)));
+                case "total" -> receipt.setTotal(token == JsonToken.VALUE_STRING
+                        ? p.getText()
+                        : (String) total.deserialize(p, ctxt));
+                default -> ctxt.handleUnknownProperty(p, receiptDeserializer, ReceiptDTO.class, name);
+            }
+        }
+        return receipt;
+    }
+
+    private List<ItemDTO> items(JsonParser p, DeserializationContext ctxt) throws IOException {
+        List<ItemDTO> result = new ArrayList<>();
+        for (JsonToken token = p.nextToken(); token != JsonToken.END_ARRAY; token = p.nextToken()) {
+            if (token == JsonToken.START_OBJECT) {
+                result.add(item(p, ctxt));
+            } else if (token == JsonToken.VALUE_NULL) {
+                result.add(null);
+            } else {
+                result.add((ItemDTO) itemDeserializer.deserialize(p, ctxt));
+            }
+        }
+        return result;
+    }
+
+    private ItemDTO item(JsonParser p, DeserializationContext ctxt) throws IOException {
+        ItemDTO item = new ItemDTO();
+        for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            switch (name) {
+                case "shortDescription" -> item.setShortDescription(token == JsonToken.VALUE_STRING
+                        ? p.getText()
+                        : (String) shortDescription.deserialize(p, ctxt));
+                case "price" -> {
+                    double value = token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT
+                            ? p.getDoubleValue()
+                            : token == JsonToken.VALUE_STRING ? decimal(p) : Double.NaN;
+                    if (Double.isNaN(value)) {
+                        item.setPrice((Double) price.deserialize(p, ctxt));
+                    } else {
+                        item.setPrice(value);
+                    }
+                }
+                default -> ctxt.handleUnknownProperty(p, itemDeserializer, ItemDTO.class, name);
+            }
+        }
+        return item;
+    }
+
+    /** {@code yyyy-MM-dd} naming a real date, or {@code null} for the property deserializer to handle. */
+    private static LocalDate date(JsonParser p) throws IOException {
+        if (p.getTextLength() != 10) {
+            return null;
+        }
+        char[] text = p.getTextCharacters();
+        int at = p.getTextOffset();
+        if (text[at + 4] != '-' || text[at + 7] != '-') {
+            return null;
+        }
+        int year = digits(text, at, 4);
+        int month = digits(text, at + 5, 2);
+        int day = digits(text, at + 8, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 28 && day > lengthOfMonth(year, month)) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /** {@code HH:mm}, or {@code null} for the property deserializer to handle. */
+    private static LocalTime time(JsonParser p) throws IOException {
+        if (p.getTextLength() != 5) {
+            return null;
+        }
+        char[] text = p.getTextCharacters();
+        int at = p.getTextOffset();
+        if (text[at + 2] != ':') {
+            return null;
+        }
+        int hour = digits(text, at, 2);
+        int minute = digits(text, at + 3, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        return LocalTime.of(hour, minute);
+    }
+
+    /**
+     * A plain decimal such as {@code 12.25} or {@code -3}, or NaN for the property deserializer
+     * to handle. The result is correctly rounded: both the digits as an integer and the power of
+     * ten are exact doubles, so the one division rounds once, just as {@link Double#parseDouble}.
+     */
+    private static double decimal(JsonParser p) throws IOException {
+        char[] text = p.getTextCharacters();
+        int at = p.getTextOffset();
+        int end = at + p.getTextLength();
+        boolean negative = at < end && text[at] == '-';
+        int i = negative ? at + 1 : at;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            char c = text[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0 || digits > MAX_DIGITS || scale == 0) {
+            return Double.NaN;
+        }
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static int digits(char[] text, int at, int count) {
+        int value = 0;
+        for (int i = at; i < at + count; i++) {
+            char c = text[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ItemDTO> castItems(Object value) {
+        return (List<ItemDTO>) value;
+    }
+}
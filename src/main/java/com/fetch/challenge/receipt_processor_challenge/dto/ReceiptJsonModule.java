@@ -0,0 +1,29 @@
+package com.fetch.challenge.receipt_processor_challenge.dto;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Replaces Jackson's reflective deserializer for {@link ReceiptDTO} with {@link ReceiptDeserializer},
+ * which keeps the reflective one for values it does not parse itself.
+ */
+public class ReceiptJsonModule extends SimpleModule {
+
+    public ReceiptJsonModule() {
+        super("ReceiptJsonModule");
+        setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription description,
+                                                          JsonDeserializer<?> deserializer) {
+                if (description.getBeanClass() == ReceiptDTO.class && deserializer instanceof BeanDeserializerBase bean) {
+                    return new ReceiptDeserializer(bean);
+                }
+                return deserializer;
+            }
+        });
+    }
+}
@@ -1,12 +1,14 @@
 package com.fetch.challenge.receipt_processor_challenge.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
-import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,9 +17,23 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        return validationErrors(ex.getBindingResult());
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleWebExchangeBindException(WebExchangeBindException ex) {
+        return validationErrors(ex.getBindingResult());
+    }
+
+    @ExceptionHandler(InvalidReceiptException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidReceiptException(InvalidReceiptException ex) {
+        return new ResponseEntity<>(ex.getErrors(), HttpStatus.BAD_REQUEST);
+    }
+
+    private ResponseEntity<Map<String, String>> validationErrors(BindingResult bindingResult) {
         Map<String, String> errors = new HashMap<>();
         
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
+        bindingResult.getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
@@ -28,16 +44,60 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex, WebRequest request) {
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
+        return notFound(ex.getMessage());
+    }
+
+    /** The 404 for an unknown receipt, for controllers that answer misses without throwing. */
+    public static ResponseEntity<ErrorResponse> receiptNotFound(String id) {
+        return notFound(ResourceNotFoundException.message(id));
+    }
+
+    private static ResponseEntity<ErrorResponse> notFound(String details) {
         ErrorResponse errorResponse = new ErrorResponse(
                 "Resource Not Found",
-                ex.getMessage()
+                details
         );
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ReceiptPendingException.class)
+    public ResponseEntity<Map<String, String>> handleReceiptPendingException(ReceiptPendingException ex) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("id", ex.getId(), "status", "pending"));
+    }
+
+    @ExceptionHandler(ReceiptScoringFailedException.class)
+    public ResponseEntity<Map<String, String>> handleReceiptScoringFailedException(ReceiptScoringFailedException ex) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("id", ex.getId(), "status", "failed", "error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ReceiptQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleReceiptQueueFullException(ReceiptQueueFullException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Service Unavailable",
+                ex.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(NodeUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleNodeUnavailableException(NodeUnavailableException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Service Unavailable",
+                ex.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
         ErrorResponse errorResponse = new ErrorResponse(
                 "Invalid Request",
                 ex.getMessage()
@@ -46,7 +106,7 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, WebRequest request) {
+    public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex) {
         ErrorResponse error = new ErrorResponse(
                 "Internal Server Error",
                 ex.getMessage()
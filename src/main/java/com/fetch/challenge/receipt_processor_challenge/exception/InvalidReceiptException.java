@@ -0,0 +1,16 @@
+package com.fetch.challenge.receipt_processor_challenge.exception;
+
+import java.util.Map;
+
+public class InvalidReceiptException extends RuntimeException {
+    private final Map<String, String> errors;
+
+    public InvalidReceiptException(Map<String, String> errors) {
+        super("Invalid receipt format", null, false, false);
+        this.errors = errors;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,7 @@
+package com.fetch.challenge.receipt_processor_challenge.exception;
+
+public class NodeUnavailableException extends RuntimeException {
+    public NodeUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.fetch.challenge.receipt_processor_challenge.exception;
+
+public class ReceiptPendingException extends RuntimeException {
+    private final String id;
+
+    public ReceiptPendingException(String id) {
+        super("Receipt is still being scored: " + id);
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,7 @@
+package com.fetch.challenge.receipt_processor_challenge.exception;
+
+public class ReceiptQueueFullException extends RuntimeException {
+    public ReceiptQueueFullException(String message) {
+        super(message);
+    }
+}
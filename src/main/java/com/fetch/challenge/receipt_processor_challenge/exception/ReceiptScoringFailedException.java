@@ -0,0 +1,14 @@
+package com.fetch.challenge.receipt_processor_challenge.exception;
+
+public class ReceiptScoringFailedException extends RuntimeException {
+    private final String id;
+
+    public ReceiptScoringFailedException(String id, Throwable cause) {
+        super("Receipt could not be scored: " + id, cause);
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
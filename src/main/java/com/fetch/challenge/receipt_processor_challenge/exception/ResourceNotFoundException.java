@@ -1,7 +1,12 @@
 package com.fetch.challenge.receipt_processor_challenge.exception;
 
+/** Thrown for unknown receipt IDs, which clients poll often; it carries no stack trace. */
 public class ResourceNotFoundException extends RuntimeException {
-    public ResourceNotFoundException(String message) {
-        super(message);
+    public ResourceNotFoundException(String id) {
+        super(message(id), null, false, false);
+    }
+
+    public static String message(String id) {
+        return "Receipt not found with id: " + id;
     }
 }
@@ -0,0 +1,44 @@
+package com.fetch.challenge.receipt_processor_challenge.rule;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * A point rule compiled from an expression by {@link RuleExpressionCompiler}. Every instance is a
+ * hidden class of its own that keeps the expression's evaluator in a static final field, so the
+ * JIT treats the evaluator as a constant and inlines the whole expression.
+ */
+public abstract class CompiledRule implements FeatureRule {
+    private final String name;
+    private final String expression;
+    private final MethodHandle evaluator;
+
+    CompiledRule(String name, String expression, MethodHandle evaluator) {
+        this.name = name;
+        this.expression = expression;
+        this.evaluator = evaluator;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String expression() {
+        return expression;
+    }
+
+    MethodHandle evaluator() {
+        return evaluator;
+    }
+
+    @Override
+    public int calculatePoints(ReceiptDTO receipt) {
+        return calculatePoints(new ReceiptFeatures(receipt));
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + expression;
+    }
+}
@@ -0,0 +1,36 @@
+package com.fetch.challenge.receipt_processor_challenge.rule;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Never loaded by name: {@link RuleExpressionCompiler} defines a hidden copy of this class per
+ * rule, passing that rule's evaluator as class data.
+ */
+final class CompiledRuleTemplate extends CompiledRule {
+    private static final MethodHandle EVALUATOR;
+
+    static {
+        try {
+            EVALUATOR = MethodHandles.classData(MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+        } catch (IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    CompiledRuleTemplate(String name, String expression, MethodHandle evaluator) {
+        super(name, expression, evaluator);
+    }
+
+    @Override
+    public int calculatePoints(ReceiptFeatures features) {
+        try {
+            return (int) (long) EVALUATOR.invokeExact(features);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
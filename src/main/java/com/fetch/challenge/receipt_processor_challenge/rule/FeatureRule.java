@@ -0,0 +1,9 @@
+package com.fetch.challenge.receipt_processor_challenge.rule;
+
+/**
+ * A rule that can score from precomputed {@link ReceiptFeatures}. Both methods must return the
+ * same points; {@link ScoringEngine} uses this one when it has features at hand.
+ */
+public interface FeatureRule extends PointRule {
+    int calculatePoints(ReceiptFeatures features);
+}
@@ -5,7 +5,7 @@ import org.springframework.stereotype.Component;
 
 
 @Component
-public class ItemCountRule implements PointRule {
+public class ItemCountRule implements FeatureRule {
     
     private static final int POINTS_PER_PAIR = 5;
     private static final int ITEMS_PER_GROUP = 2;
@@ -19,4 +19,12 @@ public class ItemCountRule implements PointRule {
         int itemCount = receipt.getItems().size();
         return (itemCount / ITEMS_PER_GROUP) * POINTS_PER_PAIR;
     }
+
+    @Override
+    public int calculatePoints(ReceiptFeatures features) {
+        if (features.itemCount() == ReceiptFeatures.ABSENT) {
+            return 0;
+        }
+        return (features.itemCount() / ITEMS_PER_GROUP) * POINTS_PER_PAIR;
+    }
 }
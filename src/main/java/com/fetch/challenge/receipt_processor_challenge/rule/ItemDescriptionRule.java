@@ -6,7 +6,7 @@ import org.springframework.stereotype.Component;
 
 
 @Component
-public class ItemDescriptionRule implements PointRule{
+public class ItemDescriptionRule implements FeatureRule {
     private static final double PRICE_MULTIPLIER = 0.2;
     private static final int DESCRIPTION_LENGTH_DIVISOR = 3;
 
@@ -16,15 +16,29 @@ public class ItemDescriptionRule implements PointRule{
             return 0;
         }
 
-        return receipt.getItems().stream()
-                .filter(item -> item != null && item.getShortDescription() != null)
-                .mapToInt(this::calculatePointsForItem)
-                .sum();
+        int points = 0;
+        for (ItemDTO item : receipt.getItems()) {
+            if (item != null && item.getShortDescription() != null) {
+                points += calculatePointsForItem(item);
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public int calculatePoints(ReceiptFeatures features) {
+        int points = 0;
+        for (int i = 0; i < features.itemCount(); i++) {
+            int length = features.descriptionLength(i);
+            if (length != ReceiptFeatures.ABSENT && length % DESCRIPTION_LENGTH_DIVISOR == 0) {
+                points += (int) Math.ceil(features.receipt().getItems().get(i).getPrice() * PRICE_MULTIPLIER);
+            }
+        }
+        return points;
     }
 
     private int calculatePointsForItem(ItemDTO item) {
-        String description = item.getShortDescription().trim();
-        if (description.length() % DESCRIPTION_LENGTH_DIVISOR == 0) {
+        if (ReceiptFeatures.trimmedLength(item.getShortDescription()) % DESCRIPTION_LENGTH_DIVISOR == 0) {
             return (int) Math.ceil(item.getPrice() * PRICE_MULTIPLIER);
         }
         return 0;
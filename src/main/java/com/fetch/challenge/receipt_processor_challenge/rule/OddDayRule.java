@@ -5,7 +5,7 @@ import org.springframework.stereotype.Component;
 
 
 @Component
-public class OddDayRule implements PointRule {
+public class OddDayRule implements FeatureRule {
     
     private static final int POINTS_FOR_ODD_DAY = 6;
     private static final int NO_POINTS = 0;
@@ -23,6 +23,17 @@ public class OddDayRule implements PointRule {
             : NO_POINTS;
     }
 
+    @Override
+    public int calculatePoints(ReceiptFeatures features) {
+        if (features.dayOfMonth() == ReceiptFeatures.ABSENT) {
+            return NO_POINTS;
+        }
+
+        return isOddDay(features.dayOfMonth())
+            ? POINTS_FOR_ODD_DAY
+            : NO_POINTS;
+    }
+
     private boolean isOddDay(int day) {
         return day % DIVISOR == ODD_REMAINDER;
     }
@@ -5,9 +5,10 @@ import org.springframework.stereotype.Component;
 
 
 @Component
-public class QuarterMultipleRule implements PointRule {
+public class QuarterMultipleRule implements FeatureRule {
     
     private static final double QUARTER = 0.25;
+    private static final int CENTS_PER_QUARTER = 25;
     private static final int POINTS_FOR_QUARTER_MULTIPLE = 25;
     private static final int NO_POINTS = 0;
 
@@ -25,6 +26,14 @@ public class QuarterMultipleRule implements PointRule {
         }
     }
 
+    @Override
+    public int calculatePoints(ReceiptFeatures features) {
+        if (features.totalCents() == ReceiptFeatures.ABSENT) {
+            return calculatePoints(features.receipt());
+        }
+        return features.totalCents() % CENTS_PER_QUARTER == 0 ? POINTS_FOR_QUARTER_MULTIPLE : NO_POINTS;
+    }
+
     private boolean isMultipleOfQuarter(double amount) {
         return amount % QUARTER == 0;
     }
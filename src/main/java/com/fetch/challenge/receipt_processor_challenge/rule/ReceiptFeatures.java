@@ -0,0 +1,139 @@
+package com.fetch.challenge.receipt_processor_challenge.rule;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+
+import java.util.List;
+
+/**
+ * Values several rules derive from a receipt, extracted once per receipt by {@link ScoringEngine}.
+ * Missing or unusual inputs are reported as {@link #ABSENT} so that rules can fall back to their
+ * {@link PointRule#calculatePoints(ReceiptDTO)} behaviour for them.
+ */
+public final class ReceiptFeatures {
+    public static final int ABSENT = -1;
+
+    private final ReceiptDTO receipt;
+    private final long totalCents;
+    private final int itemCount;
+    private final int[] descriptionLengths;
+    private final int dayOfMonth;
+    private final long nanoOfDay;
+
+    public ReceiptFeatures(ReceiptDTO receipt) {
+        this.receipt = receipt;
+        this.totalCents = receipt.getTotal() == null ? ABSENT : parseCents(receipt.getTotal());
+        this.dayOfMonth = receipt.getPurchaseDate() == null ? ABSENT : receipt.getPurchaseDate().getDayOfMonth();
+        this.nanoOfDay = receipt.getPurchaseTime() == null ? ABSENT : receipt.getPurchaseTime().toNanoOfDay();
+
+        List<ItemDTO> items = receipt.getItems();
+        if (items == null) {
+            this.itemCount = ABSENT;
+            this.descriptionLengths = new int[0];
+        } else {
+            this.itemCount = items.size();
+            this.descriptionLengths = new int[itemCount];
+            for (int i = 0; i < itemCount; i++) {
+                ItemDTO item = items.get(i);
+                descriptionLengths[i] = item == null || item.getShortDescription() == null
+                        ? ABSENT
+                        : trimmedLength(item.getShortDescription());
+            }
+        }
+    }
+
+    public ReceiptDTO receipt() {
+        return receipt;
+    }
+
+    /** Total in cents, or {@link #ABSENT} unless the total is plain digits with at most two decimals. */
+    public long totalCents() {
+        return totalCents;
+    }
+
+    /** Number of items, or {@link #ABSENT} when the item list is missing. */
+    public int itemCount() {
+        return itemCount;
+    }
+
+    /** Length of the item's description as {@link String#trim()} would leave it, or {@link #ABSENT}. */
+    public int descriptionLength(int item) {
+        return descriptionLengths[item];
+    }
+
+    /** Item price in whole cents, or {@link #ABSENT} when the item or its price is missing. */
+    public long priceCents(int item) {
+        ItemDTO value = receipt.getItems().get(item);
+        return value == null || value.getPrice() == null ? ABSENT : (long) Math.floor(value.getPrice() * 100 + 0.5);
+    }
+
+    /** Number of ASCII letters and digits in the retailer name, or {@link #ABSENT}. Not cached. */
+    public int retailerAlphanumerics() {
+        String retailer = receipt.getRetailer();
+        if (retailer == null) {
+            return ABSENT;
+        }
+        int count = 0;
+        for (int i = 0; i < retailer.length(); i++) {
+            if (isAlphanumeric(retailer.charAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int dayOfMonth() {
+        return dayOfMonth;
+    }
+
+    public int minuteOfDay() {
+        return nanoOfDay == ABSENT ? ABSENT : (int) (nanoOfDay / 60_000_000_000L);
+    }
+
+    /** Purchase time with full precision, or {@link #ABSENT}. */
+    public long nanoOfDay() {
+        return nanoOfDay;
+    }
+
+    /** Amount in cents, or {@link #ABSENT} unless it is plain digits with at most two decimals. */
+    public static long parseCents(String amount) {
+        int length = amount.length();
+        int point = amount.indexOf('.');
+        int fractionDigits = point < 0 ? 0 : length - point - 1;
+        int integerDigits = point < 0 ? length : point;
+        if (integerDigits == 0 || integerDigits > 15 || fractionDigits > 2 || (point >= 0 && fractionDigits == 0)) {
+            return ABSENT;
+        }
+        long cents = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == point) {
+                continue;
+            }
+            char c = amount.charAt(i);
+            if (c < '0' || c > '9') {
+                return ABSENT;
+            }
+            cents = cents * 10 + (c - '0');
+        }
+        for (int i = fractionDigits; i < 2; i++) {
+            cents *= 10;
+        }
+        return cents;
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+    }
+
+    public static int trimmedLength(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end - start;
+    }
+}
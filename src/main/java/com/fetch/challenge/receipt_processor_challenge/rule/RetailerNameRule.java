@@ -5,10 +5,19 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class RetailerNameRule implements PointRule{
-    private static final String ALPHANUMERIC_PATTERN = "[^A-Za-z0-9]";
-    
     @Override
     public int calculatePoints(ReceiptDTO receipt) {
-        return receipt.getRetailer().replaceAll(ALPHANUMERIC_PATTERN, "").length();
+        String retailer = receipt.getRetailer();
+        int points = 0;
+        for (int i = 0; i < retailer.length(); i++) {
+            if (isAlphanumeric(retailer.charAt(i))) {
+                points++;
+            }
+        }
+        return points;
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
     }
 }
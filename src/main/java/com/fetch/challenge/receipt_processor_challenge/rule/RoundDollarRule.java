@@ -4,7 +4,7 @@ import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
 import org.springframework.stereotype.Component;
 
 @Component
-public class RoundDollarRule implements PointRule{
+public class RoundDollarRule implements FeatureRule {
     private static final int POINTS_FOR_ROUND_DOLLAR = 50;
     private static final int ZERO_POINTS = 0;
     @Override
@@ -12,4 +12,12 @@ public class RoundDollarRule implements PointRule{
         double totalAmount = Double.parseDouble(receipt.getTotal());
         return totalAmount % 1.0 == 0 ? POINTS_FOR_ROUND_DOLLAR : ZERO_POINTS;
     }
+
+    @Override
+    public int calculatePoints(ReceiptFeatures features) {
+        if (features.totalCents() == ReceiptFeatures.ABSENT) {
+            return calculatePoints(features.receipt());
+        }
+        return features.totalCents() % 100 == 0 ? POINTS_FOR_ROUND_DOLLAR : ZERO_POINTS;
+    }
 }
@@ -0,0 +1,124 @@
+package com.fetch.challenge.receipt_processor_challenge.rule;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums the points of all rules in one pass. Receipt features are extracted once and shared by
+ * every {@link FeatureRule}; any other {@link PointRule} is called with the receipt itself.
+ * <p>
+ * With a registry, one receipt in {@code sampleEvery} is scored with every rule timed separately
+ * under {@code receipt.rule.evaluation}, tagged with the rule's class name. The rest take the
+ * untimed path, so per-rule timing costs two clock reads per rule only on sampled receipts.
+ * {@link CompiledRule}s are tagged with their configured name. On the untimed path they are
+ * {@linkplain RuleExpressionCompiler#combine combined} into one rule.
+ */
+public final class ScoringEngine {
+    public static final String RULE_TIMER = "receipt.rule.evaluation";
+
+    private final FeatureRule[] featureRules;
+    private final FeatureRule[] untimedFeatureRules;
+    private final PointRule[] receiptRules;
+    private final Timer[] featureTimers;
+    private final Timer[] receiptTimers;
+    private final int sampleEvery;
+
+    public ScoringEngine(List<PointRule> rules) {
+        this(rules, null, 0);
+    }
+
+    /**
+     * @param registry    where rule timers are registered; {@code null} for no timing
+     * @param sampleEvery time one receipt in this many; 0 for no timing
+     */
+    public ScoringEngine(List<PointRule> rules, MeterRegistry registry, int sampleEvery) {
+        List<FeatureRule> features = new ArrayList<>();
+        List<PointRule> receipts = new ArrayList<>();
+        for (PointRule rule : rules) {
+            if (rule instanceof FeatureRule featureRule) {
+                features.add(featureRule);
+            } else {
+                receipts.add(rule);
+            }
+        }
+        this.featureRules = features.toArray(new FeatureRule[0]);
+        this.untimedFeatureRules = combineCompiled(features);
+        this.receiptRules = receipts.toArray(new PointRule[0]);
+        boolean timed = registry != null && sampleEvery > 0;
+        this.sampleEvery = timed ? sampleEvery : 0;
+        this.featureTimers = timed ? timers(registry, featureRules) : null;
+        this.receiptTimers = timed ? timers(registry, receiptRules) : null;
+    }
+
+    public int score(ReceiptDTO receipt) {
+        if (sampleEvery > 0 && (sampleEvery == 1 || ThreadLocalRandom.current().nextInt(sampleEvery) == 0)) {
+            return scoreTimed(receipt);
+        }
+        int points = 0;
+        if (untimedFeatureRules.length > 0) {
+            ReceiptFeatures features = new ReceiptFeatures(receipt);
+            for (FeatureRule rule : untimedFeatureRules) {
+                points += rule.calculatePoints(features);
+            }
+        }
+        for (PointRule rule : receiptRules) {
+            points += rule.calculatePoints(receipt);
+        }
+        return points;
+    }
+
+    private int scoreTimed(ReceiptDTO receipt) {
+        int points = 0;
+        if (featureRules.length > 0) {
+            ReceiptFeatures features = new ReceiptFeatures(receipt);
+            for (int i = 0; i < featureRules.length; i++) {
+                long started = System.nanoTime();
+                points += featureRules[i].calculatePoints(features);
+                featureTimers[i].record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+        for (int i = 0; i < receiptRules.length; i++) {
+            long started = System.nanoTime();
+            points += receiptRules[i].calculatePoints(receipt);
+            receiptTimers[i].record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        return points;
+    }
+
+    private static FeatureRule[] combineCompiled(List<FeatureRule> rules) {
+        List<FeatureRule> combined = new ArrayList<>();
+        List<CompiledRule> compiled = new ArrayList<>();
+        for (FeatureRule rule : rules) {
+            if (rule instanceof CompiledRule compiledRule) {
+                compiled.add(compiledRule);
+            } else {
+                combined.add(rule);
+            }
+        }
+        if (compiled.size() == 1) {
+            combined.add(compiled.get(0));
+        } else if (compiled.size() > 1) {
+            combined.add(RuleExpressionCompiler.combine(compiled));
+        }
+        return combined.toArray(new FeatureRule[0]);
+    }
+
+    private static Timer[] timers(MeterRegistry registry, PointRule[] rules) {
+        Timer[] timers = new Timer[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            timers[i] = Timer.builder(RULE_TIMER)
+                    .description("Time to evaluate one point rule on a sampled receipt")
+                    .tag("rule", rules[i] instanceof CompiledRule compiled
+                            ? compiled.name()
+                            : rules[i].getClass().getSimpleName())
+                    .register(registry);
+        }
+        return timers;
+    }
+}
@@ -6,12 +6,14 @@ import org.springframework.stereotype.Component;
 import java.time.LocalTime;
 
 @Component
-public class TimeRangeRule implements PointRule {
+public class TimeRangeRule implements FeatureRule {
     
     private static final int POINTS_AWARDED = 10;
     private static final int ZERO_POINTS = 0;
     private static final LocalTime START_TIME = LocalTime.of(14, 0);
     private static final LocalTime END_TIME = LocalTime.of(16, 0);
+    private static final long START_NANO_OF_DAY = START_TIME.toNanoOfDay();
+    private static final long END_NANO_OF_DAY = END_TIME.toNanoOfDay();
 
     @Override
     public int calculatePoints(ReceiptDTO receipt) {
@@ -23,6 +25,16 @@ public class TimeRangeRule implements PointRule {
         return isWithinTimeRange(purchaseTime) ? POINTS_AWARDED : ZERO_POINTS;
     }
 
+    @Override
+    public int calculatePoints(ReceiptFeatures features) {
+        long nanoOfDay = features.nanoOfDay();
+        if (nanoOfDay == ReceiptFeatures.ABSENT) {
+            return ZERO_POINTS;
+        }
+
+        return nanoOfDay > START_NANO_OF_DAY && nanoOfDay < END_NANO_OF_DAY ? POINTS_AWARDED : ZERO_POINTS;
+    }
+
     private boolean isWithinTimeRange(LocalTime time) {
         return time.isAfter(START_TIME) && time.isBefore(END_TIME);
     }
@@ -0,0 +1,175 @@
+package com.fetch.challenge.receipt_processor_challenge.servcie;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptAsyncProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.exception.ReceiptPendingException;
+import com.fetch.challenge.receipt_processor_challenge.exception.ReceiptQueueFullException;
+import com.fetch.challenge.receipt_processor_challenge.exception.ReceiptScoringFailedException;
+import com.fetch.challenge.receipt_processor_challenge.util.RandomIdGenerator;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdGenerator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Accept-then-score mode: {@link #processReceipt} assigns the ID and queues the receipt on the
+ * bounded {@code receiptQueue} executor instead of scoring on the request thread. Until scoring
+ * finishes, {@link #findPoints} waits up to {@code receipt.async.points-wait} and then reports the
+ * receipt as pending. Batches are still scored synchronously by {@link ReceiptServiceImpl}.
+ * <p>
+ * A receipt whose scoring fails is logged and reported as failed by later lookups, for the last
+ * {@code receipt.async.failures-retained} failures. On shutdown the queue is drained before the
+ * store, which this service depends on, is closed.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "receipt.async", name = "enabled", havingValue = "true")
+public class AsyncReceiptService implements ReceiptService {
+    private static final Logger log = LoggerFactory.getLogger(AsyncReceiptService.class);
+
+    private final ReceiptServiceImpl delegate;
+    private final ThreadPoolExecutor receiptQueue;
+    private final long pointsWaitNanos;
+    private final int failuresRetained;
+    private final long shutdownTimeoutNanos;
+    private final ReceiptIdGenerator idGenerator;
+    private final Map<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    private final Map<String, ReceiptScoringFailedException> failed = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> failureOrder = new ConcurrentLinkedQueue<>();
+
+    public AsyncReceiptService(ReceiptServiceImpl delegate,
+                               ThreadPoolExecutor receiptQueue,
+                               ReceiptAsyncProperties properties) {
+        this(delegate, receiptQueue, properties, new RandomIdGenerator());
+    }
+
+    @Autowired
+    public AsyncReceiptService(ReceiptServiceImpl delegate,
+                               ThreadPoolExecutor receiptQueue,
+                               ReceiptAsyncProperties properties,
+                               ReceiptIdGenerator idGenerator) {
+        this.delegate = delegate;
+        this.idGenerator = idGenerator;
+        this.receiptQueue = receiptQueue;
+        this.pointsWaitNanos = properties.getPointsWait().toNanos();
+        this.failuresRetained = properties.getFailuresRetained();
+        this.shutdownTimeoutNanos = properties.getShutdownTimeout().toNanos();
+    }
+
+    @Override
+    public String processReceipt(ReceiptDTO receipt) {
+        if (receipt == null) {
+            throw new IllegalArgumentException("Receipt cannot be null");
+        }
+
+        String existing = delegate.findDuplicate(receipt);
+        if (existing != null) {
+            return existing;
+        }
+        String id = idGenerator.next();
+        CompletableFuture<Void> scored = new CompletableFuture<>();
+        pending.put(id, scored);
+        try {
+            receiptQueue.execute(() -> score(id, receipt, scored));
+        } catch (RejectedExecutionException e) {
+            pending.remove(id);
+            throw new ReceiptQueueFullException(receiptQueue.isShutdown()
+                    ? "Shutting down, retry later"
+                    : "Receipt queue is full, retry later");
+        }
+        return id;
+    }
+
+    @Override
+    public List<String> processReceipts(List<ReceiptDTO> receipts) {
+        return delegate.processReceipts(receipts);
+    }
+
+    @Override
+    public int findPoints(String id) {
+        CompletableFuture<Void> scored = id == null ? null : pending.get(id);
+        if (scored != null) {
+            awaitScoring(id, scored);
+        }
+        ReceiptScoringFailedException failure = id == null ? null : failed.get(id);
+        if (failure != null) {
+            throw failure;
+        }
+        return delegate.findPoints(id);
+    }
+
+    /** Receipts accepted but not yet scored. */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /** Stops accepting receipts and waits up to the shutdown timeout for the queued ones to be scored. */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        receiptQueue.shutdown();
+        if (!receiptQueue.awaitTermination(shutdownTimeoutNanos, TimeUnit.NANOSECONDS)) {
+            List<Runnable> dropped = receiptQueue.shutdownNow();
+            log.warn("Shutdown timed out; {} accepted receipts were not scored", dropped.size());
+        }
+    }
+
+    private void score(String id, ReceiptDTO receipt, CompletableFuture<Void> scored) {
+        try {
+            delegate.processReceipt(id, receipt);
+            scored.complete(null);
+        } catch (RuntimeException e) {
+            log.error("Scoring receipt {} failed", id, e);
+            ReceiptScoringFailedException failure = new ReceiptScoringFailedException(id, e);
+            recordFailure(id, failure);
+            scored.completeExceptionally(failure);
+        } finally {
+            pending.remove(id);
+        }
+    }
+
+    private void recordFailure(String id, ReceiptScoringFailedException failure) {
+        if (failuresRetained <= 0) {
+            return;
+        }
+        failed.put(id, failure);
+        failureOrder.add(id);
+        while (failed.size() > failuresRetained) {
+            String oldest = failureOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            failed.remove(oldest);
+        }
+    }
+
+    private void awaitScoring(String id, CompletableFuture<Void> scored) {
+        try {
+            scored.get(pointsWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ReceiptPendingException(id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReceiptPendingException(id);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
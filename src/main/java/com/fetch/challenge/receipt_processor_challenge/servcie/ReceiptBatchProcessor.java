@@ -0,0 +1,59 @@
+package com.fetch.challenge.receipt_processor_challenge.servcie;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptBatchProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.BatchItemResultDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.BatchResponseDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptValidator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/** Validates a batch item by item and scores the valid receipts together; shared by both web stacks. */
+@Component
+public class ReceiptBatchProcessor {
+    private final ReceiptService receiptService;
+    private final ReceiptValidator receiptValidator;
+    private final ReceiptBatchProperties properties;
+
+    public ReceiptBatchProcessor(ReceiptService receiptService,
+                                 ReceiptValidator receiptValidator,
+                                 ReceiptBatchProperties properties) {
+        this.receiptService = receiptService;
+        this.receiptValidator = receiptValidator;
+        this.properties = properties;
+    }
+
+    public BatchResponseDTO process(List<ReceiptDTO> receipts) {
+        if (receipts == null || receipts.isEmpty()) {
+            throw new IllegalArgumentException("Batch cannot be empty");
+        }
+        if (receipts.size() > properties.getMaxSize()) {
+            throw new IllegalArgumentException("Batch of " + receipts.size()
+                    + " receipts exceeds the limit of " + properties.getMaxSize());
+        }
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[receipts.size()];
+        List<ReceiptDTO> accepted = new ArrayList<>(receipts.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(receipts.size());
+        for (int i = 0; i < receipts.size(); i++) {
+            Map<String, String> errors = receiptValidator.validate(receipts.get(i));
+            if (errors.isEmpty()) {
+                accepted.add(receipts.get(i));
+                acceptedIndexes.add(i);
+            } else {
+                results[i] = new BatchItemResultDTO(i, null, errors);
+            }
+        }
+
+        List<String> ids = receiptService.processReceipts(accepted);
+        for (int i = 0; i < ids.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results[index] = new BatchItemResultDTO(index, ids.get(i), null);
+        }
+        return new BatchResponseDTO(Arrays.asList(results));
+    }
+}
@@ -0,0 +1,108 @@
+package com.fetch.challenge.receipt_processor_challenge.servcie;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptMetricsProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.rule.PointRule;
+import com.fetch.challenge.receipt_processor_challenge.rule.ScoringEngine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the scoring pipeline: {@code receipt.process} times uploads, {@code receipt.items}
+ * records the item count of scored receipts and {@code receipt.lookup} times points lookups.
+ * <p>
+ * A single upload or lookup takes a few microseconds, and recording into a percentile histogram
+ * costs a sizeable fraction of that, so both are sampled: only one call in N is timed, and the
+ * meters' counts are counts of sampled calls. Batches are always timed, and per-rule timing is
+ * sampled by {@link ScoringEngine}.
+ */
+public class ReceiptMetrics {
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final MeterRegistry registry;
+    private final Timer single;
+    private final Timer batch;
+    private final Timer lookup;
+    private final DistributionSummary items;
+    private final int processSampling;
+    private final int lookupSampling;
+    private final int ruleSampling;
+
+    public ReceiptMetrics(MeterRegistry registry, ReceiptMetricsProperties properties) {
+        this.registry = registry;
+        this.single = processTimer(registry, "single");
+        this.batch = processTimer(registry, "batch");
+        this.lookup = Timer.builder("receipt.lookup")
+                .description("Time to look up the points of a receipt")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.items = DistributionSummary.builder("receipt.items")
+                .description("Items per scored receipt")
+                .baseUnit("items")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.processSampling = properties.getProcessSampling();
+        this.lookupSampling = properties.getLookupSampling();
+        this.ruleSampling = properties.getRuleSampling();
+    }
+
+    public ScoringEngine scoringEngine(List<PointRule> rules) {
+        return new ScoringEngine(rules, registry, ruleSampling);
+    }
+
+    /** Returns the start time when this upload is sampled, otherwise {@link #NOT_SAMPLED}. */
+    public long startProcess() {
+        return start(processSampling);
+    }
+
+    public void processed(long started, ReceiptDTO receipt) {
+        if (started != NOT_SAMPLED) {
+            single.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            items.record(itemCount(receipt));
+        }
+    }
+
+    public void processedBatch(long started, List<ReceiptDTO> receipts) {
+        batch.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        for (ReceiptDTO receipt : receipts) {
+            if (start(processSampling) != NOT_SAMPLED) {
+                items.record(itemCount(receipt));
+            }
+        }
+    }
+
+    /** Returns the start time when this lookup is sampled, otherwise {@link #NOT_SAMPLED}. */
+    public long startLookup() {
+        return start(lookupSampling);
+    }
+
+    public void lookedUp(long started) {
+        if (started != NOT_SAMPLED) {
+            lookup.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static long start(int sampling) {
+        if (sampling <= 0 || (sampling > 1 && ThreadLocalRandom.current().nextInt(sampling) != 0)) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    private static int itemCount(ReceiptDTO receipt) {
+        return receipt.getItems() == null ? 0 : receipt.getItems().size();
+    }
+
+    private static Timer processTimer(MeterRegistry registry, String mode) {
+        return Timer.builder("receipt.process")
+                .description("Time to score and store an upload")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -1,8 +1,23 @@
 package com.fetch.challenge.receipt_processor_challenge.servcie;
 
 import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.exception.ResourceNotFoundException;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+
+import java.util.List;
 
 public interface ReceiptService {
     String processReceipt(ReceiptDTO receipt);
-    Integer getPoints(String id);
+    List<String> processReceipts(List<ReceiptDTO> receipts);
+
+    /** Returns the points for the ID, or {@link ReceiptStore#MISSING} when no receipt has it. */
+    int findPoints(String id);
+
+    default Integer getPoints(String id) {
+        int points = findPoints(id);
+        if (points == ReceiptStore.MISSING) {
+            throw new ResourceNotFoundException(id);
+        }
+        return points;
+    }
 }
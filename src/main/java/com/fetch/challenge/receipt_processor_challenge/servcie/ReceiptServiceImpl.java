@@ -1,45 +1,238 @@
 package com.fetch.challenge.receipt_processor_challenge.servcie;
 
+import com.fetch.challenge.receipt_processor_challenge.aggregate.ReceiptAggregates;
 import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
-import com.fetch.challenge.receipt_processor_challenge.exception.ResourceNotFoundException;
 import com.fetch.challenge.receipt_processor_challenge.rule.PointRule;
+import com.fetch.challenge.receipt_processor_challenge.rule.ScoringEngine;
+import com.fetch.challenge.receipt_processor_challenge.store.ConcurrentReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.DuplicateIndex;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.util.RandomIdGenerator;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptFingerprint;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdGenerator;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdUtil;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 @Service
 public class ReceiptServiceImpl implements ReceiptService {
-    private final Map<String, ReceiptDTO> receiptStore = Collections.synchronizedMap(new HashMap<>());
-    private final Map<String, Integer> pointStore = Collections.synchronizedMap(new HashMap<>());
-    private final List<PointRule> rules;
+    private static final int UNSHARDED = -1;
+
+    private final ReceiptStore store;
+    private final ScoringEngine scoringEngine;
+    private final ForkJoinPool scoringPool;
+    private final DuplicateIndex duplicates;
+    private final ReceiptMetrics metrics;
+    private final ReceiptIdGenerator idGenerator;
+    private final ReceiptAggregates aggregates;
 
     public ReceiptServiceImpl(List<PointRule> ruleList) {
-        this.rules = Collections.unmodifiableList(new ArrayList<>(ruleList));
+        this(ruleList, new Options());
+    }
+
+    @Autowired
+    public ReceiptServiceImpl(@Qualifier("pointRules") List<PointRule> ruleList, Options options) {
+        this.idGenerator = options.getIdGenerator();
+        this.aggregates = options.getAggregates();
+        this.metrics = options.getMetrics();
+        this.scoringEngine = metrics == null ? new ScoringEngine(ruleList) : metrics.scoringEngine(ruleList);
+        this.store = options.getStore();
+        this.scoringPool = options.getScoringPool();
+        this.duplicates = options.getDuplicates();
     }
 
     @Override
     public String processReceipt(ReceiptDTO receipt) {
+        return processReceipt(receipt, UNSHARDED);
+    }
+
+    /** Like {@link #processReceipt(ReceiptDTO)}, with the shard encoded into the ID of a new receipt. */
+    public String processReceipt(ReceiptDTO receipt, int shard) {
         if (receipt == null) {
             throw new IllegalArgumentException("Receipt cannot be null");
         }
+        long started = metrics == null ? ReceiptMetrics.NOT_SAMPLED : metrics.startProcess();
+        String id = processSingle(receipt, shard);
+        if (metrics != null) {
+            metrics.processed(started, receipt);
+        }
+        return id;
+    }
 
-        String id = UUID.randomUUID().toString();
-        int totalPoints = rules.stream()
-                .mapToInt(rule -> rule.calculatePoints(receipt))
-                .sum();
-
-        receiptStore.put(id, receipt);
-        pointStore.put(id, totalPoints);
+    private String processSingle(ReceiptDTO receipt, int shard) {
+        ReceiptFingerprint fingerprint = duplicates == null ? null : ReceiptFingerprint.of(receipt);
+        String existing = fingerprint == null ? null : duplicates.find(fingerprint);
+        if (existing != null) {
+            return existing;
+        }
+        String id = newId(shard);
+        store(id, receipt, fingerprint);
         return id;
     }
 
+    /** Scores and stores a receipt under an ID assigned by the caller. */
+    public void processReceipt(String id, ReceiptDTO receipt) {
+        long started = metrics == null ? ReceiptMetrics.NOT_SAMPLED : metrics.startProcess();
+        store(id, receipt, duplicates == null ? null : ReceiptFingerprint.of(receipt));
+        if (metrics != null) {
+            metrics.processed(started, receipt);
+        }
+    }
+
+    /** Returns the ID of an already stored receipt with the same content, or {@code null}. */
+    public String findDuplicate(ReceiptDTO receipt) {
+        return duplicates == null || receipt == null ? null : duplicates.find(ReceiptFingerprint.of(receipt));
+    }
+
+    @Override
+    public List<String> processReceipts(List<ReceiptDTO> receipts) {
+        return processReceipts(receipts, null);
+    }
+
+    /**
+     * Like {@link #processReceipts(List)}, with {@code shards[i]} encoded into the ID of receipt
+     * {@code i} when it is new, or with no shard when {@code shards} is {@code null}.
+     */
+    public List<String> processReceipts(List<ReceiptDTO> receipts, int[] shards) {
+        if (receipts == null) {
+            throw new IllegalArgumentException("Receipts cannot be null");
+        }
+
+        for (ReceiptDTO receipt : receipts) {
+            if (receipt == null) {
+                throw new IllegalArgumentException("Receipt cannot be null");
+            }
+        }
+        long started = System.nanoTime();
+        List<String> ids = processBatch(receipts, shards);
+        if (metrics != null) {
+            metrics.processedBatch(started, receipts);
+        }
+        return ids;
+    }
+
+    private List<String> processBatch(List<ReceiptDTO> receipts, int[] shards) {
+        if (duplicates != null) {
+            return processNewReceipts(receipts, shards);
+        }
+
+        int count = receipts.size();
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(newId(shards == null ? UNSHARDED : shards[i]));
+        }
+        int[] points = scoreAll(receipts);
+        store.putAll(ids, receipts, points);
+        if (aggregates != null) {
+            aggregates.addAll(receipts, points);
+        }
+        return ids;
+    }
+
     @Override
-    public Integer getPoints(String id) {
+    public int findPoints(String id) {
         if (id == null || id.trim().isEmpty()) {
             throw new IllegalArgumentException("Receipt ID cannot be null or empty");
         }
 
-        return Optional.ofNullable(pointStore.get(id))
-                .orElseThrow(() -> new ResourceNotFoundException("Receipt not found with id: " + id));
+        long started = metrics == null ? ReceiptMetrics.NOT_SAMPLED : metrics.startLookup();
+        int points = ReceiptIdUtil.isValid(id)
+                ? store.findPoints(ReceiptIdUtil.high(id), ReceiptIdUtil.low(id))
+                : ReceiptStore.MISSING;
+        if (metrics != null) {
+            metrics.lookedUp(started);
+        }
+        return points;
+    }
+
+    /** Scores and stores only the receipts not already stored, answering the rest with their existing IDs. */
+    private List<String> processNewReceipts(List<ReceiptDTO> receipts, int[] shards) {
+        int count = receipts.size();
+        List<String> ids = new ArrayList<>(count);
+        List<String> newIds = new ArrayList<>();
+        List<ReceiptDTO> newReceipts = new ArrayList<>();
+        List<ReceiptFingerprint> newFingerprints = new ArrayList<>();
+        Map<ReceiptFingerprint, String> inBatch = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            ReceiptDTO receipt = receipts.get(i);
+            ReceiptFingerprint fingerprint = ReceiptFingerprint.of(receipt);
+            String existing = inBatch.get(fingerprint);
+            if (existing == null && (existing = duplicates.find(fingerprint)) == null) {
+                existing = newId(shards == null ? UNSHARDED : shards[i]);
+                newIds.add(existing);
+                newReceipts.add(receipt);
+                newFingerprints.add(fingerprint);
+            }
+            inBatch.put(fingerprint, existing);
+            ids.add(existing);
+        }
+        if (!newIds.isEmpty()) {
+            int[] points = scoreAll(newReceipts);
+            store.putAll(newIds, newReceipts, points);
+            if (aggregates != null) {
+                aggregates.addAll(newReceipts, points);
+            }
+            for (int i = 0; i < newIds.size(); i++) {
+                remember(newFingerprints.get(i), newIds.get(i));
+            }
+        }
+        return ids;
+    }
+
+    private String newId(int shard) {
+        return shard == UNSHARDED ? idGenerator.next() : idGenerator.next(shard);
+    }
+
+    private void store(String id, ReceiptDTO receipt, ReceiptFingerprint fingerprint) {
+        int points = score(receipt);
+        store.put(id, receipt, points);
+        if (aggregates != null) {
+            aggregates.add(receipt, points);
+        }
+        if (fingerprint != null) {
+            remember(fingerprint, id);
+        }
+    }
+
+    private void remember(ReceiptFingerprint fingerprint, String id) {
+        duplicates.record(fingerprint, ReceiptIdUtil.high(id), ReceiptIdUtil.low(id));
+    }
+
+    private int[] scoreAll(List<ReceiptDTO> receipts) {
+        int count = receipts.size();
+        int[] points = new int[count];
+        if (count == 1) {
+            points[0] = score(receipts.get(0));
+        } else if (count > 1) {
+            scoringPool.submit(() -> IntStream.range(0, count)
+                    .parallel()
+                    .forEach(i -> points[i] = score(receipts.get(i))))
+                    .join();
+        }
+        return points;
+    }
+
+    private int score(ReceiptDTO receipt) {
+        return scoringEngine.score(receipt);
+    }
+
+    /** What the service stores into and scores with; the optional collaborators are off when {@code null}. */
+    @Data
+    public static class Options {
+        private ReceiptStore store = new ConcurrentReceiptStore();
+        private ForkJoinPool scoringPool = ForkJoinPool.commonPool();
+        private ReceiptIdGenerator idGenerator = new RandomIdGenerator();
+        /** When set, uploads of an already stored receipt return its existing ID. */
+        private DuplicateIndex duplicates;
+        /** When set, uploads, lookups and rule evaluations are timed. */
+        private ReceiptMetrics metrics;
+        /** When set, every newly stored receipt is added to it. */
+        private ReceiptAggregates aggregates;
     }
 }
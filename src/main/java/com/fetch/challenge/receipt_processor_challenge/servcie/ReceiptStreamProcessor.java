@@ -0,0 +1,222 @@
+package com.fetch.challenge.receipt_processor_challenge.servcie;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptBatchProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.BatchItemResultDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptValidator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores newline-delimited JSON receipts as they arrive and writes one result line per input line.
+ * <p>
+ * The body is read through a fixed line buffer and each line is handed to Jackson's streaming
+ * parser on its own, so a malformed line only fails that line, as does a line holding anything
+ * after its receipt. Receipts are scored in chunks of
+ * {@code receipt.batch.stream-chunk-size}, which bounds the memory held per upload no matter how
+ * many lines it contains.
+ */
+@Component
+public class ReceiptStreamProcessor {
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final ReceiptService receiptService;
+    private final ReceiptValidator receiptValidator;
+    private final ObjectReader receiptReader;
+    private final ObjectWriter resultWriter;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxLineLength;
+
+    public ReceiptStreamProcessor(ReceiptService receiptService,
+                                  ReceiptValidator receiptValidator,
+                                  ObjectMapper objectMapper,
+                                  ReceiptBatchProperties properties) {
+        this.receiptService = receiptService;
+        this.receiptValidator = receiptValidator;
+        this.objectMapper = objectMapper;
+        this.receiptReader = objectMapper.readerFor(ReceiptDTO.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.resultWriter = objectMapper.writerFor(BatchItemResultDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.chunkSize = Math.max(1, properties.getStreamChunkSize());
+        this.maxLineLength = properties.getMaxLineLength();
+    }
+
+    public void process(InputStream in, OutputStream out) throws IOException {
+        LineReader lines = new LineReader(in, maxLineLength);
+        Chunk chunk = new Chunk();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            int index = 0;
+            while (lines.next()) {
+                int lineIndex = index++;
+                if (lines.isBlank()) {
+                    continue;
+                }
+                if (lines.isTruncated()) {
+                    chunk.reject(lineIndex, Map.of("error", "Line exceeds " + maxLineLength + " bytes"));
+                } else {
+                    parse(lineIndex, lines, chunk);
+                }
+                if (chunk.size() >= chunkSize) {
+                    flush(chunk, generator);
+                }
+            }
+            flush(chunk, generator);
+        }
+    }
+
+    private void parse(int lineIndex, LineReader lines, Chunk chunk) throws IOException {
+        ReceiptDTO receipt;
+        try {
+            receipt = receiptReader.readValue(lines.buffer(), 0, lines.length());
+        } catch (JsonProcessingException e) {
+            String detail = e.getOriginalMessage();
+            chunk.reject(lineIndex, detail == null
+                    ? Map.of("error", "Invalid receipt format")
+                    : Map.of("error", "Invalid receipt format", "json", detail));
+            return;
+        }
+        Map<String, String> errors = receiptValidator.validate(receipt);
+        if (errors.isEmpty()) {
+            chunk.accept(lineIndex, receipt);
+        } else {
+            chunk.reject(lineIndex, errors);
+        }
+    }
+
+    private void flush(Chunk chunk, JsonGenerator generator) throws IOException {
+        if (chunk.size() == 0) {
+            return;
+        }
+        List<String> ids = receiptService.processReceipts(chunk.receipts);
+        int next = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            BatchItemResultDTO result = chunk.results.get(i);
+            if (result == null) {
+                result = new BatchItemResultDTO(chunk.lineIndexes.get(i), ids.get(next++), null);
+            }
+            resultWriter.writeValue(generator, result);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        chunk.clear();
+    }
+
+    private static final class Chunk {
+        final List<Integer> lineIndexes = new ArrayList<>();
+        final List<BatchItemResultDTO> results = new ArrayList<>();
+        final List<ReceiptDTO> receipts = new ArrayList<>();
+
+        void accept(int lineIndex, ReceiptDTO receipt) {
+            lineIndexes.add(lineIndex);
+            results.add(null);
+            receipts.add(receipt);
+        }
+
+        void reject(int lineIndex, Map<String, String> errors) {
+            lineIndexes.add(lineIndex);
+            results.add(new BatchItemResultDTO(lineIndex, null, errors));
+        }
+
+        int size() {
+            return lineIndexes.size();
+        }
+
+        void clear() {
+            lineIndexes.clear();
+            results.clear();
+            receipts.clear();
+        }
+    }
+
+    /** Splits a byte stream on '\n' into a reusable buffer that never grows past the line limit. */
+    static final class LineReader {
+        private final InputStream in;
+        private final int maxLength;
+        private final byte[] input = new byte[8192];
+        private int inputPosition;
+        private int inputLimit;
+        private byte[] line = new byte[1024];
+        private int length;
+        private boolean truncated;
+
+        LineReader(InputStream in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        boolean next() throws IOException {
+            length = 0;
+            truncated = false;
+            boolean readAny = false;
+            while (true) {
+                if (inputPosition == inputLimit) {
+                    inputLimit = in.read(input);
+                    inputPosition = 0;
+                    if (inputLimit <= 0) {
+                        inputLimit = 0;
+                        return readAny;
+                    }
+                }
+                readAny = true;
+                byte b = input[inputPosition++];
+                if (b == '\n') {
+                    if (length > 0 && line[length - 1] == '\r') {
+                        length--;
+                    }
+                    return true;
+                }
+                append(b);
+            }
+        }
+
+        private void append(byte b) {
+            if (length == maxLength) {
+                truncated = true;
+                return;
+            }
+            if (length == line.length) {
+                byte[] grown = new byte[Math.min(maxLength, line.length * 2)];
+                System.arraycopy(line, 0, grown, 0, length);
+                line = grown;
+            }
+            line[length++] = b;
+        }
+
+        boolean isBlank() {
+            for (int i = 0; i < length; i++) {
+                if (!Character.isWhitespace(line[i])) {
+                    return false;
+                }
+            }
+            return !truncated;
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        byte[] buffer() {
+            return line;
+        }
+
+        int length() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.fetch.challenge.receipt_processor_challenge.servcie;
+
+import com.fetch.challenge.receipt_processor_challenge.cluster.ClusterClient;
+import com.fetch.challenge.receipt_processor_challenge.cluster.ShardRing;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptFingerprint;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdUtil;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptValidator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cluster mode: each receipt is hashed by content into a shard, and the node owning that shard on
+ * the {@link ShardRing} scores and stores it under an ID carrying the shard. Lookups read the
+ * shard back from the ID, so any node answers any request, forwarding to the owner when it is
+ * another node. Each node holds only its own shards.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "receipt.cluster", name = "enabled", havingValue = "true")
+public class ShardedReceiptService implements ReceiptService {
+    private final ReceiptServiceImpl local;
+    private final ShardRing ring;
+    private final ClusterClient client;
+    private final ReceiptValidator receiptValidator;
+
+    public ShardedReceiptService(ReceiptServiceImpl local, ShardRing ring, ClusterClient client,
+                                 ReceiptValidator receiptValidator) {
+        this.local = local;
+        this.ring = ring;
+        this.client = client;
+        this.receiptValidator = receiptValidator;
+    }
+
+    @Override
+    public String processReceipt(ReceiptDTO receipt) {
+        if (receipt == null) {
+            throw new IllegalArgumentException("Receipt cannot be null");
+        }
+
+        int shard = ring.shardOf(ReceiptFingerprint.of(receipt));
+        if (ring.isLocal(shard)) {
+            return local.processReceipt(receipt, shard);
+        }
+        return client.store(ring.owner(shard), List.of(receipt)).get(0);
+    }
+
+    @Override
+    public List<String> processReceipts(List<ReceiptDTO> receipts) {
+        if (receipts == null) {
+            throw new IllegalArgumentException("Receipts cannot be null");
+        }
+
+        int count = receipts.size();
+        int[] shards = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (receipts.get(i) == null) {
+                throw new IllegalArgumentException("Receipt cannot be null");
+            }
+            shards[i] = ring.shardOf(ReceiptFingerprint.of(receipts.get(i)));
+        }
+
+        String[] ids = new String[count];
+        for (int node = 0; node < ring.nodes().size(); node++) {
+            List<Integer> indexes = new ArrayList<>();
+            List<ReceiptDTO> owned = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (ring.owner(shards[i]) == node) {
+                    indexes.add(i);
+                    owned.add(receipts.get(i));
+                }
+            }
+            if (owned.isEmpty()) {
+                continue;
+            }
+            List<String> ownedIds = node == ring.self()
+                    ? local.processReceipts(owned, indexes.stream().mapToInt(i -> shards[i]).toArray())
+                    : client.store(node, owned);
+            for (int i = 0; i < indexes.size(); i++) {
+                ids[indexes.get(i)] = ownedIds.get(i);
+            }
+        }
+        return Arrays.asList(ids);
+    }
+
+    @Override
+    public int findPoints(String id) {
+        if (!ReceiptIdUtil.isValid(id)) {
+            return local.findPoints(id);
+        }
+        int shard = ReceiptIdUtil.shard(id);
+        if (shard >= ring.shards() || ring.isLocal(shard)) {
+            return local.findPoints(id);
+        }
+        return client.points(ring.owner(shard), id);
+    }
+
+    /**
+     * Stores receipts forwarded by another node. They are validated again and never forwarded on:
+     * a receipt whose shard this node does not own is rejected, since every node would route its
+     * ID elsewhere and it could never be found.
+     */
+    public List<String> processForwarded(List<ReceiptDTO> receipts) {
+        if (receipts == null) {
+            throw new IllegalArgumentException("Receipts cannot be null");
+        }
+
+        int[] shards = new int[receipts.size()];
+        for (int i = 0; i < shards.length; i++) {
+            ReceiptDTO receipt = receiptValidator.requireValid(receipts.get(i));
+            shards[i] = ring.shardOf(ReceiptFingerprint.of(receipt));
+            if (!ring.isLocal(shards[i])) {
+                throw new IllegalArgumentException("Receipt " + i + " is in shard " + shards[i] + ", owned by "
+                        + ring.nodes().get(ring.owner(shards[i])));
+            }
+        }
+        return local.processReceipts(receipts, shards);
+    }
+
+    public int findLocalPoints(String id) {
+        return local.findPoints(id);
+    }
+}
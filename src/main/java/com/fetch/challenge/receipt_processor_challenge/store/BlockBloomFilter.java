@@ -0,0 +1,87 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Split-block Bloom filter over a run of 64-byte blocks, each eight longs wide. A key sets one bit
+ * in every long of a single block, so a lookup reads one cache line (one page for a mapped file)
+ * however many keys the filter holds. With 512 bits for every 32 slots of a table that is at most
+ * seven-eighths full, false positives stay below one in a thousand.
+ * <p>
+ * Keys are 64-bit hashes from {@link PointsIndex#hash}: the top bits pick the block and the low 32
+ * bits, multiplied by eight odd salts, pick the bit in each long.
+ */
+final class BlockBloomFilter {
+    static final int BLOCK_BYTES = 64;
+    private static final int BLOCKS_PER_BUFFER_SHIFT = 24;
+    private static final int BLOCKS_PER_BUFFER = 1 << BLOCKS_PER_BUFFER_SHIFT;
+    private static final int SLOTS_PER_BLOCK_SHIFT = 5;
+    private static final int[] SALTS = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+
+    private final ByteBuffer[] buffers;
+    private final int blockShift;
+
+    /** @param buffers the filter's bytes, split as {@link #bufferSizes} splits them */
+    BlockBloomFilter(ByteBuffer[] buffers, long blocks) {
+        this.buffers = buffers;
+        this.blockShift = 64 - Long.numberOfTrailingZeros(blocks);
+    }
+
+    /** Blocks for a hash table of {@code capacity} slots, a power of two. */
+    static long blocks(long capacity) {
+        return Math.max(1, capacity >>> SLOTS_PER_BLOCK_SHIFT);
+    }
+
+    static long bytes(long blocks) {
+        return blocks * BLOCK_BYTES;
+    }
+
+    /** Sizes of the buffers the filter is mapped in, each below 2 GB. */
+    static long[] bufferSizes(long blocks) {
+        long[] sizes = new long[(int) ((blocks + BLOCKS_PER_BUFFER - 1) >>> BLOCKS_PER_BUFFER_SHIFT)];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = bytes(Math.min(BLOCKS_PER_BUFFER, blocks - ((long) i << BLOCKS_PER_BUFFER_SHIFT)));
+        }
+        return sizes;
+    }
+
+    void add(long hash) {
+        ByteBuffer buffer = buffer(hash);
+        int position = position(hash);
+        int key = (int) hash;
+        for (int i = 0; i < SALTS.length; i++) {
+            int at = position + i * Long.BYTES;
+            buffer.putLong(at, buffer.getLong(at) | bit(key, i));
+        }
+    }
+
+    /** {@code false} only when the key was never added. */
+    boolean mightContain(long hash) {
+        ByteBuffer buffer = buffer(hash);
+        int position = position(hash);
+        int key = (int) hash;
+        for (int i = 0; i < SALTS.length; i++) {
+            if ((buffer.getLong(position + i * Long.BYTES) & bit(key, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long block(long hash) {
+        return blockShift == 64 ? 0 : hash >>> blockShift;
+    }
+
+    private ByteBuffer buffer(long hash) {
+        return buffers[(int) (block(hash) >>> BLOCKS_PER_BUFFER_SHIFT)];
+    }
+
+    private int position(long hash) {
+        return (int) (block(hash) & (BLOCKS_PER_BUFFER - 1)) * BLOCK_BYTES;
+    }
+
+    private static long bit(int key, int word) {
+        return 1L << ((key * SALTS[word]) >>> 26);
+    }
+}
@@ -0,0 +1,252 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdUtil;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps point totals in a primitive {@link PointsIndex} keyed by the two halves of the receipt ID
+ * and raw receipts in a separate {@link ConcurrentHashMap}. The receipt is written before its
+ * points, so anyone who can see the points can also see the receipt; neither path takes a global
+ * lock.
+ * <p>
+ * When retention limits are configured, point totals are evicted by the index's CLOCK hand and
+ * expire after the configured TTL, taking their receipt with them. Raw receipts have their own
+ * FIFO cap and are dropped without touching their points: a ring of the last {@code maxReceipts}
+ * receipt keys drops the receipt whose slot each new one takes, so the ring stays the size of the
+ * cap however many receipts the points index drops first. With {@code BINARY} encoding the raw
+ * receipt is held in the compact {@link ReceiptCodec} layout and only decoded when it is read.
+ */
+public class ConcurrentReceiptStore implements ReceiptStore {
+    private final PointsIndex points;
+    private final ConcurrentHashMap<UUID, Object> receipts = new ConcurrentHashMap<>();
+    private final WriteOrder receiptOrder;
+    private final LongAdder receiptEvictions = new LongAdder();
+    private final LongAdder receiptBytes = new LongAdder();
+
+    private final boolean retainReceipts;
+    private final long maxReceipts;
+    private final ReceiptCodec codec;
+
+    public ConcurrentReceiptStore() {
+        this(new ReceiptStoreProperties(), Clock.systemUTC());
+    }
+
+    public ConcurrentReceiptStore(ReceiptStoreProperties properties, Clock time) {
+        long ttlMillis = properties.getPointsTtl() == null ? 0 : properties.getPointsTtl().toMillis();
+        this.points = new PointsIndex(properties.getMaxPoints(), ttlMillis, time::millis,
+                (high, low) -> forget(receipts.remove(new UUID(high, low))));
+        this.retainReceipts = properties.isRetainReceipts();
+        this.maxReceipts = properties.getMaxReceipts();
+        this.receiptOrder = maxReceipts > 0 ? new WriteOrder(maxReceipts) : null;
+        this.codec = properties.getEncoding() == ReceiptStoreProperties.Encoding.BINARY ? new ReceiptCodec() : null;
+    }
+
+    @Override
+    public void put(String id, ReceiptDTO receipt, int points) {
+        checkId(id);
+        long high = ReceiptIdUtil.high(id);
+        long low = ReceiptIdUtil.low(id);
+
+        putReceipt(high, low, receipt);
+        this.points.put(high, low, points);
+    }
+
+    @Override
+    public void putAll(List<String> ids, List<ReceiptDTO> receipts, int[] points) {
+        int count = ids.size();
+        long[] highs = new long[count];
+        long[] lows = new long[count];
+        for (int i = 0; i < count; i++) {
+            String id = ids.get(i);
+            checkId(id);
+            highs[i] = ReceiptIdUtil.high(id);
+            lows[i] = ReceiptIdUtil.low(id);
+        }
+        for (int i = 0; i < count; i++) {
+            putReceipt(highs[i], lows[i], receipts.get(i));
+        }
+        this.points.putAll(highs, lows, points);
+    }
+
+    @Override
+    public int findPoints(long high, long low) {
+        return points.get(high, low);
+    }
+
+    @Override
+    public Optional<ReceiptDTO> findReceipt(String id) {
+        if (!ReceiptIdUtil.isValid(id)) {
+            return Optional.empty();
+        }
+        long high = ReceiptIdUtil.high(id);
+        long low = ReceiptIdUtil.low(id);
+        if (points.get(high, low) == PointsIndex.MISSING) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(decode(receipts.get(new UUID(high, low))));
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, points.size());
+    }
+
+    @Override
+    public ReceiptStoreStats stats() {
+        return new ReceiptStoreStats(
+                points.size(),
+                receipts.mappingCount(),
+                points.evictions(),
+                points.expirations(),
+                receiptEvictions.sum(),
+                points.memoryBytes(),
+                receiptBytes.sum());
+    }
+
+    /** Visits every live point total without holding up writers; see {@link PointsIndex#forEach}. */
+    public void forEachPoints(PointsIndex.EntryVisitor visitor) {
+        points.forEach(visitor);
+    }
+
+    /** Removes the points and receipt stored under the key, without counting an eviction. */
+    void remove(long high, long low) {
+        if (!points.remove(high, low)) {
+            forget(receipts.remove(new UUID(high, low)));
+        }
+    }
+
+    /** Keys held for the receipt cap; never more than {@code maxReceipts}. */
+    long receiptOrderSize() {
+        return receiptOrder == null ? 0 : receiptOrder.size();
+    }
+
+    /**
+     * Returns the retained receipt in {@link ReceiptCodec} layout, or {@code null}. Receipts held as
+     * objects are encoded into {@code scratch}'s per-thread buffer.
+     */
+    ByteBuffer encodedReceipt(long high, long low, ReceiptCodec scratch) {
+        Object stored = receipts.get(new UUID(high, low));
+        if (stored instanceof ByteBuffer encoded) {
+            return encoded.duplicate();
+        }
+        return stored == null ? null : scratch.encodeTransient((ReceiptDTO) stored);
+    }
+
+    private void putReceipt(long high, long low, ReceiptDTO receipt) {
+        if (retainReceipts && receipt != null) {
+            UUID key = new UUID(high, low);
+            Object encoded = encode(receipt);
+            receiptBytes.add(estimateBytes(encoded));
+            forget(receipts.put(key, encoded));
+            if (receiptOrder != null) {
+                evictReceipt(receiptOrder.add(key));
+            }
+        }
+    }
+
+    private static void checkId(String id) {
+        if (!ReceiptIdUtil.isValid(id)) {
+            throw new IllegalArgumentException("Receipt ID must be a UUID: " + id);
+        }
+    }
+
+    private Object encode(ReceiptDTO receipt) {
+        return codec == null ? receipt : codec.encode(receipt);
+    }
+
+    private ReceiptDTO decode(Object stored) {
+        return stored instanceof ByteBuffer encoded ? codec.decode(encoded) : (ReceiptDTO) stored;
+    }
+
+    private void evictReceipt(UUID key) {
+        Object removed = key == null ? null : receipts.remove(key);
+        if (removed != null) {
+            forget(removed);
+            receiptEvictions.increment();
+        }
+    }
+
+    private void forget(Object removed) {
+        if (removed != null) {
+            receiptBytes.add(-estimateBytes(removed));
+        }
+    }
+
+    /**
+     * Rough footprint of one stored receipt with compressed references: the map node and UUID key,
+     * plus either the encoded buffer or the object graph, counting strings as Latin-1.
+     */
+    static long estimateBytes(Object stored) {
+        long bytes = 32 + 32;
+        if (stored instanceof ByteBuffer encoded) {
+            return bytes + 48 + align(16 + encoded.remaining());
+        }
+        ReceiptDTO receipt = (ReceiptDTO) stored;
+        bytes += 32 + stringBytes(receipt.getRetailer()) + stringBytes(receipt.getTotal());
+        bytes += (receipt.getPurchaseDate() == null ? 0 : 24) + (receipt.getPurchaseTime() == null ? 0 : 24);
+        List<ItemDTO> items = receipt.getItems();
+        if (items != null) {
+            bytes += 24 + align(16 + 4L * items.size());
+            for (ItemDTO item : items) {
+                if (item != null) {
+                    bytes += 24 + (item.getPrice() == null ? 0 : 16) + stringBytes(item.getShortDescription());
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 24 + align(16 + value.length());
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * The last {@code capacity} keys added, in chunks allocated as the ring first fills them. IDs are
+     * unique, so the key a slot held is evicted without checking it was not written again since.
+     */
+    private static final class WriteOrder {
+        private static final int CHUNK_BITS = 12;
+        private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+        private final long capacity;
+        private final AtomicReferenceArray<AtomicReferenceArray<UUID>> chunks;
+        private final AtomicLong added = new AtomicLong();
+
+        WriteOrder(long capacity) {
+            this.capacity = capacity;
+            this.chunks = new AtomicReferenceArray<>((int) ((capacity + CHUNK_SIZE - 1) >>> CHUNK_BITS));
+        }
+
+        /** Adds {@code key} as the newest and returns the key whose slot it took, or {@code null}. */
+        UUID add(UUID key) {
+            long slot = added.getAndIncrement() % capacity;
+            int index = (int) (slot >>> CHUNK_BITS);
+            AtomicReferenceArray<UUID> chunk = chunks.get(index);
+            if (chunk == null) {
+                chunks.compareAndSet(index, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+                chunk = chunks.get(index);
+            }
+            return chunk.getAndSet((int) (slot & (CHUNK_SIZE - 1)), key);
+        }
+
+        long size() {
+            return Math.min(added.get(), capacity);
+        }
+    }
+}
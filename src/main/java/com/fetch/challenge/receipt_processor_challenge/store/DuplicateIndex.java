@@ -0,0 +1,62 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptFingerprint;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the ID each receipt content was last stored under, so that an identical upload can be
+ * answered with that ID instead of being scored and stored again.
+ * <p>
+ * The cache is direct-mapped and lossy: each fingerprint has exactly one slot, and a different
+ * fingerprint landing there replaces it. Entries are immutable and swapped with a single reference
+ * write, so lookups take no lock. A remembered ID only counts as a hit while the store still has
+ * its points; once it has been evicted or has expired, the receipt is scored again.
+ */
+public class DuplicateIndex {
+    private final ReceiptStore store;
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DuplicateIndex(ReceiptStore store, int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, Math.min(capacity, 1 << 30)) - 1) << 1;
+        this.store = store;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /** Returns the ID of a stored receipt with this fingerprint, or {@code null}. */
+    public String find(ReceiptFingerprint fingerprint) {
+        Entry entry = slots.getAcquire(slot(fingerprint));
+        if (entry != null && entry.high == fingerprint.high() && entry.low == fingerprint.low()
+                && store.findPoints(entry.idHigh, entry.idLow) != ReceiptStore.MISSING) {
+            hits.increment();
+            return new UUID(entry.idHigh, entry.idLow).toString();
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void record(ReceiptFingerprint fingerprint, long idHigh, long idLow) {
+        slots.setRelease(slot(fingerprint), new Entry(fingerprint.high(), fingerprint.low(), idHigh, idLow));
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private int slot(ReceiptFingerprint fingerprint) {
+        return (int) (fingerprint.low() ^ fingerprint.low() >>> 32) & mask;
+    }
+
+    private record Entry(long high, long low, long idHigh, long idLow) {
+    }
+}
@@ -0,0 +1,458 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Logs every write to a {@link WriteAheadLog} and rebuilds the in-memory store from the log on
+ * startup. A write is applied in memory first and acknowledged once it is logged, so a snapshot
+ * taken at log position {@code p} already holds every record before {@code p}. A write the log
+ * rejects is taken back out of memory before the error reaches the caller.
+ * <p>
+ * With a snapshot file, {@link #snapshot} periodically writes the points (and optionally the
+ * receipts) to a {@link PointsSnapshot}. Recovery maps the latest snapshot, serves lookups that miss
+ * the in-memory store from it and replays only the log written after it.
+ * <p>
+ * Record payload: a kind byte, the two halves of the receipt ID, the points, the write time in
+ * epoch milliseconds and, for {@link #WITH_RECEIPT}, the receipt in {@link ReceiptCodec} layout.
+ */
+public class DurableReceiptStore implements ReceiptStore, Closeable {
+    private static final Logger log = LoggerFactory.getLogger(DurableReceiptStore.class);
+    private static final byte POINTS_ONLY = 0;
+    private static final byte WITH_RECEIPT = 1;
+    private static final int FIXED_BYTES = 1 + 8 + 8 + 4 + 8;
+    private static final int REPLAY_CHUNK = 4096;
+
+    private final ConcurrentReceiptStore delegate;
+    private final WriteAheadLog wal;
+    private final Path snapshotFile;
+    private final boolean logReceipts;
+    private final long ttlMillis;
+    private final long maxEntries;
+    private final Clock clock;
+    private final ReceiptCodec codec = new ReceiptCodec();
+    private volatile PointsSnapshot base;
+    private volatile OutsideSnapshot outside;
+
+    private DurableReceiptStore(ConcurrentReceiptStore delegate, WriteAheadLog wal, Path snapshotFile,
+                                boolean logReceipts, long ttlMillis, long maxEntries, Clock clock) {
+        this.delegate = delegate;
+        this.wal = wal;
+        this.snapshotFile = snapshotFile;
+        this.logReceipts = logReceipts;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Replays the log into {@code delegate}, skipping records older than {@code ttlMillis} when it
+     * is positive, and returns a store that logs further writes.
+     */
+    public static DurableReceiptStore recover(ConcurrentReceiptStore delegate, WriteAheadLog wal, boolean logReceipts,
+                                              long ttlMillis, Clock clock) throws IOException {
+        return recover(delegate, wal, null, logReceipts, ttlMillis, 0, clock, null);
+    }
+
+    /**
+     * Maps {@code snapshotFile} when it holds a valid snapshot and replays the log written after it;
+     * otherwise (including when the snapshot is unreadable) replays what is left of the log, which
+     * snapshots cut down to the records written after them. Snapshots keep at most
+     * {@code maxEntries} entries when it is positive.
+     * <p>
+     * When {@code recovered} is not {@code null} it is given each unexpired receipt the snapshot or
+     * the log holds, with its points, once per receipt. Entries stored without their receipt are
+     * left out.
+     */
+    public static DurableReceiptStore recover(ConcurrentReceiptStore delegate, WriteAheadLog wal, Path snapshotFile,
+                                              boolean logReceipts, long ttlMillis, long maxEntries, Clock clock,
+                                              ObjIntConsumer<ReceiptDTO> recovered) throws IOException {
+        DurableReceiptStore store = new DurableReceiptStore(delegate, wal, snapshotFile, logReceipts, ttlMillis,
+                maxEntries, clock);
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            try {
+                store.base = PointsSnapshot.open(snapshotFile);
+            } catch (IOException e) {
+                log.error("Ignoring unreadable snapshot {}; replaying the log, which lacks the records it held",
+                        snapshotFile, e);
+            }
+        }
+        if (store.base != null && recovered != null) {
+            store.replaySnapshot(recovered);
+        }
+        store.replay(store.base == null ? 0 : store.base.walPosition(), recovered);
+        if (store.base != null) {
+            store.outside = store.countOutside(store.base);
+        }
+        return store;
+    }
+
+    @Override
+    public void put(String id, ReceiptDTO receipt, int points) {
+        checkId(id);
+        byte[] record = record(id, receipt, points, clock.millis());
+        delegate.put(id, receipt, points);
+        try {
+            wal.append(record);
+        } catch (RuntimeException e) {
+            delegate.remove(ReceiptIdUtil.high(id), ReceiptIdUtil.low(id));
+            throw e;
+        }
+        countOutside(outside, id);
+    }
+
+    @Override
+    public void putAll(List<String> ids, List<ReceiptDTO> receipts, int[] points) {
+        long now = clock.millis();
+        List<byte[]> records = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            checkId(ids.get(i));
+            records.add(record(ids.get(i), receipts.get(i), points[i], now));
+        }
+        delegate.putAll(ids, receipts, points);
+        if (!records.isEmpty()) {
+            try {
+                wal.append(records);
+            } catch (RuntimeException e) {
+                for (String id : ids) {
+                    delegate.remove(ReceiptIdUtil.high(id), ReceiptIdUtil.low(id));
+                }
+                throw e;
+            }
+        }
+        OutsideSnapshot counter = outside;
+        for (String id : ids) {
+            countOutside(counter, id);
+        }
+    }
+
+    @Override
+    public int findPoints(long high, long low) {
+        int points = delegate.findPoints(high, low);
+        PointsSnapshot snapshot = base;
+        if (points == MISSING && snapshot != null) {
+            return snapshot.get(high, low, ttlMillis, clock.millis());
+        }
+        return points;
+    }
+
+    @Override
+    public Optional<ReceiptDTO> findReceipt(String id) {
+        Optional<ReceiptDTO> receipt = delegate.findReceipt(id);
+        if (receipt.isPresent() || !ReceiptIdUtil.isValid(id)) {
+            return receipt;
+        }
+        while (true) {
+            PointsSnapshot snapshot = base;
+            if (snapshot == null) {
+                return Optional.empty();
+            }
+            try {
+                ByteBuffer encoded = snapshot.receipt(ReceiptIdUtil.high(id), ReceiptIdUtil.low(id), ttlMillis,
+                        clock.millis());
+                return Optional.ofNullable(encoded == null ? null : codec.decode(encoded));
+            } catch (ClosedChannelException e) {
+                if (snapshot == base) {
+                    throw new UncheckedIOException(e);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Entries in the snapshot plus the in-memory entries it does not hold, from a count kept as
+     * entries are written. The count is taken afresh with each snapshot; writes racing with that may
+     * be missed until the next one, and in-memory entries evicted since are only capped, not
+     * subtracted.
+     */
+    @Override
+    public int size() {
+        OutsideSnapshot counter = outside;
+        if (counter == null) {
+            return delegate.size();
+        }
+        long size = counter.snapshot.entries() + Math.min(counter.entries.sum(), delegate.size());
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    @Override
+    public ReceiptStoreStats stats() {
+        return delegate.stats();
+    }
+
+    public WriteAheadLog wal() {
+        return wal;
+    }
+
+    /** The snapshot lookups fall back to, or {@code null} when none has been loaded or taken. */
+    public PointsSnapshot snapshot() {
+        return base;
+    }
+
+    /**
+     * Writes the in-memory entries, then those of the current snapshot not already written, to a new
+     * snapshot, switches lookups over to it and drops the log records it holds. Writers are only held
+     * up while one index segment is copied, then while the log tail is copied. Returns the number of
+     * entries written.
+     * <p>
+     * When there are more than {@code maxEntries}, the newest by write time are kept. Write times
+     * are only known with a points TTL; without one the in-memory entries are kept first, then
+     * those of the current snapshot, each in hash order.
+     */
+    public synchronized long snapshot(boolean includeReceipts) throws IOException {
+        if (snapshotFile == null) {
+            throw new IllegalStateException("No snapshot file configured");
+        }
+        long walPosition = wal.position();
+        PointsSnapshot previous = base;
+        long expected = delegate.size() + (previous == null ? 0 : previous.entries());
+        long oldestSecond = maxEntries > 0 && expected > maxEntries ? oldestKeptSecond(previous) : 0;
+        PointsSnapshot written;
+        while (true) {
+            try (PointsSnapshot.Writer writer = new PointsSnapshot.Writer(snapshotFile, expected, maxEntries)) {
+                if (copyInto(writer, previous, includeReceipts, oldestSecond)) {
+                    written = writer.commit(walPosition);
+                    break;
+                }
+            }
+            // Entries written since walPosition filled the table; they are in the log tail anyway,
+            // but earlier ones must not be crowded out, so retry with room to spare.
+            expected <<= 1;
+        }
+        OutsideSnapshot counter = countOutside(written);
+        base = written;
+        outside = counter;
+        if (previous != null) {
+            previous.close();
+        }
+        try {
+            wal.discardBefore(walPosition);
+        } catch (IOException e) {
+            log.warn("Snapshot written, but the log could not be cut down; retrying after the next one", e);
+        }
+        return written.entries();
+    }
+
+    @Override
+    public void close() throws IOException {
+        wal.close();
+        PointsSnapshot snapshot = base;
+        if (snapshot != null) {
+            snapshot.close();
+        }
+    }
+
+    /**
+     * Write time, in epoch seconds, of the {@code maxEntries}-th newest entry of the in-memory store
+     * and the current snapshot, or 0 when fewer entries than that carry a write time.
+     */
+    private long oldestKeptSecond(PointsSnapshot previous) {
+        long now = clock.millis();
+        WriteTimes times = new WriteTimes();
+        delegate.forEachPoints((high, low, points, writtenAt) -> {
+            if (previous == null || previous.get(high, low, 0, 0) == MISSING) {
+                times.add(writtenAt);
+            }
+        });
+        if (previous != null) {
+            previous.forEach((high, low, points, writtenAt) -> {
+                if (ttlMillis <= 0 || writtenAt == 0 || now - writtenAt < ttlMillis) {
+                    times.add(writtenAt);
+                }
+            });
+        }
+        return times.newest(maxEntries);
+    }
+
+    private boolean copyInto(PointsSnapshot.Writer writer, PointsSnapshot previous, boolean includeReceipts,
+                             long oldestSecond) throws IOException {
+        long now = clock.millis();
+        try {
+            delegate.forEachPoints((high, low, points, writtenAt) -> {
+                if (writtenAt / 1000 >= oldestSecond) {
+                    add(writer, high, low, points, writtenAt,
+                            includeReceipts ? delegate.encodedReceipt(high, low, codec) : null);
+                }
+            });
+            if (previous != null) {
+                previous.forEach((high, low, points, writtenAt) -> {
+                    if ((ttlMillis <= 0 || writtenAt == 0 || now - writtenAt < ttlMillis)
+                            && writtenAt / 1000 >= oldestSecond) {
+                        add(writer, high, low, points, writtenAt,
+                                includeReceipts ? receipt(previous, high, low) : null);
+                    }
+                });
+            }
+            return true;
+        } catch (SnapshotFullException e) {
+            return false;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void add(PointsSnapshot.Writer writer, long high, long low, int points, long writtenAt,
+                            ByteBuffer receipt) {
+        if (writer.isFull()) {
+            throw new SnapshotFullException();
+        }
+        try {
+            writer.add(high, low, points, writtenAt, receipt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ByteBuffer receipt(PointsSnapshot snapshot, long high, long low) {
+        try {
+            return snapshot.receipt(high, low, 0, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] record(String id, ReceiptDTO receipt, int points, long writtenAt) {
+        ByteBuffer encoded = logReceipts && receipt != null ? codec.encodeTransient(receipt) : null;
+        ByteBuffer payload = ByteBuffer.allocate(FIXED_BYTES + (encoded == null ? 0 : encoded.remaining()));
+        payload.put(encoded == null ? POINTS_ONLY : WITH_RECEIPT)
+                .putLong(ReceiptIdUtil.high(id))
+                .putLong(ReceiptIdUtil.low(id))
+                .putInt(points)
+                .putLong(writtenAt);
+        if (encoded != null) {
+            payload.put(encoded);
+        }
+        return WriteAheadLog.frame(payload.flip());
+    }
+
+    /** Counts the in-memory entries {@code snapshot} does not hold, probing it once per entry. */
+    private OutsideSnapshot countOutside(PointsSnapshot snapshot) {
+        LongAdder entries = new LongAdder();
+        delegate.forEachPoints((high, low, points, writtenAt) -> {
+            if (snapshot.get(high, low, 0, 0) == MISSING) {
+                entries.increment();
+            }
+        });
+        return new OutsideSnapshot(snapshot, entries);
+    }
+
+    private static void countOutside(OutsideSnapshot counter, String id) {
+        if (counter != null && counter.snapshot.get(ReceiptIdUtil.high(id), ReceiptIdUtil.low(id), 0, 0) == MISSING) {
+            counter.entries.increment();
+        }
+    }
+
+    private void replaySnapshot(ObjIntConsumer<ReceiptDTO> recovered) throws IOException {
+        PointsSnapshot snapshot = base;
+        long now = clock.millis();
+        try {
+            snapshot.forEach((high, low, points, writtenAt) -> {
+                if (ttlMillis <= 0 || writtenAt == 0 || now - writtenAt < ttlMillis) {
+                    ByteBuffer encoded = receipt(snapshot, high, low);
+                    if (encoded != null) {
+                        recovered.accept(codec.decode(encoded), points);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Replays the log from {@code from}. Records written while the snapshot was being taken may be
+     * in it as well, so those are not handed to {@code recovered} a second time.
+     */
+    private void replay(long from, ObjIntConsumer<ReceiptDTO> recovered) throws IOException {
+        PointsSnapshot snapshot = base;
+        long oldest = ttlMillis > 0 ? clock.millis() - ttlMillis : Long.MIN_VALUE;
+        List<String> ids = new ArrayList<>(REPLAY_CHUNK);
+        List<ReceiptDTO> receipts = new ArrayList<>(REPLAY_CHUNK);
+        int[] points = new int[REPLAY_CHUNK];
+        wal.replay(payload -> {
+            byte kind = payload.get();
+            long high = payload.getLong();
+            long low = payload.getLong();
+            int recordPoints = payload.getInt();
+            long writtenAt = payload.getLong();
+            if (writtenAt < oldest) {
+                return;
+            }
+            ReceiptDTO receipt = kind == WITH_RECEIPT ? codec.decode(payload) : null;
+            if (recovered != null && receipt != null
+                    && (snapshot == null || snapshot.get(high, low, 0, 0) == MISSING)) {
+                recovered.accept(receipt, recordPoints);
+            }
+            points[ids.size()] = recordPoints;
+            ids.add(new UUID(high, low).toString());
+            receipts.add(receipt);
+            if (ids.size() == REPLAY_CHUNK) {
+                delegate.putAll(ids, receipts, points);
+                ids.clear();
+                receipts.clear();
+            }
+        }, from);
+        if (!ids.isEmpty()) {
+            delegate.putAll(ids, receipts, Arrays.copyOf(points, ids.size()));
+        }
+    }
+
+    private static void checkId(String id) {
+        if (!ReceiptIdUtil.isValid(id)) {
+            throw new IllegalArgumentException("Receipt ID must be a UUID: " + id);
+        }
+    }
+
+    /** Write times in epoch seconds, leaving out unknown ones. */
+    private static final class WriteTimes {
+        private int[] seconds = new int[1024];
+        private int count;
+
+        void add(long writtenAtMillis) {
+            if (writtenAtMillis == 0) {
+                return;
+            }
+            if (count == seconds.length) {
+                seconds = Arrays.copyOf(seconds, count << 1);
+            }
+            seconds[count++] = (int) (writtenAtMillis / 1000);
+        }
+
+        long newest(long rank) {
+            if (count < rank) {
+                return 0;
+            }
+            Arrays.sort(seconds, 0, count);
+            return Integer.toUnsignedLong(seconds[(int) (count - rank)]);
+        }
+    }
+
+    private record OutsideSnapshot(PointsSnapshot snapshot, LongAdder entries) {
+    }
+
+    private static final class SnapshotFullException extends RuntimeException {
+        SnapshotFullException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Open-addressing hash index from a 128-bit receipt ID to its point total, with keys held as two
+ * longs and values as primitive ints.
+ * <p>
+ * The index is split into segments, each guarded by a {@link StampedLock}: writers take the
+ * segment's write lock, readers probe optimistically and only fall back to the read lock when a
+ * write raced with them. Collisions are resolved by linear probing and removals use backward-shift
+ * deletion, so there are no tombstones.
+ * <p>
+ * When bounded, each segment evicts with a CLOCK hand sweeping its slots: a slot read since the
+ * hand last passed (or newly written) gets a second chance. Expired entries are invisible to
+ * readers immediately and are removed as the hand passes them on later writes. The all-zero key
+ * is reserved for empty slots; generated UUIDs always carry version bits, so it never occurs.
+ */
+public class PointsIndex {
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    private static final int MAX_SEGMENTS = 64;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int SWEEP_SLOTS = 16;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final long segmentLimit;
+    private final int ttlSeconds;
+    private final LongSupplier millis;
+    private final long epochMillis;
+    private final EvictionListener listener;
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @FunctionalInterface
+    public interface EvictionListener {
+        void evicted(long high, long low);
+    }
+
+    @FunctionalInterface
+    public interface EntryVisitor {
+        /** @param writtenAtMillis when the entry was written, or 0 when the index does not track it */
+        void entry(long high, long low, int points, long writtenAtMillis);
+    }
+
+    public PointsIndex() {
+        this(0, 0, System::currentTimeMillis, (high, low) -> { });
+    }
+
+    /**
+     * @param maxEntries approximate upper bound on entries; 0 for unbounded
+     * @param ttlMillis  how long an entry stays readable; 0 for no expiry (resolution is one second)
+     */
+    public PointsIndex(long maxEntries, long ttlMillis, LongSupplier millis, EvictionListener listener) {
+        int segmentCount = maxEntries > 0
+                ? (int) Math.min(MAX_SEGMENTS, Math.max(1, Long.highestOneBit(maxEntries / 256)))
+                : MAX_SEGMENTS;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(ttlMillis > 0, maxEntries > 0);
+        }
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+        this.segmentLimit = maxEntries > 0 ? (maxEntries + segmentCount - 1) / segmentCount : 0;
+        this.ttlSeconds = ttlMillis > 0 ? (int) Math.max(1, (ttlMillis + 999) / 1000) : 0;
+        this.millis = millis;
+        this.epochMillis = millis.getAsLong();
+        this.listener = listener;
+    }
+
+    /** Returns the points stored for the key, or {@link #MISSING}. */
+    public int get(long high, long low) {
+        long hash = hash(high, low);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.tryOptimisticRead();
+        boolean locked = false;
+        try {
+            while (true) {
+                Table table = segment.table;
+                int slot = table.indexOf(high, low, hash);
+                int points = slot < 0 ? MISSING : table.points[slot];
+                int writtenAt = slot < 0 || table.writtenAt == null ? 0 : table.writtenAt[slot];
+                if (locked || segment.validate(stamp)) {
+                    if (slot < 0 || isExpired(writtenAt, now())) {
+                        return MISSING;
+                    }
+                    if (table.referenced != null && table.referenced[slot] == 0) {
+                        table.referenced[slot] = 1;
+                    }
+                    return points;
+                }
+                stamp = segment.readLock();
+                locked = true;
+            }
+        } finally {
+            if (locked) {
+                segment.unlockRead(stamp);
+            }
+        }
+    }
+
+    public void put(long high, long low, int points) {
+        checkKey(high, low);
+        long hash = hash(high, low);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.writeLock();
+        try {
+            int now = now();
+            insert(segment, high, low, hash, points, now);
+            sweep(segment, now);
+        } finally {
+            segment.unlockWrite(stamp);
+        }
+    }
+
+    /** Inserts all entries taking each segment's write lock once. */
+    public void putAll(long[] highs, long[] lows, int[] points) {
+        int count = points.length;
+        long[] hashes = new long[count];
+        int[] segmentOffsets = new int[segments.length + 1];
+        for (int i = 0; i < count; i++) {
+            checkKey(highs[i], lows[i]);
+            hashes[i] = hash(highs[i], lows[i]);
+            segmentOffsets[segmentIndex(hashes[i]) + 1]++;
+        }
+        for (int s = 0; s < segments.length; s++) {
+            segmentOffsets[s + 1] += segmentOffsets[s];
+        }
+        int[] order = new int[count];
+        int[] cursor = Arrays.copyOf(segmentOffsets, segments.length);
+        for (int i = 0; i < count; i++) {
+            order[cursor[segmentIndex(hashes[i])]++] = i;
+        }
+
+        for (int s = 0; s < segments.length; s++) {
+            if (segmentOffsets[s] == segmentOffsets[s + 1]) {
+                continue;
+            }
+            Segment segment = segments[s];
+            long stamp = segment.writeLock();
+            try {
+                int now = now();
+                for (int o = segmentOffsets[s]; o < segmentOffsets[s + 1]; o++) {
+                    int i = order[o];
+                    insert(segment, highs[i], lows[i], hashes[i], points[i], now);
+                }
+                sweep(segment, now);
+            } finally {
+                segment.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Removes the key's entry, telling the listener but not counting it as evicted. Returns whether
+     * there was one.
+     */
+    public boolean remove(long high, long low) {
+        long hash = hash(high, low);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.writeLock();
+        try {
+            int slot = segment.table.indexOf(high, low, hash);
+            if (slot < 0) {
+                return false;
+            }
+            segment.table.delete(slot);
+            segment.size--;
+        } finally {
+            segment.unlockWrite(stamp);
+        }
+        listener.evicted(high, low);
+        return true;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Visits a copy of every live entry, one segment at a time. Each segment is copied under an
+     * optimistic read and only read-locked when a write raced with the copy, so writers are never
+     * held up for longer than it takes to copy one segment's arrays.
+     */
+    public void forEach(EntryVisitor visitor) {
+        int now = now();
+        for (Segment segment : segments) {
+            Table copy = copyOf(segment);
+            for (int slot = 0; slot < copy.points.length; slot++) {
+                if (copy.isEmpty(slot)) {
+                    continue;
+                }
+                int writtenAt = copy.writtenAt == null ? 0 : copy.writtenAt[slot];
+                if (isExpired(writtenAt, now)) {
+                    continue;
+                }
+                visitor.entry(copy.keys[slot << 1], copy.keys[(slot << 1) + 1], copy.points[slot],
+                        copy.writtenAt == null ? 0 : epochMillis + writtenAt * 1000L);
+            }
+        }
+    }
+
+    /** Approximate bytes held by the index's arrays, read without locking. */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            Table table = segment.table;
+            int capacity = table.points.length;
+            bytes += ARRAY_HEADER_BYTES * 2 + capacity * 20L;
+            if (table.writtenAt != null) {
+                bytes += ARRAY_HEADER_BYTES + capacity * 4L;
+            }
+            if (table.referenced != null) {
+                bytes += ARRAY_HEADER_BYTES + capacity;
+            }
+        }
+        return bytes;
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long expirations() {
+        return expirations.sum();
+    }
+
+    private static Table copyOf(Segment segment) {
+        long stamp = segment.tryOptimisticRead();
+        if (stamp != 0) {
+            Table copy = segment.table.copy();
+            if (segment.validate(stamp)) {
+                return copy;
+            }
+        }
+        stamp = segment.readLock();
+        try {
+            return segment.table.copy();
+        } finally {
+            segment.unlockRead(stamp);
+        }
+    }
+
+    private void insert(Segment segment, long high, long low, long hash, int points, int now) {
+        Table table = segment.table;
+        int slot = table.indexOf(high, low, hash);
+        if (slot < 0) {
+            if (segment.size + 1 > table.threshold()) {
+                table = table.grow();
+                segment.table = table;
+            }
+            slot = table.insertionSlot(hash);
+            table.keys[slot << 1] = high;
+            table.keys[(slot << 1) + 1] = low;
+            segment.size++;
+        }
+        table.points[slot] = points;
+        if (table.writtenAt != null) {
+            table.writtenAt[slot] = now;
+        }
+        if (table.referenced != null) {
+            table.referenced[slot] = 1;
+        }
+    }
+
+    private static void checkKey(long high, long low) {
+        if (high == 0 && low == 0) {
+            throw new IllegalArgumentException("The all-zero receipt ID is reserved");
+        }
+    }
+
+    private void sweep(Segment segment, int now) {
+        Table table = segment.table;
+        int mask = table.mask();
+        int budget = ttlSeconds > 0 ? SWEEP_SLOTS : 0;
+        while (segment.size > 0 && (budget > 0 || (segmentLimit > 0 && segment.size > segmentLimit))) {
+            budget--;
+            int slot = segment.hand;
+            if (table.isEmpty(slot)) {
+                segment.hand = (slot + 1) & mask;
+                continue;
+            }
+            if (table.writtenAt != null && isExpired(table.writtenAt[slot], now)) {
+                remove(segment, slot, expirations);
+                continue;
+            }
+            if (segmentLimit > 0 && segment.size > segmentLimit) {
+                if (table.referenced[slot] != 0) {
+                    table.referenced[slot] = 0;
+                } else {
+                    remove(segment, slot, evictions);
+                    continue;
+                }
+            }
+            segment.hand = (slot + 1) & mask;
+        }
+    }
+
+    private void remove(Segment segment, int slot, LongAdder cause) {
+        Table table = segment.table;
+        long high = table.keys[slot << 1];
+        long low = table.keys[(slot << 1) + 1];
+        table.delete(slot);
+        segment.size--;
+        cause.increment();
+        listener.evicted(high, low);
+    }
+
+    private boolean isExpired(int writtenAt, int now) {
+        return ttlSeconds > 0 && now - writtenAt >= ttlSeconds;
+    }
+
+    private int now() {
+        return ttlSeconds > 0 ? (int) ((millis.getAsLong() - epochMillis) / 1000) : 0;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[segmentIndex(hash)];
+    }
+
+    private int segmentIndex(long hash) {
+        return segments.length == 1 ? 0 : (int) (hash >>> segmentShift);
+    }
+
+    static long hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static final class Segment extends StampedLock {
+        volatile Table table;
+        int size;
+        int hand;
+
+        Segment(boolean timed, boolean bounded) {
+            this.table = new Table(INITIAL_CAPACITY, timed, bounded);
+        }
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final int[] points;
+        final int[] writtenAt;
+        final byte[] referenced;
+
+        Table(int capacity, boolean timed, boolean bounded) {
+            this.keys = new long[capacity << 1];
+            this.points = new int[capacity];
+            this.writtenAt = timed ? new int[capacity] : null;
+            this.referenced = bounded ? new byte[capacity] : null;
+        }
+
+        private Table(long[] keys, int[] points, int[] writtenAt) {
+            this.keys = keys;
+            this.points = points;
+            this.writtenAt = writtenAt;
+            this.referenced = null;
+        }
+
+        Table copy() {
+            return new Table(keys.clone(), points.clone(), writtenAt == null ? null : writtenAt.clone());
+        }
+
+        int mask() {
+            return points.length - 1;
+        }
+
+        int threshold() {
+            return points.length - (points.length >>> 2);
+        }
+
+        boolean isEmpty(int slot) {
+            return keys[slot << 1] == 0 && keys[(slot << 1) + 1] == 0;
+        }
+
+        int indexOf(long high, long low, long hash) {
+            int mask = mask();
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long h = keys[slot << 1];
+                long l = keys[(slot << 1) + 1];
+                if (h == 0 && l == 0) {
+                    return -1;
+                }
+                if (h == high && l == low) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        int insertionSlot(long hash) {
+            int mask = mask();
+            int slot = (int) hash & mask;
+            while (!isEmpty(slot)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        Table grow() {
+            Table grown = new Table(points.length << 1, writtenAt != null, referenced != null);
+            for (int slot = 0; slot < points.length; slot++) {
+                if (!isEmpty(slot)) {
+                    long high = keys[slot << 1];
+                    long low = keys[(slot << 1) + 1];
+                    int target = grown.insertionSlot(hash(high, low));
+                    grown.copyFrom(this, slot, target);
+                }
+            }
+            return grown;
+        }
+
+        void delete(int slot) {
+            int mask = mask();
+            int hole = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (isEmpty(next)) {
+                    break;
+                }
+                int home = (int) hash(keys[next << 1], keys[(next << 1) + 1]) & mask;
+                boolean staysPut = hole <= next
+                        ? hole < home && home <= next
+                        : hole < home || home <= next;
+                if (!staysPut) {
+                    copyFrom(this, next, hole);
+                    hole = next;
+                }
+            }
+            keys[hole << 1] = 0;
+            keys[(hole << 1) + 1] = 0;
+        }
+
+        private void copyFrom(Table source, int from, int to) {
+            keys[to << 1] = source.keys[from << 1];
+            keys[(to << 1) + 1] = source.keys[(from << 1) + 1];
+            points[to] = source.points[from];
+            if (writtenAt != null) {
+                writtenAt[to] = source.writtenAt[from];
+            }
+            if (referenced != null) {
+                referenced[to] = source.referenced[from];
+            }
+        }
+    }
+}
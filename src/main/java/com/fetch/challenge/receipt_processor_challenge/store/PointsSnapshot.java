@@ -0,0 +1,364 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Read-only, memory-mapped image of the points index used to restart without replaying the whole
+ * write-ahead log.
+ * <p>
+ * The file is an open-addressing hash table laid out exactly as it is probed, so opening it costs
+ * a header read and an {@code mmap}; pages are faulted in by the lookups that need them. Layout:
+ * <pre>
+ * header  magic | version | capacity | entries | log position | receipts start | receipts end | header CRC32C
+ * table   capacity slots of [long high | long low | int points | int written-at epoch seconds | long receipt offset]
+ * filter  a {@link BlockBloomFilter} of every key, one 64-byte block per 32 slots (version 2 on)
+ * receipts [int length | ReceiptCodec bytes] for entries whose receipt offset is not 0
+ * </pre>
+ * The log position is where the write-ahead log stood when the snapshot was taken; every record
+ * before it is reflected in the table, so recovery only replays the log from there.
+ * <p>
+ * Lookups consult the filter before the table. The filter is a sixteenth of the table's size and
+ * stays resident, so an ID that was never stored is almost always turned away without faulting in
+ * a table page. Version 1 snapshots have no filter and are still read.
+ */
+public final class PointsSnapshot {
+    private static final int MAGIC = 0x52435053;
+    private static final int VERSION = 2;
+    private static final int UNFILTERED_VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 32;
+    private static final int SLOTS_PER_BUFFER_SHIFT = 25;
+    private static final int SLOTS_PER_BUFFER = 1 << SLOTS_PER_BUFFER_SHIFT;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer[] buffers;
+    private final BlockBloomFilter filter;
+    private final long mask;
+    private final long entries;
+    private final long walPosition;
+
+    private PointsSnapshot(Path file, FileChannel channel, ByteBuffer[] buffers, BlockBloomFilter filter,
+                           long capacity, long entries, long walPosition) {
+        this.file = file;
+        this.channel = channel;
+        this.buffers = buffers;
+        this.filter = filter;
+        this.mask = capacity - 1;
+        this.entries = entries;
+        this.walPosition = walPosition;
+    }
+
+    /** Maps a snapshot written by {@link Writer}; throws if the file is not a complete snapshot. */
+    public static PointsSnapshot open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a points snapshot: " + file);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, 0);
+            int version = header.getInt(4);
+            if (header.getInt(0) != MAGIC || (version != VERSION && version != UNFILTERED_VERSION)) {
+                throw new IOException("Not a points snapshot: " + file);
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(header.array(), 0, 48);
+            if ((int) crc.getValue() != header.getInt(48)) {
+                throw new IOException("Corrupt points snapshot header: " + file);
+            }
+            long capacity = header.getLong(8);
+            long receiptsOffset = header.getLong(32);
+            boolean filtered = version == VERSION;
+            if (Long.bitCount(capacity) != 1
+                    || receiptsOffset != (filtered ? filterEnd(capacity) : tableEnd(capacity))
+                    || channel.size() < header.getLong(40)) {
+                throw new IOException("Truncated points snapshot: " + file);
+            }
+            ByteBuffer[] buffers = new ByteBuffer[(int) ((capacity + SLOTS_PER_BUFFER - 1) >>> SLOTS_PER_BUFFER_SHIFT)];
+            for (int i = 0; i < buffers.length; i++) {
+                long slots = Math.min(SLOTS_PER_BUFFER, capacity - ((long) i << SLOTS_PER_BUFFER_SHIFT));
+                buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY, slotOffset((long) i << SLOTS_PER_BUFFER_SHIFT),
+                        slots * SLOT_BYTES);
+            }
+            BlockBloomFilter filter = filtered
+                    ? new BlockBloomFilter(mapFilter(channel, capacity, FileChannel.MapMode.READ_ONLY),
+                            BlockBloomFilter.blocks(capacity))
+                    : null;
+            return new PointsSnapshot(file, channel, buffers, filter, capacity, header.getLong(16),
+                    header.getLong(24));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the points for the key, or {@link PointsIndex#MISSING} when it is absent or was written
+     * {@code ttlMillis} or more before {@code nowMillis}.
+     */
+    public int get(long high, long low, long ttlMillis, long nowMillis) {
+        long slot = find(high, low);
+        if (slot < 0 || isExpired(slot, ttlMillis, nowMillis)) {
+            return PointsIndex.MISSING;
+        }
+        return buffer(slot).getInt(position(slot) + 16);
+    }
+
+    /** Returns the encoded receipt stored for the key, or {@code null}. */
+    public ByteBuffer receipt(long high, long low, long ttlMillis, long nowMillis) throws IOException {
+        long slot = find(high, low);
+        if (slot < 0 || isExpired(slot, ttlMillis, nowMillis)) {
+            return null;
+        }
+        return readReceipt(buffer(slot).getLong(position(slot) + 24));
+    }
+
+    /** Visits every entry, including its written-at time in epoch milliseconds (0 if unknown). */
+    public void forEach(PointsIndex.EntryVisitor visitor) {
+        for (long slot = 0; slot <= mask; slot++) {
+            ByteBuffer buffer = buffer(slot);
+            int position = position(slot);
+            long high = buffer.getLong(position);
+            long low = buffer.getLong(position + 8);
+            if (high != 0 || low != 0) {
+                visitor.entry(high, low, buffer.getInt(position + 16),
+                        Integer.toUnsignedLong(buffer.getInt(position + 20)) * 1000);
+            }
+        }
+    }
+
+    public long entries() {
+        return entries;
+    }
+
+    public long walPosition() {
+        return walPosition;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** Whether the snapshot carries a filter that turns most absent keys away before the table. */
+    public boolean isFiltered() {
+        return filter != null;
+    }
+
+    private long find(long high, long low) {
+        long hash = PointsIndex.hash(high, low);
+        if (filter != null && !filter.mightContain(hash)) {
+            return -1;
+        }
+        long slot = hash & mask;
+        for (long probes = 0; probes <= mask; probes++) {
+            ByteBuffer buffer = buffer(slot);
+            int position = position(slot);
+            long h = buffer.getLong(position);
+            long l = buffer.getLong(position + 8);
+            if (h == 0 && l == 0) {
+                return -1;
+            }
+            if (h == high && l == low) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean isExpired(long slot, long ttlMillis, long nowMillis) {
+        long writtenAtMillis = Integer.toUnsignedLong(buffer(slot).getInt(position(slot) + 20)) * 1000;
+        return ttlMillis > 0 && writtenAtMillis > 0 && nowMillis - writtenAtMillis >= ttlMillis;
+    }
+
+    private ByteBuffer readReceipt(long offset) throws IOException {
+        if (offset == 0) {
+            return null;
+        }
+        ByteBuffer length = ByteBuffer.allocate(4);
+        readFully(channel, length, offset);
+        ByteBuffer receipt = ByteBuffer.allocate(length.getInt(0));
+        readFully(channel, receipt, offset + 4);
+        return receipt.flip();
+    }
+
+    private ByteBuffer buffer(long slot) {
+        return buffers[(int) (slot >>> SLOTS_PER_BUFFER_SHIFT)];
+    }
+
+    private static int position(long slot) {
+        return (int) (slot & (SLOTS_PER_BUFFER - 1)) * SLOT_BYTES;
+    }
+
+    private static long slotOffset(long slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    private static long tableEnd(long capacity) {
+        return slotOffset(capacity);
+    }
+
+    private static long filterEnd(long capacity) {
+        return tableEnd(capacity) + BlockBloomFilter.bytes(BlockBloomFilter.blocks(capacity));
+    }
+
+    private static MappedByteBuffer[] mapFilter(FileChannel channel, long capacity, FileChannel.MapMode mode)
+            throws IOException {
+        long[] sizes = BlockBloomFilter.bufferSizes(BlockBloomFilter.blocks(capacity));
+        MappedByteBuffer[] buffers = new MappedByteBuffer[sizes.length];
+        long offset = tableEnd(capacity);
+        for (int i = 0; i < sizes.length; i++) {
+            buffers[i] = channel.map(mode, offset, sizes[i]);
+            offset += sizes[i];
+        }
+        return buffers;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of points snapshot");
+            }
+        }
+    }
+
+    /**
+     * Builds a snapshot next to its target and moves it into place once it is fully on disk, so a
+     * crash mid-write leaves the previous snapshot intact. The first value added for a key wins.
+     */
+    public static final class Writer implements AutoCloseable {
+        private final Path target;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final MappedByteBuffer[] buffers;
+        private final MappedByteBuffer[] filterBuffers;
+        private final BlockBloomFilter filter;
+        private final long capacity;
+        private final long maxEntries;
+        private long entries;
+        private long receiptsEnd;
+
+        /**
+         * @param expectedEntries upper bound on the entries that will be added
+         * @param maxEntries      entries beyond this are ignored; 0 for no limit
+         */
+        public Writer(Path target, long expectedEntries, long maxEntries) throws IOException {
+            this.target = target;
+            this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            long bound = maxEntries > 0 ? Math.min(expectedEntries, maxEntries) : expectedEntries;
+            this.capacity = Math.max(16, Long.highestOneBit(Math.max(1, bound + bound / 3)) << 1);
+            this.maxEntries = maxEntries;
+            this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffers = new MappedByteBuffer[(int) ((capacity + SLOTS_PER_BUFFER - 1) >>> SLOTS_PER_BUFFER_SHIFT)];
+            for (int i = 0; i < buffers.length; i++) {
+                long slots = Math.min(SLOTS_PER_BUFFER, capacity - ((long) i << SLOTS_PER_BUFFER_SHIFT));
+                buffers[i] = channel.map(FileChannel.MapMode.READ_WRITE, slotOffset((long) i << SLOTS_PER_BUFFER_SHIFT),
+                        slots * SLOT_BYTES);
+            }
+            this.filterBuffers = mapFilter(channel, capacity, FileChannel.MapMode.READ_WRITE);
+            this.filter = new BlockBloomFilter(filterBuffers, BlockBloomFilter.blocks(capacity));
+            this.receiptsEnd = filterEnd(capacity);
+        }
+
+        /** Adds an entry unless the key is already present or the limit is reached; returns whether it was added. */
+        public boolean add(long high, long low, int points, long writtenAtMillis, ByteBuffer receipt) throws IOException {
+            if (maxEntries > 0 && entries >= maxEntries) {
+                return false;
+            }
+            long mask = capacity - 1;
+            long hash = PointsIndex.hash(high, low);
+            long slot = hash & mask;
+            while (true) {
+                ByteBuffer buffer = buffers[(int) (slot >>> SLOTS_PER_BUFFER_SHIFT)];
+                int position = position(slot);
+                long h = buffer.getLong(position);
+                long l = buffer.getLong(position + 8);
+                if (h == high && l == low) {
+                    return false;
+                }
+                if (h == 0 && l == 0) {
+                    buffer.putLong(position, high)
+                            .putLong(position + 8, low)
+                            .putInt(position + 16, points)
+                            .putInt(position + 20, (int) (writtenAtMillis / 1000))
+                            .putLong(position + 24, receipt == null ? 0 : appendReceipt(receipt));
+                    filter.add(hash);
+                    entries++;
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /** Forces the snapshot to disk, moves it over the target and returns it mapped for reading. */
+        public PointsSnapshot commit(long walPosition) throws IOException {
+            for (MappedByteBuffer buffer : buffers) {
+                buffer.force();
+            }
+            for (MappedByteBuffer buffer : filterBuffers) {
+                buffer.force();
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(capacity).putLong(entries).putLong(walPosition)
+                    .putLong(filterEnd(capacity)).putLong(receiptsEnd);
+            CRC32C crc = new CRC32C();
+            crc.update(header.array(), 0, 48);
+            header.putInt(48, (int) crc.getValue());
+            header.clear();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return open(target);
+        }
+
+        public long entries() {
+            return entries;
+        }
+
+        /** Whether the table has reached the load at which no further entries should be added. */
+        public boolean isFull() {
+            return entries >= capacity - (capacity >>> 3);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel.isOpen()) {
+                channel.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        private long appendReceipt(ByteBuffer receipt) throws IOException {
+            long offset = receiptsEnd;
+            ByteBuffer length = ByteBuffer.allocate(4).putInt(0, receipt.remaining());
+            ByteBuffer body = receipt.duplicate();
+            long position = offset;
+            while (length.hasRemaining()) {
+                position += channel.write(length, position);
+            }
+            while (body.hasRemaining()) {
+                position += channel.write(body, position);
+            }
+            receiptsEnd = position;
+            return offset;
+        }
+    }
+}
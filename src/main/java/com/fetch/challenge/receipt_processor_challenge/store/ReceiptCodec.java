@@ -0,0 +1,231 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes receipts into a compact binary layout.
+ * <p>
+ * Layout: a presence byte, then the retailer as a varint length plus UTF-8, the purchase date
+ * as an epoch-day int, the purchase time as a second-of-day int, the total as zigzag varint
+ * cents (or UTF-8 when it is not a plain two-decimal amount) and the items, each with a presence
+ * byte, UTF-8 description and varint cents (or raw double bits when the price has sub-cent
+ * precision).
+ * <p>
+ * Each encoded receipt is a heap buffer over an array of exactly its size, so its memory is
+ * reclaimed as soon as the receipt is evicted and collected, and never sits outside the heap.
+ * <p>
+ * Prices are stored as whole cents when they have no sub-cent part. A price whose cents a double
+ * cannot hold exactly is rejected, as the cast to cents would saturate.
+ */
+public class ReceiptCodec {
+    static final double MAX_PRICE = 0x1p53 / 100;
+
+    private static final int RETAILER = 1;
+    private static final int DATE = 1 << 1;
+    private static final int TIME = 1 << 2;
+    private static final int ITEMS = 1 << 3;
+    private static final int TOTAL = 1 << 4;
+    private static final int TOTAL_TEXT = 1 << 5;
+
+    private static final int DESCRIPTION = 1;
+    private static final int PRICE = 1 << 1;
+    private static final int PRICE_BITS = 1 << 2;
+
+    private final ThreadLocal<ByteBuffer> scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(4096));
+
+    public ByteBuffer encode(ReceiptDTO receipt) {
+        ByteBuffer out = encodeTransient(receipt);
+        byte[] encoded = new byte[out.remaining()];
+        out.get(encoded);
+        return ByteBuffer.wrap(encoded);
+    }
+
+    /** Encodes into a per-thread scratch buffer that stays valid until the thread's next encode. */
+    ByteBuffer encodeTransient(ReceiptDTO receipt) {
+        ByteBuffer out = scratch.get();
+        while (true) {
+            try {
+                out.clear();
+                write(receipt, out);
+                break;
+            } catch (BufferOverflowException e) {
+                out = ByteBuffer.allocate(out.capacity() * 2);
+                scratch.set(out);
+            }
+        }
+        out.flip();
+        return out;
+    }
+
+    public ReceiptDTO decode(ByteBuffer encoded) {
+        ByteBuffer in = encoded.duplicate();
+        ReceiptDTO receipt = new ReceiptDTO();
+        int flags = in.get();
+        if ((flags & RETAILER) != 0) {
+            receipt.setRetailer(readString(in));
+        }
+        if ((flags & DATE) != 0) {
+            receipt.setPurchaseDate(LocalDate.ofEpochDay(in.getInt()));
+        }
+        if ((flags & TIME) != 0) {
+            receipt.setPurchaseTime(LocalTime.ofSecondOfDay(in.getInt()));
+        }
+        if ((flags & TOTAL) != 0) {
+            receipt.setTotal((flags & TOTAL_TEXT) != 0 ? readString(in) : formatCents(readVarLong(in)));
+        }
+        if ((flags & ITEMS) != 0) {
+            int count = (int) readVarLong(in);
+            List<ItemDTO> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(readItem(in));
+            }
+            receipt.setItems(items);
+        }
+        return receipt;
+    }
+
+    private void write(ReceiptDTO receipt, ByteBuffer out) {
+        String total = receipt.getTotal();
+        long totalCents = total == null ? -1 : parseCents(total);
+        int flags = (receipt.getRetailer() != null ? RETAILER : 0)
+                | (receipt.getPurchaseDate() != null ? DATE : 0)
+                | (receipt.getPurchaseTime() != null ? TIME : 0)
+                | (receipt.getItems() != null ? ITEMS : 0)
+                | (total != null ? TOTAL : 0)
+                | (total != null && totalCents < 0 ? TOTAL_TEXT : 0);
+        out.put((byte) flags);
+        if (receipt.getRetailer() != null) {
+            writeString(receipt.getRetailer(), out);
+        }
+        if (receipt.getPurchaseDate() != null) {
+            out.putInt((int) receipt.getPurchaseDate().toEpochDay());
+        }
+        if (receipt.getPurchaseTime() != null) {
+            out.putInt(receipt.getPurchaseTime().toSecondOfDay());
+        }
+        if (total != null) {
+            if (totalCents < 0) {
+                writeString(total, out);
+            } else {
+                writeVarLong(totalCents, out);
+            }
+        }
+        if (receipt.getItems() != null) {
+            writeVarLong(receipt.getItems().size(), out);
+            for (ItemDTO item : receipt.getItems()) {
+                writeItem(item, out);
+            }
+        }
+    }
+
+    private void writeItem(ItemDTO item, ByteBuffer out) {
+        if (item == null) {
+            out.put((byte) 0);
+            return;
+        }
+        Double price = item.getPrice();
+        if (price != null && Math.abs(price) >= MAX_PRICE) {
+            throw new IllegalArgumentException("Price out of range: " + price);
+        }
+        boolean exactCents = price != null && Math.rint(price * 100) / 100 == price;
+        int flags = (item.getShortDescription() != null ? DESCRIPTION : 0)
+                | (price != null ? PRICE : 0)
+                | (price != null && !exactCents ? PRICE_BITS : 0);
+        out.put((byte) flags);
+        if (item.getShortDescription() != null) {
+            writeString(item.getShortDescription(), out);
+        }
+        if (price != null) {
+            if (exactCents) {
+                writeVarLong((long) Math.rint(price * 100), out);
+            } else {
+                out.putLong(Double.doubleToRawLongBits(price));
+            }
+        }
+    }
+
+    private ItemDTO readItem(ByteBuffer in) {
+        ItemDTO item = new ItemDTO();
+        int flags = in.get();
+        if ((flags & DESCRIPTION) != 0) {
+            item.setShortDescription(readString(in));
+        }
+        if ((flags & PRICE_BITS) != 0) {
+            item.setPrice(Double.longBitsToDouble(in.getLong()));
+        } else if ((flags & PRICE) != 0) {
+            item.setPrice(readVarLong(in) / 100.0);
+        }
+        return item;
+    }
+
+    /** Parses amounts written as digits, a dot and exactly two decimals; anything else returns -1. */
+    static long parseCents(String amount) {
+        int length = amount.length();
+        if (length < 4 || length > 18 || amount.charAt(length - 3) != '.') {
+            return -1;
+        }
+        long cents = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == length - 3) {
+                continue;
+            }
+            char c = amount.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            cents = cents * 10 + (c - '0');
+        }
+        if (amount.charAt(0) == '0' && length > 4) {
+            return -1;
+        }
+        return cents;
+    }
+
+    static String formatCents(long cents) {
+        long fraction = cents % 100;
+        return (cents / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private static void writeString(String value, ByteBuffer out) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length, out);
+        out.put(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(long value, ByteBuffer out) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.put((byte) zigzag);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,35 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdUtil;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+public interface ReceiptStore {
+    int MISSING = PointsIndex.MISSING;
+
+    void put(String id, ReceiptDTO receipt, int points);
+
+    default void putAll(List<String> ids, List<ReceiptDTO> receipts, int[] points) {
+        for (int i = 0; i < ids.size(); i++) {
+            put(ids.get(i), receipts.get(i), points[i]);
+        }
+    }
+
+    /** Returns the points for the ID given as its two 64-bit halves, or {@link #MISSING}. */
+    int findPoints(long high, long low);
+
+    Optional<ReceiptDTO> findReceipt(String id);
+    int size();
+    ReceiptStoreStats stats();
+
+    default OptionalInt findPoints(String id) {
+        if (!ReceiptIdUtil.isValid(id)) {
+            return OptionalInt.empty();
+        }
+        int points = findPoints(ReceiptIdUtil.high(id), ReceiptIdUtil.low(id));
+        return points == MISSING ? OptionalInt.empty() : OptionalInt.of(points);
+    }
+}
@@ -0,0 +1,76 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptMetricsProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReceiptStoreMetrics implements MeterBinder {
+    private final ReceiptStore store;
+    private final ObjectProvider<DuplicateIndex> duplicates;
+    private final long maxAgeNanos;
+    private ReceiptStoreStats stats;
+    private long statsTakenAt;
+
+    public ReceiptStoreMetrics(ReceiptStore store, ObjectProvider<DuplicateIndex> duplicates,
+                               ReceiptMetricsProperties properties) {
+        this.store = store;
+        this.duplicates = duplicates;
+        this.maxAgeNanos = properties.getStoreStatsMaxAge().toNanos();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("receipt.store.entries", store, s -> stats().points())
+                .tag("kind", "points")
+                .register(registry);
+        Gauge.builder("receipt.store.entries", store, s -> stats().receipts())
+                .tag("kind", "receipts")
+                .register(registry);
+        Gauge.builder("receipt.store.memory", store, s -> stats().pointBytes())
+                .description("Approximate memory held by the store")
+                .baseUnit("bytes")
+                .tag("kind", "points")
+                .register(registry);
+        Gauge.builder("receipt.store.memory", store, s -> stats().receiptBytes())
+                .description("Approximate memory held by the store")
+                .baseUnit("bytes")
+                .tag("kind", "receipts")
+                .register(registry);
+        FunctionCounter.builder("receipt.store.evictions", store, s -> stats().pointEvictions())
+                .tag("kind", "points")
+                .tag("cause", "size")
+                .register(registry);
+        FunctionCounter.builder("receipt.store.evictions", store, s -> stats().pointExpirations())
+                .tag("kind", "points")
+                .tag("cause", "expired")
+                .register(registry);
+        FunctionCounter.builder("receipt.store.evictions", store, s -> stats().receiptEvictions())
+                .tag("kind", "receipts")
+                .tag("cause", "size")
+                .register(registry);
+        duplicates.ifAvailable(index -> {
+            FunctionCounter.builder("receipt.dedup.lookups", index, DuplicateIndex::hits)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("receipt.dedup.lookups", index, DuplicateIndex::misses)
+                    .tag("result", "miss")
+                    .register(registry);
+        });
+    }
+
+    // stats() walks the whole store, so one scrape reads it once and every store meter
+    // reports the same moment.
+    private synchronized ReceiptStoreStats stats() {
+        long now = System.nanoTime();
+        if (stats == null || now - statsTakenAt >= maxAgeNanos) {
+            stats = store.stats();
+            statsTakenAt = now;
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,20 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+/**
+ * @param pointBytes   approximate heap held by the points index
+ * @param receiptBytes approximate heap held by raw receipts
+ */
+public record ReceiptStoreStats(
+        long points,
+        long receipts,
+        long pointEvictions,
+        long pointExpirations,
+        long receiptEvictions,
+        long pointBytes,
+        long receiptBytes
+) {
+    public ReceiptStoreStats(long points, long receipts, long pointEvictions, long pointExpirations,
+                             long receiptEvictions) {
+        this(points, receipts, pointEvictions, pointExpirations, receiptEvictions, 0, 0);
+    }
+}
@@ -0,0 +1,496 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of scored receipts. The file starts with {@code [int magic][int version][long
+ * start]}, followed by records framed as {@code [int payload length][int CRC32C of payload][payload]}.
+ * Positions are logical: {@code start} is the position of the first record in the file, which
+ * stays valid when {@link #discardBefore} drops the records a snapshot already holds. Files
+ * written before the header existed start at position 0 with the first record.
+ * <p>
+ * Appends from all threads are handed to a single writer thread, which writes everything queued
+ * since its last pass with one gathering write (group commit). The {@link FsyncPolicy} decides
+ * when that data is forced to disk and whether callers wait for it. On startup {@link #replay}
+ * reads the log back and cuts off a torn or corrupt tail left by a crash.
+ * <p>
+ * A write that fails part way is cut back off the file, and only its own callers fail. Any other
+ * failure, such as a failed fsync, leaves the file in an unknown state, so the log stops: queued
+ * and later appends fail until it is reopened and replayed.
+ */
+public class WriteAheadLog implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+    // Larger than MAX_RECORD_BYTES, so it cannot be mistaken for the length of a first record
+    private static final int MAGIC = 0x5257414C;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 16;
+
+    public enum FsyncPolicy {
+        /** Force after every append call; callers wait for their own fsync. */
+        WRITE,
+        /** Force once per group of appends written together; callers wait for the group's fsync. */
+        BATCH,
+        /** Force at most once per interval; callers wait for the write only and may lose the last interval. */
+        INTERVAL
+    }
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void record(ByteBuffer payload);
+    }
+
+    private final Path file;
+    private final FsyncPolicy policy;
+    private final long intervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition queued = lock.newCondition();
+    private List<Append> pending = new ArrayList<>();
+    private boolean closed;
+    private IllegalStateException failure;
+    private Thread writer;
+
+    // Held by the writer while it writes or syncs, and while the file is swapped by discardBefore
+    private final ReentrantLock io = new ReentrantLock();
+    private FileChannel channel;
+    private long start;
+    private int headerBytes;
+    private volatile long position;
+    private long lastSync;
+    private boolean unsynced;
+
+    private final LongAdder records = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+
+    public WriteAheadLog(Path file, FsyncPolicy policy, Duration interval) throws IOException {
+        this(file, open(file), policy, interval);
+    }
+
+    WriteAheadLog(Path file, FileChannel channel, FsyncPolicy policy, Duration interval) {
+        this.file = file;
+        this.channel = channel;
+        this.policy = policy;
+        this.intervalNanos = Math.max(1, interval.toNanos());
+    }
+
+    /**
+     * Hands every intact record to the handler in append order, truncates anything after the last
+     * intact record and positions the log for appending. Must be called once before the first append.
+     */
+    public long replay(RecordHandler handler) throws IOException {
+        return replay(handler, 0);
+    }
+
+    /**
+     * Like {@link #replay(RecordHandler)} but starts at {@code from}, which must be a record boundary
+     * previously returned by {@link #position()}. A log shorter than {@code from} is replayed from its end.
+     */
+    public long replay(RecordHandler handler, long from) throws IOException {
+        readHeader();
+        long size = channel.size();
+        if (from < start) {
+            log.error("{} starts at position {}, after {}; the records in between are lost", file, start, from);
+        }
+        long position = Math.min(Math.max(headerBytes, offset(from)), size);
+        long replayed = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        ByteBuffer payload = ByteBuffer.allocate(1024);
+        CRC32C crc = new CRC32C();
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            int checksum = header.getInt(4);
+            if (length < 0 || length > MAX_RECORD_BYTES || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            if (payload.capacity() < length) {
+                payload = ByteBuffer.allocate(Math.max(length, payload.capacity() * 2));
+            }
+            payload.clear().limit(length);
+            readFully(payload, position + HEADER_BYTES);
+            payload.flip();
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            handler.record(payload.asReadOnlyBuffer());
+            position += HEADER_BYTES + length;
+            replayed++;
+        }
+        if (position < size) {
+            log.warn("Truncating {} bytes of incomplete or corrupt records at offset {} of {}",
+                    size - position, position, file);
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+        this.position = start + position - headerBytes;
+        startWriter();
+        return replayed;
+    }
+
+    /**
+     * Drops every record before {@code position}, a record boundary whose records a snapshot now
+     * holds. The records after it are copied to a new file starting at {@code position}, which is
+     * forced and renamed over the log, so a crash leaves either the old log or the new one. Appends
+     * wait while the copy runs.
+     */
+    public void discardBefore(long position) throws IOException {
+        io.lock();
+        try {
+            if (writer == null || failure() != null || position <= start) {
+                return;
+            }
+            long cut = Math.min(position, this.position);
+            long from = offset(cut);
+            long end = offset(this.position);
+            Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+            FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                writeHeader(target, cut);
+                for (long copied = 0; copied < end - from; ) {
+                    copied += channel.transferTo(from + copied, end - from - copied, target.position(
+                            FILE_HEADER_BYTES + copied));
+                }
+                target.position(FILE_HEADER_BYTES + end - from);
+                target.force(true);
+                Files.move(compacted, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException | RuntimeException e) {
+                target.close();
+                Files.deleteIfExists(compacted);
+                throw e;
+            }
+            syncDirectory();
+            FileChannel previous = channel;
+            channel = target;
+            start = cut;
+            headerBytes = FILE_HEADER_BYTES;
+            previous.close();
+            log.info("Discarded {} bytes of {} already held by a snapshot", from - FILE_HEADER_BYTES, file);
+        } finally {
+            io.unlock();
+        }
+    }
+
+    /** Frames a payload as a record ready for {@link #append}. */
+    public static byte[] frame(ByteBuffer payload) {
+        int length = payload.remaining();
+        byte[] record = new byte[HEADER_BYTES + length];
+        ByteBuffer out = ByteBuffer.wrap(record);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        out.putInt(length).putInt((int) crc.getValue()).put(payload);
+        return record;
+    }
+
+    /** Appends framed records as one unit and returns once the fsync policy considers them written. */
+    public void append(List<byte[]> framed) {
+        Append append = new Append(framed);
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log is closed: " + file);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (writer == null) {
+                throw new IllegalStateException("Write-ahead log must be replayed before appending: " + file);
+            }
+            pending.add(append);
+            queued.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            append.done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    public void append(byte[] framed) {
+        append(List.of(framed));
+    }
+
+    /** Position just past the last record written; everything before it is a complete record. */
+    public long position() {
+        return position;
+    }
+
+    public long recordCount() {
+        return records.sum();
+    }
+
+    public long syncCount() {
+        return syncs.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            queued.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        io.lock();
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+            io.unlock();
+        }
+    }
+
+    private void startWriter() {
+        writer = new Thread(this::writeLoop, "receipt-wal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void writeLoop() {
+        lastSync = System.nanoTime();
+        while (true) {
+            List<Append> group;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !closed) {
+                    if (unsynced) {
+                        long wait = intervalNanos - (System.nanoTime() - lastSync);
+                        if (wait <= 0) {
+                            break;
+                        }
+                        queued.awaitNanos(wait);
+                    } else {
+                        queued.await();
+                    }
+                }
+                if (pending.isEmpty() && closed) {
+                    return;
+                }
+                group = pending;
+                pending = new ArrayList<>();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e, List.of());
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            io.lock();
+            try {
+                writeGroup(group);
+            } catch (DiscardedWriteException e) {
+                log.error("Write-ahead log append failed for {}; the partial write was discarded", file, e.getCause());
+                group.forEach(append -> append.done.completeExceptionally(e.getCause()));
+            } catch (Throwable e) {
+                fail(e, group);
+                return;
+            } finally {
+                io.unlock();
+            }
+        }
+    }
+
+    private void writeGroup(List<Append> group) throws IOException {
+        if (policy == FsyncPolicy.WRITE) {
+            for (Append append : group) {
+                write(List.of(append));
+                sync();
+                append.done.complete(null);
+            }
+            return;
+        }
+        write(group);
+        if (policy == FsyncPolicy.BATCH) {
+            sync();
+        } else if (!group.isEmpty()) {
+            unsynced = true;
+        }
+        if (unsynced && System.nanoTime() - lastSync >= intervalNanos) {
+            sync();
+            lastSync = System.nanoTime();
+            unsynced = false;
+        }
+        group.forEach(append -> append.done.complete(null));
+    }
+
+    /** Stops the log: the group, everything queued and every later append fail with the cause. */
+    private void fail(Throwable cause, List<Append> group) {
+        log.error("Write-ahead log {} failed; rejecting appends until it is reopened", file, cause);
+        IllegalStateException failure = new IllegalStateException("Write-ahead log failed: " + file, cause);
+        List<Append> queuedAppends;
+        lock.lock();
+        try {
+            this.failure = failure;
+            queuedAppends = pending;
+            pending = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        group.forEach(append -> append.done.completeExceptionally(failure));
+        queuedAppends.forEach(append -> append.done.completeExceptionally(failure));
+    }
+
+    private IllegalStateException failure() {
+        lock.lock();
+        try {
+            return failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(List<Append> group) throws IOException {
+        int count = 0;
+        for (Append append : group) {
+            count += append.records.size();
+        }
+        ByteBuffer[] buffers = new ByteBuffer[count];
+        int i = 0;
+        for (Append append : group) {
+            for (byte[] record : append.records) {
+                buffers[i++] = ByteBuffer.wrap(record);
+            }
+        }
+        int offset = 0;
+        long written = 0;
+        try {
+            while (offset < buffers.length) {
+                written += channel.write(buffers, offset, buffers.length - offset);
+                while (offset < buffers.length && !buffers[offset].hasRemaining()) {
+                    offset++;
+                }
+            }
+        } catch (IOException e) {
+            // Later records must follow the last complete one, or replay would stop short of them
+            long end = offset(position);
+            channel.truncate(end);
+            channel.position(end);
+            throw new DiscardedWriteException(e);
+        }
+        position += written;
+        records.add(count);
+    }
+
+    private void sync() throws IOException {
+        channel.force(false);
+        syncs.increment();
+    }
+
+    /** Reads the file header, writing one into an empty file; files without one start at 0. */
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        long size = channel.size();
+        if (size >= 4) {
+            readFully(header.limit(4), 0);
+        }
+        if (size < 4 || header.getInt(0) != MAGIC) {
+            if (size == 0) {
+                writeHeader(channel, 0);
+                channel.force(true);
+                headerBytes = FILE_HEADER_BYTES;
+            }
+            return;
+        }
+        if (size < FILE_HEADER_BYTES) {
+            throw new IOException("Truncated header in " + file);
+        }
+        readFully(header.limit(FILE_HEADER_BYTES), 0);
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported version " + header.getInt(4) + " of " + file);
+        }
+        start = header.getLong(8);
+        headerBytes = FILE_HEADER_BYTES;
+    }
+
+    private static void writeHeader(FileChannel channel, long start) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putLong(start).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    /** File offset of a logical position. */
+    private long offset(long position) {
+        return headerBytes + position - start;
+    }
+
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            log.debug("Could not sync the directory of {}", file, e);
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + file);
+            }
+        }
+    }
+
+    /** A write failed, and what it wrote was cut back off the file. */
+    private static final class DiscardedWriteException extends IOException {
+        DiscardedWriteException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    private static final class Append {
+        final List<byte[]> records;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Append(List<byte[]> records) {
+            this.records = records;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.fetch.challenge.receipt_processor_challenge.util;
+
+import java.util.UUID;
+
+/**
+ * Version 4 UUIDs from {@link UUID#randomUUID()}: 122 bits from {@link java.security.SecureRandom},
+ * so IDs cannot be guessed from others, at the cost of a shared generator every thread draws from.
+ */
+public final class RandomIdGenerator implements ReceiptIdGenerator {
+
+    @Override
+    public String next() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Override
+    public String next(int shard) {
+        UUID random = UUID.randomUUID();
+        return new UUID(random.getMostSignificantBits(),
+                ReceiptIdUtil.withShard(random.getLeastSignificantBits(), shard)).toString();
+    }
+}
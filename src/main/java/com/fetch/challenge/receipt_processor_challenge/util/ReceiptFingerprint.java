@@ -0,0 +1,84 @@
+package com.fetch.challenge.receipt_processor_challenge.util;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+
+import java.util.List;
+
+/**
+ * 128-bit hash of a receipt's content: retailer, purchase date and time, total and every item's
+ * description and price, in order. Two receipts with equal fields always get equal fingerprints.
+ * Fields are hashed in place, with a length or presence marker ahead of each one so that values
+ * cannot run into each other. This is not a cryptographic hash.
+ */
+public record ReceiptFingerprint(long high, long low) {
+    private static final long ABSENT = 0x5A17E5A17E5A17E5L;
+
+    public static ReceiptFingerprint of(ReceiptDTO receipt) {
+        Hasher hasher = new Hasher();
+        hasher.string(receipt.getRetailer());
+        hasher.value(receipt.getPurchaseDate() == null ? ABSENT : receipt.getPurchaseDate().toEpochDay());
+        hasher.value(receipt.getPurchaseTime() == null ? ABSENT : receipt.getPurchaseTime().toNanoOfDay());
+        hasher.string(receipt.getTotal());
+        List<ItemDTO> items = receipt.getItems();
+        hasher.value(items == null ? ABSENT : items.size());
+        if (items != null) {
+            for (ItemDTO item : items) {
+                if (item == null) {
+                    hasher.value(ABSENT);
+                    continue;
+                }
+                hasher.string(item.getShortDescription());
+                hasher.value(item.getPrice() == null ? ABSENT : Double.doubleToLongBits(item.getPrice()));
+            }
+        }
+        return hasher.finish();
+    }
+
+    private static final class Hasher {
+        private long h1 = 0x243F6A8885A308D3L;
+        private long h2 = 0x13198A2E03707344L;
+        private long count;
+
+        void string(String value) {
+            if (value == null) {
+                value(ABSENT);
+                return;
+            }
+            int length = value.length();
+            value(length);
+            int i = 0;
+            for (; i + 4 <= length; i += 4) {
+                value((long) value.charAt(i) << 48 | (long) value.charAt(i + 1) << 32
+                        | (long) value.charAt(i + 2) << 16 | value.charAt(i + 3));
+            }
+            long tail = 0;
+            for (; i < length; i++) {
+                tail = tail << 16 | value.charAt(i);
+            }
+            if ((length & 3) != 0) {
+                value(tail);
+            }
+        }
+
+        void value(long value) {
+            count++;
+            h1 = Long.rotateLeft(h1 ^ mix(value), 27) * 0x9E3779B97F4A7C15L + 0x52DCE729L;
+            h2 = Long.rotateLeft(h2 ^ mix(value ^ 0xC2B2AE3D27D4EB4FL), 31) * 0xC4CEB9FE1A85EC53L + 0x38495AB5L;
+        }
+
+        ReceiptFingerprint finish() {
+            long a = mix(h1 ^ count);
+            long b = mix(h2 ^ Long.rotateLeft(count, 32));
+            return new ReceiptFingerprint(a + b, a ^ Long.rotateLeft(b, 17));
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            return h ^ (h >>> 33);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.fetch.challenge.receipt_processor_challenge.util;
+
+/**
+ * Source of new receipt IDs, selected with {@code receipt.id.generator}. Every implementation
+ * returns UUID strings in the {@code 8-4-4-4-12} form the API has always returned.
+ */
+public interface ReceiptIdGenerator {
+    String next();
+
+    /** A new ID whose last 16 bits hold the shard, read back by {@link ReceiptIdUtil#shard(String)}. */
+    String next(int shard);
+}
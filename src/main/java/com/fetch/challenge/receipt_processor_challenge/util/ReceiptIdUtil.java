@@ -0,0 +1,75 @@
+package com.fetch.challenge.receipt_processor_challenge.util;
+
+/**
+ * Parses receipt IDs (UUID strings, {@code 8-4-4-4-12} hex digits) straight into their two
+ * 64-bit halves without going through {@link java.util.UUID}. In a cluster the last four hex
+ * digits of an ID carry its shard.
+ */
+public final class ReceiptIdUtil {
+    public static final int MAX_SHARDS = 1 << 16;
+    private static final int LENGTH = 36;
+
+    private ReceiptIdUtil() {
+    }
+
+    public static boolean isValid(String id) {
+        if (id == null || id.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (hex(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Most significant 64 bits of an ID already checked with {@link #isValid(String)}. */
+    public static long high(String id) {
+        return parse(id, 0, 19);
+    }
+
+    /** Least significant 64 bits of an ID already checked with {@link #isValid(String)}. */
+    public static long low(String id) {
+        return parse(id, 19, LENGTH);
+    }
+
+    /** Shard of an ID already checked with {@link #isValid(String)}: its last 16 bits. */
+    public static int shard(String id) {
+        return (int) parse(id, LENGTH - 4, LENGTH);
+    }
+
+    /** The least significant half of an ID with its last 16 bits replaced by the shard. */
+    public static long withShard(long low, int shard) {
+        return low & ~0xFFFFL | shard;
+    }
+
+    private static long parse(String id, int from, int to) {
+        long bits = 0;
+        for (int i = from; i < to; i++) {
+            char c = id.charAt(i);
+            if (c != '-') {
+                bits = (bits << 4) | hex(c);
+            }
+        }
+        return bits;
+    }
+
+    private static int hex(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,120 @@
+package com.fetch.challenge.receipt_processor_challenge.util;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.exception.InvalidReceiptException;
+import com.fetch.challenge.receipt_processor_challenge.rule.ReceiptFeatures;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The one validation stage for parsed receipts, used by every entry point. It checks the whole
+ * receipt in a single pass over its fields and items, without reflection, and reports errors in
+ * the field-to-message shape of the 400 response of GlobalExceptionHandler. A valid receipt
+ * allocates nothing.
+ *
+ * <p>Beyond required fields, the total must be plain digits with at most two decimals, every
+ * price a non-negative amount in whole cents, and the prices must add up to the total.
+ */
+@Component
+public class ReceiptValidator {
+    private static final String INVALID_RECEIPT = "Invalid receipt format";
+
+    /** Field errors for the receipt, or an empty map when it is valid. */
+    public Map<String, String> validate(ReceiptDTO receipt) {
+        if (receipt == null) {
+            return Map.of("error", "Receipt cannot be null");
+        }
+        Map<String, String> errors = null;
+        if (isBlank(receipt.getRetailer())) {
+            errors = put(errors, "retailer", "Retailer is required");
+        }
+        if (receipt.getPurchaseDate() == null) {
+            errors = put(errors, "purchaseDate", "Purchase date is required");
+        }
+        if (receipt.getPurchaseTime() == null) {
+            errors = put(errors, "purchaseTime", "Purchase time is required");
+        }
+
+        long totalCents = ReceiptFeatures.ABSENT;
+        if (isBlank(receipt.getTotal())) {
+            errors = put(errors, "total", "Total is required");
+        } else {
+            totalCents = ReceiptFeatures.parseCents(receipt.getTotal());
+            if (totalCents == ReceiptFeatures.ABSENT) {
+                errors = put(errors, "total", "Total must be an amount such as 35.35");
+            }
+        }
+
+        List<ItemDTO> items = receipt.getItems();
+        if (items == null) {
+            errors = put(errors, "items", "Items cannot be null");
+        } else if (items.isEmpty()) {
+            errors = put(errors, "items", "Items cannot be empty");
+        } else {
+            long sumCents = 0;
+            for (int i = 0; i < items.size(); i++) {
+                ItemDTO item = items.get(i);
+                if (item == null) {
+                    errors = put(errors, "items[" + i + "]", "Item cannot be null");
+                    continue;
+                }
+                if (isBlank(item.getShortDescription())) {
+                    errors = put(errors, "items[" + i + "].shortDescription", "Short description is required");
+                }
+                long priceCents = priceCents(item.getPrice());
+                if (item.getPrice() == null) {
+                    errors = put(errors, "items[" + i + "].price", "Price is required");
+                } else if (priceCents == ReceiptFeatures.ABSENT) {
+                    errors = put(errors, "items[" + i + "].price", "Price must be an amount such as 2.25");
+                } else {
+                    sumCents += priceCents;
+                }
+            }
+            if (errors == null && sumCents != totalCents) {
+                errors = put(null, "total", "Total must equal the sum of item prices");
+            }
+        }
+
+        if (errors == null) {
+            return Map.of();
+        }
+        errors.put("error", INVALID_RECEIPT);
+        return errors;
+    }
+
+    /** Throws {@link InvalidReceiptException} with the field errors unless the receipt is valid. */
+    public ReceiptDTO requireValid(ReceiptDTO receipt) {
+        Map<String, String> errors = validate(receipt);
+        if (!errors.isEmpty()) {
+            throw new InvalidReceiptException(errors);
+        }
+        return receipt;
+    }
+
+    /** Price in cents, or {@link ReceiptFeatures#ABSENT} unless it is finite, non-negative and in whole cents. */
+    private static long priceCents(Double price) {
+        if (price == null || !(price >= 0) || price > 1e13) {
+            return ReceiptFeatures.ABSENT;
+        }
+        // A parsed decimal and its product with 100 are each off by at most half an ulp
+        double cents = price * 100;
+        long rounded = Math.round(cents);
+        return Math.abs(cents - rounded) <= 2 * Math.ulp(cents) ? rounded : ReceiptFeatures.ABSENT;
+    }
+
+    private static Map<String, String> put(Map<String, String> errors, String field, String message) {
+        if (errors == null) {
+            errors = new HashMap<>();
+        }
+        errors.put(field, message);
+        return errors;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || ReceiptFeatures.trimmedLength(value) == 0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.fetch.challenge.receipt_processor_challenge.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond timestamp, a 12-bit sequence and 62 bits
+ * from {@link ThreadLocalRandom}. IDs sort by creation time, and those from one thread are
+ * strictly increasing.
+ *
+ * <p>Each thread keeps its own last timestamp and sequence, so generating an ID takes no lock and
+ * never waits. The sequence starts at a random value below 2048 every millisecond. When a thread
+ * uses up the sequence within one millisecond, it moves its timestamp one millisecond ahead
+ * rather than waiting for the clock.
+ *
+ * <p>The random bits are not from a secure source, and the timestamp gives away when a receipt
+ * was uploaded, so IDs from this generator can be guessed more easily than random ones.
+ */
+public final class TimeOrderedIdGenerator implements ReceiptIdGenerator {
+    private static final int SEQUENCE_MASK = 0xFFF;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private final LongSupplier clock;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    public TimeOrderedIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    TimeOrderedIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String next() {
+        return new UUID(high(), low()).toString();
+    }
+
+    @Override
+    public String next(int shard) {
+        return new UUID(high(), ReceiptIdUtil.withShard(low(), shard)).toString();
+    }
+
+    private long high() {
+        State current = state.get();
+        long now = clock.getAsLong();
+        if (now > current.millis) {
+            current.millis = now;
+            current.sequence = ThreadLocalRandom.current().nextInt(SEQUENCE_MASK + 1 >> 1);
+        } else if (++current.sequence > SEQUENCE_MASK) {
+            current.millis++;
+            current.sequence = 0;
+        }
+        return current.millis << 16 | VERSION | current.sequence;
+    }
+
+    private static long low() {
+        return ThreadLocalRandom.current().nextLong() & RANDOM_MASK | VARIANT;
+    }
+
+    private static final class State {
+        long millis;
+        int sequence;
+    }
+}
@@ -0,0 +1,94 @@
+package com.fetch.challenge.receipt_processor_challenge.aggregate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyedTotalsTest {
+
+    @Test
+    void get_ExactKey_ShouldReturnExactTotals() {
+        // Arrange
+        KeyedTotals<String> totals = new KeyedTotals<>(10, 1024, 4, 0, ReceiptAggregates::hash);
+
+        // Act
+        totals.add("Target", 28);
+        totals.add("Target", 12);
+        totals.add("Walgreens", 15);
+
+        // Assert
+        assertEquals(new KeyedTotals.Totals<>("Target", 2, 40, true), totals.get("Target"));
+        assertEquals(new KeyedTotals.Totals<>("Walgreens", 1, 15, true), totals.get("Walgreens"));
+        assertEquals(new KeyedTotals.Totals<>("Costco", 0, 0, true), totals.get("Costco"));
+    }
+
+    @Test
+    void get_KeysBeyondExactKeys_ShouldBeBoundedOverestimates() {
+        KeyedTotals<String> totals = new KeyedTotals<>(100, 1024, 4, 0, ReceiptAggregates::hash);
+        for (int i = 0; i < 5_000; i++) {
+            totals.add("retailer-" + i, i % 50);
+        }
+
+        assertEquals(100, totals.exactKeys());
+        assertTrue(totals.get("retailer-99").exact());
+        long excess = 0;
+        for (int i = 100; i < 5_000; i++) {
+            KeyedTotals.Totals<String> estimate = totals.get("retailer-" + i);
+            assertFalse(estimate.exact());
+            assertTrue(estimate.receipts() >= 1);
+            assertTrue(estimate.points() >= i % 50);
+            excess += estimate.receipts() - 1;
+        }
+        // e / width of the 4,900 sketched receipts is about 13 per key; on average far less
+        assertTrue(excess / 4_900.0 < 5, "mean excess " + excess / 4_900.0);
+    }
+
+    @Test
+    void top_ShouldTrackKeysWithMostPoints() {
+        KeyedTotals<String> totals = new KeyedTotals<>(1_000, 4096, 4, 3, ReceiptAggregates::hash);
+        for (int i = 0; i < 2_000; i++) {
+            totals.add("small-" + i, 1);
+        }
+        for (int i = 0; i < 100; i++) {
+            totals.add("Target", 10);
+            totals.add("Walgreens", 7);
+            totals.add("small-1500", 5);
+        }
+
+        List<KeyedTotals.Totals<String>> top = totals.top();
+
+        assertEquals(List.of("Target", "Walgreens", "small-1500"), top.stream().map(KeyedTotals.Totals::key).toList());
+        assertEquals(1_000, top.get(0).points());
+        assertFalse(top.get(2).exact());
+        assertTrue(top.get(2).points() >= 501);
+    }
+
+    @Test
+    void add_FromManyThreads_ShouldCountEveryReceipt() throws Exception {
+        KeyedTotals<String> totals = new KeyedTotals<>(10, 1024, 4, 2, ReceiptAggregates::hash);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    totals.add(i % 2 == 0 ? "Target" : "Walgreens", 3);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(new KeyedTotals.Totals<>("Target", 20_000, 60_000, true), totals.get("Target"));
+        assertEquals(2, totals.top().size());
+    }
+}
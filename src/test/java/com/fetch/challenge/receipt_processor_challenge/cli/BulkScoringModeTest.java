@@ -0,0 +1,64 @@
+package com.fetch.challenge.receipt_processor_challenge.cli;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultBootstrapContext;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.env.SystemEnvironmentPropertySource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkScoringModeTest {
+
+    @Test
+    void inputFromEnvironmentVariable_ShouldSelectBulkScoringWithoutWebServer() {
+        // Arrange
+        StandardEnvironment environment = environment(Map.of("RECEIPT_CLI_INPUT", "receipts.jsonl",
+                "RECEIPT_CLI_OUTPUT", "points.csv"));
+
+        // Act
+        prepare(environment);
+
+        // Assert
+        assertTrue(BulkScoringMode.isEnabled(environment));
+        assertEquals("none", environment.getProperty("spring.main.web-application-type"));
+        assertNull(environment.getProperty("spring.main.banner-mode"));
+        assertNull(environment.getProperty("logging.threshold.console"));
+    }
+
+    @Test
+    void outputToStandardOutput_ShouldTurnOffBannerAndConsoleLogging() {
+        StandardEnvironment environment = environment(Map.of("RECEIPT_CLI_INPUT", "receipts.jsonl",
+                "RECEIPT_CLI_OUTPUT", "-"));
+
+        prepare(environment);
+
+        assertTrue(BulkScoringMode.writesToStandardOutput(environment));
+        assertEquals("off", environment.getProperty("spring.main.banner-mode"));
+        assertEquals("off", environment.getProperty("logging.threshold.console"));
+    }
+
+    @Test
+    void withoutInput_ShouldLeaveTheEnvironmentAlone() {
+        StandardEnvironment environment = environment(Map.of("RECEIPT_CLI_OUTPUT", "-"));
+
+        prepare(environment);
+
+        assertFalse(BulkScoringMode.isEnabled(environment));
+        assertNull(environment.getPropertySources().get(BulkScoringMode.PROPERTY_SOURCE));
+    }
+
+    private static StandardEnvironment environment(Map<String, Object> variables) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SystemEnvironmentPropertySource("test", variables));
+        return environment;
+    }
+
+    private static void prepare(StandardEnvironment environment) {
+        new BulkScoringMode().onApplicationEvent(new ApplicationEnvironmentPreparedEvent(new DefaultBootstrapContext(),
+                new SpringApplication(), new String[0], environment));
+    }
+}
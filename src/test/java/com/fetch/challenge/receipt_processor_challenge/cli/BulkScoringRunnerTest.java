@@ -0,0 +1,94 @@
+package com.fetch.challenge.receipt_processor_challenge.cli;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptCliProperties;
+import com.fetch.challenge.receipt_processor_challenge.rule.RetailerNameRule;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkScoringRunnerTest {
+    private static final String RECEIPT = "{\"retailer\":\"Target\",\"purchaseDate\":\"2022-01-01\","
+            + "\"purchaseTime\":\"13:01\",\"items\":[{\"shortDescription\":\"Mountain Dew 12PK\",\"price\":6.49}],"
+            + "\"total\":\"6.49\"}";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void score_ShouldWriteOneLinePerValidReceiptAcrossChunks() throws Exception {
+        // Arrange
+        StringBuilder jsonl = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            jsonl.append(RECEIPT).append('\n');
+            if (i % 50 == 0) {
+                jsonl.append("{\"retailer\":\"\"}\n").append("not json\r\n").append('\n');
+            }
+        }
+        jsonl.append(RECEIPT);
+        Path input = Files.writeString(tempDir.resolve("receipts.jsonl"), jsonl);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        BulkScoringSummary summary = createRunner().score(input, output);
+
+        // Assert
+        List<String> lines = output.toString(StandardCharsets.US_ASCII).lines().toList();
+        assertEquals(201, lines.size());
+        Set<Long> offsets = new HashSet<>();
+        for (String line : lines) {
+            String[] fields = line.split(",");
+            long offset = Long.parseLong(fields[0]);
+            assertTrue(jsonl.substring((int) offset).startsWith(RECEIPT));
+            assertTrue(offset == 0 || jsonl.charAt((int) offset - 1) == '\n');
+            assertTrue(offsets.add(offset));
+            assertEquals("6", fields[1]);
+        }
+        assertEquals(201, summary.receipts());
+        assertEquals(8, summary.invalid());
+        assertEquals(201 * 6, summary.totalPoints());
+        assertEquals(Files.size(input), summary.bytes());
+    }
+
+    @Test
+    void score_ShouldOnlySummarizeWithoutOutput() throws Exception {
+        Path input = Files.writeString(tempDir.resolve("receipts.jsonl"), RECEIPT + "\n" + RECEIPT + "\n");
+
+        BulkScoringSummary summary = createRunner().score(input, null);
+
+        assertEquals(2, summary.receipts());
+        assertEquals(12, summary.totalPoints());
+        assertTrue(summary.toString().contains("receipts/s"));
+    }
+
+    @Test
+    void chunkSizeOverTwoGigabytes_ShouldBeRejected() {
+        ReceiptCliProperties properties = new ReceiptCliProperties();
+        properties.setChunkSize(DataSize.ofGigabytes(4));
+
+        assertThrows(IllegalStateException.class, () -> new BulkScoringRunner(List.of(new RetailerNameRule()),
+                new ReceiptValidator(), JsonMapper.builder().findAndAddModules().build(), properties));
+    }
+
+    private BulkScoringRunner createRunner() {
+        ReceiptCliProperties properties = new ReceiptCliProperties();
+        properties.setChunkSize(DataSize.ofBytes(1024));
+        properties.setParallelism(2);
+        return new BulkScoringRunner(
+                List.of(new RetailerNameRule()),
+                new ReceiptValidator(),
+                JsonMapper.builder().findAndAddModules().build(),
+                properties);
+    }
+}
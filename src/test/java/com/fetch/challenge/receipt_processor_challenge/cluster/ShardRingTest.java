@@ -0,0 +1,82 @@
+package com.fetch.challenge.receipt_processor_challenge.cluster;
+
+import com.fetch.challenge.receipt_processor_challenge.util.RandomIdGenerator;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdUtil;
+import com.fetch.challenge.receipt_processor_challenge.util.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardRingTest {
+    private static final List<String> THREE = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+
+    @Test
+    void ring_ShouldSpreadShardsEvenly() {
+        // Arrange
+        ShardRing ring = new ShardRing(THREE, "http://a:8080", 4096, 128);
+        int[] owned = new int[3];
+
+        // Act
+        for (int shard = 0; shard < ring.shards(); shard++) {
+            owned[ring.owner(shard)]++;
+        }
+
+        // Assert
+        for (int count : owned) {
+            assertTrue(count > 4096 / 3 * 0.8 && count < 4096 / 3 * 1.2, "owned " + count);
+        }
+    }
+
+    @Test
+    void addingNode_ShouldMoveOnlyShardsToTheNewNode() {
+        // Arrange
+        ShardRing before = new ShardRing(THREE, "http://a:8080", 4096, 128);
+        List<String> four = List.of("http://a:8080", "http://b:8080", "http://c:8080", "http://d:8080");
+        ShardRing after = new ShardRing(four, "http://a:8080", 4096, 128);
+        int moved = 0;
+
+        // Act & Assert
+        for (int shard = 0; shard < 4096; shard++) {
+            if (before.owner(shard) != after.owner(shard)) {
+                assertEquals(3, after.owner(shard));
+                moved++;
+            }
+        }
+        assertTrue(moved > 4096 / 4 * 0.8 && moved < 4096 / 4 * 1.2, "moved " + moved);
+    }
+
+    @Test
+    void ring_ShouldNotDependOnWhichNodeBuildsIt() {
+        ShardRing a = new ShardRing(THREE, "http://a:8080", 256, 16);
+        ShardRing c = new ShardRing(THREE, "http://c:8080", 256, 16);
+
+        for (int shard = 0; shard < 256; shard++) {
+            assertEquals(a.owner(shard), c.owner(shard));
+            assertEquals(a.owner(shard) == 0, a.isLocal(shard));
+            assertEquals(c.owner(shard) == 2, c.isLocal(shard));
+        }
+    }
+
+    @Test
+    void generatedIds_ShouldCarryShard() {
+        String random = new RandomIdGenerator().next(0xBEEF);
+        String timeOrdered = new TimeOrderedIdGenerator().next(0xBEEF);
+
+        for (String id : new String[]{random, timeOrdered}) {
+            assertTrue(ReceiptIdUtil.isValid(id));
+            assertTrue(id.endsWith("beef"));
+            assertEquals(0xBEEF, ReceiptIdUtil.shard(id));
+        }
+        assertEquals('4', random.charAt(14));
+        assertEquals('7', timeOrdered.charAt(14));
+    }
+
+    @Test
+    void ring_InvalidConfiguration_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing(THREE, "http://d:8080", 4096, 128));
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing(THREE, "http://a:8080", 1 << 17, 128));
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing(List.of(), "http://a:8080", 4096, 128));
+    }
+}
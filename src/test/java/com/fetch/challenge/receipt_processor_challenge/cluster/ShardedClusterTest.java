@@ -0,0 +1,248 @@
+package com.fetch.challenge.receipt_processor_challenge.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fetch.challenge.receipt_processor_challenge.ReceiptProcessorChallengeApplication;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.util.RandomIdGenerator;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Three nodes in one JVM, each its own application context on its own port. */
+public class ShardedClusterTest {
+    private static final int NODES = 3;
+    private static final String SECRET = "test-cluster-secret";
+    private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private static final List<RestClient> clients = new ArrayList<>();
+    private static ShardRing ring;
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                ports.add(socket.getLocalPort());
+            }
+        }
+        List<String> nodes = ports.stream().map(port -> "http://localhost:" + port).toList();
+        for (int i = 0; i < NODES; i++) {
+            contexts.add(new SpringApplicationBuilder(ReceiptProcessorChallengeApplication.class).run(
+                    "--server.port=" + ports.get(i),
+                    "--receipt.cluster.enabled=true",
+                    "--receipt.cluster.nodes=" + String.join(",", nodes),
+                    "--receipt.cluster.self=" + nodes.get(i),
+                    "--receipt.cluster.secret=" + SECRET,
+                    "--receipt.dedup.enabled=true"));
+            clients.add(RestClient.create(nodes.get(i)));
+        }
+        ring = contexts.get(0).getBean(ShardRing.class);
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void receipts_ShouldBeStoredOnlyByTheirOwnerAndReadableFromAnyNode() {
+        // Arrange
+        int count = 300;
+        int[] sizesBefore = storeSizes();
+        Map<String, Integer> points = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < count; i++) {
+            String id = clients.get(i % NODES).post()
+                    .uri("/receipts/process")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(receipt("Spread " + i, "9.00"))
+                    .retrieve()
+                    .body(JsonNode.class)
+                    .get("id").asText();
+            points.put(id, ("Spread " + i).replaceAll("[^A-Za-z0-9]", "").length() + 95);
+        }
+
+        // Assert
+        int[] owned = new int[NODES];
+        for (Map.Entry<String, Integer> entry : points.entrySet()) {
+            String id = entry.getKey();
+            assertTrue(ReceiptIdUtil.isValid(id));
+            owned[ring.owner(ReceiptIdUtil.shard(id))]++;
+            for (RestClient client : clients) {
+                JsonNode response = client.get().uri("/receipts/{id}/points", id).retrieve().body(JsonNode.class);
+                assertEquals(entry.getValue(), response.get("points").asInt());
+            }
+        }
+        int[] sizes = storeSizes();
+        for (int node = 0; node < NODES; node++) {
+            int stored = sizes[node] - sizesBefore[node];
+            assertEquals(owned[node], stored);
+            assertTrue(stored > count / NODES / 2 && stored < count / NODES * 3 / 2, "node " + node + " stored " + stored);
+        }
+    }
+
+    @Test
+    void batch_ShouldBeSplitByOwnerAndDeduplicatedAcrossNodes() {
+        // Arrange
+        List<Map<String, Object>> batch = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            batch.add(receipt("Batch " + i, "9.00"));
+        }
+
+        // Act
+        JsonNode results = clients.get(0).post()
+                .uri("/receipts/process/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(batch)
+                .retrieve()
+                .body(JsonNode.class)
+                .get("results");
+        String again = clients.get(2).post()
+                .uri("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(batch.get(7))
+                .retrieve()
+                .body(JsonNode.class)
+                .get("id").asText();
+
+        // Assert
+        boolean[] used = new boolean[NODES];
+        for (int i = 0; i < 30; i++) {
+            String id = results.get(i).get("id").asText();
+            used[ring.owner(ReceiptIdUtil.shard(id))] = true;
+            assertEquals(id, clients.get(1).post()
+                    .uri("/receipts/process")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(batch.get(i))
+                    .retrieve()
+                    .body(JsonNode.class)
+                    .get("id").asText());
+        }
+        assertArrayEquals(new boolean[]{true, true, true}, used);
+        assertEquals(results.get(7).get("id").asText(), again);
+    }
+
+    @Test
+    void aggregates_ShouldBeMarkedPartialOnEveryNode() {
+        for (RestClient client : clients) {
+            JsonNode totals = client.get()
+                    .uri(uri -> uri.path("/receipts/aggregates/retailers").queryParam("name", "Spread 1").build())
+                    .retrieve()
+                    .body(JsonNode.class);
+            assertTrue(totals.get("partial").asBoolean());
+        }
+    }
+
+    @Test
+    void unknownId_ShouldBeNotFoundThroughAnyNode() {
+        for (int shard = 0; shard < 64; shard++) {
+            String id = new RandomIdGenerator().next(shard);
+            for (RestClient client : clients) {
+                HttpClientErrorException e = assertThrows(HttpClientErrorException.class,
+                        () -> client.get().uri("/receipts/{id}/points", id).retrieve().toBodilessEntity());
+                assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+            }
+        }
+    }
+
+    @Test
+    void clusterEndpoints_WithoutSecret_ShouldBeForbidden() {
+        HttpClientErrorException store = assertThrows(HttpClientErrorException.class, () -> clients.get(0).post()
+                .uri("/cluster/receipts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(List.of(receipt("Unsigned", "9.00")))
+                .retrieve()
+                .toBodilessEntity());
+        HttpClientErrorException points = assertThrows(HttpClientErrorException.class, () -> clients.get(0).get()
+                .uri("/cluster/receipts/{id}/points", new RandomIdGenerator().next(0))
+                .header(ClusterClient.SECRET_HEADER, "wrong")
+                .retrieve()
+                .toBodilessEntity());
+
+        assertEquals(HttpStatus.FORBIDDEN, store.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, points.getStatusCode());
+    }
+
+    @Test
+    void forwardedReceipts_ShouldBeValidatedAndStoredOnlyByTheirOwner() {
+        // Arrange
+        Map<String, Object> invalid = new HashMap<>(receipt("Forwarded", "9.00"));
+        invalid.put("total", "1,00");
+        Map<String, Object> elsewhere = null;
+        for (int i = 0; elsewhere == null; i++) {
+            Map<String, Object> candidate = receipt("Elsewhere " + i, "9.00");
+            String id = clients.get(0).post()
+                    .uri("/receipts/process")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(candidate)
+                    .retrieve()
+                    .body(JsonNode.class)
+                    .get("id").asText();
+            if (ring.owner(ReceiptIdUtil.shard(id)) != 0) {
+                elsewhere = candidate;
+            }
+        }
+        int[] sizesBefore = storeSizes();
+
+        // Act
+        HttpClientErrorException invalidResponse = assertThrows(HttpClientErrorException.class,
+                () -> forward(0, invalid));
+        Map<String, Object> misrouted = elsewhere;
+        HttpClientErrorException misroutedResponse = assertThrows(HttpClientErrorException.class,
+                () -> forward(0, misrouted));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, invalidResponse.getStatusCode());
+        assertTrue(invalidResponse.getResponseBodyAsString().contains("Total must be an amount"));
+        assertEquals(HttpStatus.BAD_REQUEST, misroutedResponse.getStatusCode());
+        assertTrue(misroutedResponse.getResponseBodyAsString().contains("owned by http://localhost"));
+        assertArrayEquals(sizesBefore, storeSizes());
+    }
+
+    private static void forward(int node, Map<String, Object> receipt) {
+        clients.get(node).post()
+                .uri("/cluster/receipts")
+                .header(ClusterClient.SECRET_HEADER, SECRET)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(List.of(receipt))
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    private static int[] storeSizes() {
+        int[] sizes = new int[NODES];
+        for (int i = 0; i < NODES; i++) {
+            sizes[i] = contexts.get(i).getBean(ReceiptStore.class).size();
+        }
+        return sizes;
+    }
+
+    private static Map<String, Object> receipt(String retailer, String total) {
+        return Map.of(
+                "retailer", retailer,
+                "purchaseDate", "2022-03-20",
+                "purchaseTime", "14:33",
+                "items", List.of(
+                        Map.of("shortDescription", "Gatorade", "price", "2.25"),
+                        Map.of("shortDescription", "Gatorade", "price", "2.25"),
+                        Map.of("shortDescription", "Gatorade", "price", "2.25"),
+                        Map.of("shortDescription", "Gatorade", "price", "2.25")),
+                "total", total);
+    }
+}
@@ -0,0 +1,33 @@
+package com.fetch.challenge.receipt_processor_challenge.config;
+
+import com.fetch.challenge.receipt_processor_challenge.aggregate.ReceiptAggregates;
+import com.fetch.challenge.receipt_processor_challenge.store.DurableReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StoreConfigurationTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void snapshotsWithoutReceipts_AndAggregatesOn_ShouldStillStart() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(StoreConfiguration.class)
+                .withBean(ReceiptAggregates.class, () -> new ReceiptAggregates(new ReceiptAggregateProperties()))
+                .withPropertyValues(
+                        "receipt.wal.enabled=true",
+                        "receipt.wal.directory=" + tempDir,
+                        "receipt.snapshot.enabled=true")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertInstanceOf(DurableReceiptStore.class, context.getBean(ReceiptStore.class));
+                });
+    }
+}
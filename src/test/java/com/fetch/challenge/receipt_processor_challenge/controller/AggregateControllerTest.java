@@ -0,0 +1,87 @@
+package com.fetch.challenge.receipt_processor_challenge.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AggregateControllerTest {
+    private static final String RECEIPT = """
+            {"retailer":"%s","purchaseDate":"%s","purchaseTime":"13:01",
+             "items":[{"shortDescription":"Mountain Dew 12PK","price":"6.49"}],"total":"6.49"}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testAggregates_ShouldCountSingleAndBatchUploads() throws Exception {
+        // Arrange
+        String retailer = "Store " + UUID.randomUUID();
+        String receipt = String.format(RECEIPT, retailer, "1987-06-05");
+
+        // Act
+        mockMvc.perform(post("/receipts/process").contentType(MediaType.APPLICATION_JSON).content(receipt))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/receipts/process/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + receipt + "," + receipt + "]"))
+                .andExpect(status().isOk());
+
+        // Assert
+        mockMvc.perform(get("/receipts/aggregates/retailers").param("name", retailer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.key").value(retailer))
+                .andExpect(jsonPath("$.receipts").value(3))
+                .andExpect(jsonPath("$.points").value(3 * (retailer.replaceAll("[^A-Za-z0-9]", "").length() + 6)))
+                .andExpect(jsonPath("$.exact").value(true))
+                .andExpect(jsonPath("$.partial").value(false));
+        mockMvc.perform(get("/receipts/aggregates/days/{date}", "1987-06-05"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.key").value("1987-06-05"))
+                .andExpect(jsonPath("$.receipts").value(3));
+    }
+
+    @Test
+    public void testTopRetailers_ShouldRankByPoints() throws Exception {
+        String retailer = "ZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZZ";
+        mockMvc.perform(post("/receipts/process").contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format(RECEIPT, retailer, "2022-01-01")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/receipts/aggregates/retailers/top"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].key").value(retailer));
+    }
+
+    @Test
+    public void testUnknownRetailerAndDay_ShouldBeZero() throws Exception {
+        mockMvc.perform(get("/receipts/aggregates/retailers").param("name", "Nobody " + UUID.randomUUID()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receipts").value(0))
+                .andExpect(jsonPath("$.points").value(0));
+        mockMvc.perform(get("/receipts/aggregates/days/{date}", "1900-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receipts").value(0));
+    }
+
+    @Test
+    public void testInvalidQueries_ShouldBeBadRequest() throws Exception {
+        mockMvc.perform(get("/receipts/aggregates/days/{date}", "2022-13-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details").value("Date must be in yyyy-MM-dd format"));
+        mockMvc.perform(get("/receipts/aggregates/retailers"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details").value("Retailer name is required"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.fetch.challenge.receipt_processor_challenge.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "receipt.async.enabled=true",
+        "receipt.async.points-wait=5s"
+})
+@AutoConfigureMockMvc
+public class AsyncReceiptControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testAsyncReceipt_PointsAvailableAfterScoring() throws Exception {
+        String receiptJson = """
+            {
+                "retailer": "M&M Corner Market",
+                "purchaseDate": "2022-03-20",
+                "purchaseTime": "14:33",
+                "items": [
+                    {"shortDescription": "Gatorade", "price": "2.25"},
+                    {"shortDescription": "Gatorade", "price": "2.25"},
+                    {"shortDescription": "Gatorade", "price": "2.25"},
+                    {"shortDescription": "Gatorade", "price": "2.25"}
+                ],
+                "total": "9.00"
+            }
+            """;
+
+        String response = mockMvc.perform(post("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(receiptJson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String receiptId = objectMapper.readTree(response).get("id").asText();
+        mockMvc.perform(get("/receipts/{id}/points", receiptId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points").value(109));
+    }
+}
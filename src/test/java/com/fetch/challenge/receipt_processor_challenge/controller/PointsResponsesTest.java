@@ -0,0 +1,80 @@
+package com.fetch.challenge.receipt_processor_challenge.controller;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PointsResponsesTest {
+    private final PointsResponses responses = new PointsResponses(new ReceiptStoreProperties());
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"28\"", "W/\"28\"", "*", "\"1\", \"28\"", "\"1\",W/\"28\"", " \"28\" ", "\"a,b\", \"28\""})
+    void matches_ListedTag_ReturnsTrue(String ifNoneMatch) {
+        assertTrue(PointsResponses.matches(ifNoneMatch, "\"28\""), ifNoneMatch);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "\"2\"", "\"280\"", "28", "W/", "\"28", "W/\"2\", \"8\"", "\"a,\"28\"\""})
+    void matches_OtherTags_ReturnsFalse(String ifNoneMatch) {
+        assertFalse(PointsResponses.matches(ifNoneMatch, "\"28\""), ifNoneMatch);
+    }
+
+    @Test
+    void write_ShouldWriteEncodedBodyWithCacheHeaders() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        responses.write(response, 28, null);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"points\":28}", response.getContentAsString());
+        assertEquals(13, response.getContentLength());
+        assertEquals("\"28\"", response.getHeader("ETag"));
+        assertEquals("public, max-age=31536000, immutable", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void write_MatchingTag_ShouldBeNotModifiedWithoutBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        responses.write(response, 5000, "\"5000\"");
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals("\"5000\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    void entity_ShouldMatchServletResponse() {
+        ResponseEntity<byte[]> ok = responses.entity(-3, "\"3\"");
+        ResponseEntity<byte[]> notModified = responses.entity(-3, "\"-3\"");
+
+        assertEquals(HttpStatus.OK, ok.getStatusCode());
+        assertEquals("{\"points\":-3}", new String(ok.getBody(), StandardCharsets.US_ASCII));
+        assertEquals("\"-3\"", ok.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+    }
+
+    @Test
+    void cacheControl_WithPointsTtl_ShouldNotOutliveTheReceipt() throws Exception {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setPointsTtl(Duration.ofHours(1));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new PointsResponses(properties).write(response, 1, null);
+
+        assertEquals("public, max-age=3600, immutable", response.getHeader("Cache-Control"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.fetch.challenge.receipt_processor_challenge.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Runs the ReceiptControllerTest scenarios against the WebFlux stack.
+ */
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+public class ReactiveReceiptControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', textBlock = """
+        Target receipt | 28 | {"retailer":"Target","purchaseDate":"2022-01-01","purchaseTime":"13:01","items":[{"shortDescription":"Mountain Dew 12PK","price":"6.49"},{"shortDescription":"Emils Cheese Pizza","price":"12.25"},{"shortDescription":"Knorr Creamy Chicken","price":"1.26"},{"shortDescription":"Doritos Nacho Cheese","price":"3.35"},{"shortDescription":"   Klarbrunn 12-PK 12 FL OZ  ","price":"12.00"}],"total":"35.35"}
+        Afternoon time range | 109 | {"retailer":"M&M Corner Market","purchaseDate":"2022-03-20","purchaseTime":"14:33","items":[{"shortDescription":"Gatorade","price":"2.25"},{"shortDescription":"Gatorade","price":"2.25"},{"shortDescription":"Gatorade","price":"2.25"},{"shortDescription":"Gatorade","price":"2.25"}],"total":"9.00"}
+        Odd day and description length | 20 | {"retailer":"Walgreens","purchaseDate":"2022-01-15","purchaseTime":"09:20","items":[{"shortDescription":"Milk 1 Gallon","price":"3.99"},{"shortDescription":"Exactly Twenty Chars","price":"9.99"}],"total":"13.98"}
+        Round dollar amount | 97 | {"retailer":"Walmart","purchaseDate":"2022-01-02","purchaseTime":"13:37","items":[{"shortDescription":"Item 1","price":"35.00"},{"shortDescription":"Item 2","price":"15.00"}],"total":"50.00"}
+        Multiple quarter multiples | 84 | {"retailer":"7-11","purchaseDate":"2022-01-02","purchaseTime":"13:37","items":[{"shortDescription":"Coffee","price":"1.25"},{"shortDescription":"Donut","price":"0.75"}],"total":"2.00"}
+        Single item with max points | 51 | {"retailer":"Super Store 123456789","purchaseDate":"2022-03-15","purchaseTime":"14:00","items":[{"shortDescription":"Exactly Twenty Chars!","price":"0.75"}],"total":"0.75"}
+        Minimal points | 1 | {"retailer":"X","purchaseDate":"2022-02-02","purchaseTime":"12:00","items":[{"shortDescription":"A","price":"0.01"}],"total":"0.01"}
+        """)
+    public void testReceiptPoints(String scenario, int expectedPoints, String receiptJson) throws Exception {
+        String response = webTestClient.post().uri("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(receiptJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        String receiptId = objectMapper.readTree(response).get("id").asText();
+        webTestClient.get().uri("/receipts/{id}/points", receiptId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.points").isEqualTo(expectedPoints);
+    }
+
+    @Test
+    public void testEdgeCase_EmptyReceipt() {
+        webTestClient.post().uri("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                    {"retailer": "", "purchaseDate": null, "purchaseTime": null, "items": null, "total": null}
+                    """)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid receipt format")
+                .jsonPath("$.retailer").isEqualTo("Retailer is required");
+    }
+
+    @Test
+    public void testInvalidReceipt_MissingRequiredFields() {
+        webTestClient.post().uri("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                    {"retailer": "", "items": []}
+                    """)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid receipt format");
+    }
+
+    @Test
+    public void testBatch_MixedValidAndInvalidReceipts() {
+        webTestClient.post().uri("/receipts/process/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                    [
+                      {"retailer":"Walmart","purchaseDate":"2022-01-02","purchaseTime":"13:37","items":[{"shortDescription":"Item 1","price":"35.00"}],"total":"35.00"},
+                      {"retailer":"","items":[]}
+                    ]
+                    """)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results.length()").isEqualTo(2)
+                .jsonPath("$.results[0].id").exists()
+                .jsonPath("$.results[1].id").doesNotExist()
+                .jsonPath("$.results[1].errors.retailer").isEqualTo("Retailer is required");
+    }
+
+    @Test
+    public void testBatch_EmptyBatch() {
+        webTestClient.post().uri("/receipts/process/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[]")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid Request");
+    }
+
+    @Test
+    public void testGetPoints_UnknownId() {
+        webTestClient.get().uri("/receipts/{id}/points", "6f1f3c2e-9b7a-4d1e-8c4f-2a5b6c7d8e9f")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Resource Not Found");
+    }
+
+    @Test
+    public void testGetPoints_ShouldBeCacheableAndHonorIfNoneMatch() throws Exception {
+        String response = webTestClient.post().uri("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                    {"retailer":"Target","purchaseDate":"2022-01-01","purchaseTime":"13:01",
+                     "items":[{"shortDescription":"Mountain Dew 12PK","price":"6.49"}],"total":"6.49"}
+                    """)
+                .exchange()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+        String receiptId = objectMapper.readTree(response).get("id").asText();
+
+        webTestClient.get().uri("/receipts/{id}/points", receiptId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"12\"")
+                .expectHeader().valueEquals("Cache-Control", "public, max-age=31536000, immutable")
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).isEqualTo("{\"points\":12}");
+        webTestClient.get().uri("/receipts/{id}/points", receiptId)
+                .header("If-None-Match", "\"12\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "\"12\"")
+                .expectBody().isEmpty();
+    }
+}
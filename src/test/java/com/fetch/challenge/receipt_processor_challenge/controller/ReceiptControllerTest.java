@@ -7,6 +7,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -367,4 +368,189 @@ public class ReceiptControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(containsString("error")));
     }
+
+    @Test
+    public void testInvalidReceipt_MalformedTotal() throws Exception {
+        String receiptJson = """
+            {
+              "retailer": "Target",
+              "purchaseDate": "2022-01-01",
+              "purchaseTime": "13:01",
+              "items": [{"shortDescription": "Pepsi - 12-oz", "price": "1.25"}],
+              "total": "1,25"
+            }
+            """;
+
+        mockMvc.perform(post("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(receiptJson))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid receipt format"))
+                .andExpect(jsonPath("$.total").value("Total must be an amount such as 35.35"));
+    }
+
+    @Test
+    public void testBatch_MixedValidAndInvalidReceipts() throws Exception {
+        String batchJson = """
+            [
+              {
+                "retailer": "Walmart",
+                "purchaseDate": "2022-01-02",
+                "purchaseTime": "13:37",
+                "items": [
+                  { "shortDescription": "Item 1", "price": "35.00" },
+                  { "shortDescription": "Item 2", "price": "15.00" }
+                ],
+                "total": "50.00"
+              },
+              {
+                "retailer": "",
+                "items": []
+              },
+              {
+                "retailer": "7-11",
+                "purchaseDate": "2022-01-02",
+                "purchaseTime": "13:37",
+                "items": [
+                  { "shortDescription": "Coffee", "price": "1.25" },
+                  { "shortDescription": "Donut", "price": "0.75" }
+                ],
+                "total": "2.00"
+              }
+            ]
+            """;
+
+        String response = mockMvc.perform(post("/receipts/process/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batchJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(3))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].id").doesNotExist())
+                .andExpect(jsonPath("$.results[1].errors.error").value("Invalid receipt format"))
+                .andExpect(jsonPath("$.results[1].errors.retailer").value("Retailer is required"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String firstId = objectMapper.readTree(response).at("/results/0/id").asText();
+        String thirdId = objectMapper.readTree(response).at("/results/2/id").asText();
+
+        mockMvc.perform(get("/receipts/{id}/points", firstId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points").value("97"));
+        mockMvc.perform(get("/receipts/{id}/points", thirdId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points").value("84"));
+    }
+
+    @Test
+    public void testBatch_EmptyBatch() throws Exception {
+        mockMvc.perform(post("/receipts/process/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid Request"));
+    }
+
+    @Test
+    public void testNdjsonStream_OneResultLinePerInputLine() throws Exception {
+        String ndjson = """
+            {"retailer":"Walmart","purchaseDate":"2022-01-02","purchaseTime":"13:37","items":[{"shortDescription":"Item 1","price":"35.00"},{"shortDescription":"Item 2","price":"15.00"}],"total":"50.00"}
+            {"retailer":"7-11","purchaseDate":
+
+            {"retailer":"","items":[]}
+            {"retailer":"X","purchaseDate":"2022-02-02","purchaseTime":"12:00","items":[{"shortDescription":"A","price":"0.01"}],"total":"0.01"}
+            """;
+
+        String response = mockMvc.perform(post("/receipts/process")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = response.split("\n");
+        assertEquals(4, lines.length);
+        assertEquals(0, objectMapper.readTree(lines[0]).get("index").asInt());
+        assertEquals(1, objectMapper.readTree(lines[1]).get("index").asInt());
+        assertEquals("Invalid receipt format", objectMapper.readTree(lines[1]).at("/errors/error").asText());
+        assertEquals("Retailer is required", objectMapper.readTree(lines[2]).at("/errors/retailer").asText());
+        assertEquals(4, objectMapper.readTree(lines[3]).get("index").asInt());
+
+        mockMvc.perform(get("/receipts/{id}/points", objectMapper.readTree(lines[0]).get("id").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points").value("97"));
+        mockMvc.perform(get("/receipts/{id}/points", objectMapper.readTree(lines[3]).get("id").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points").value("1"));
+    }
+
+    @Test
+    public void testNdjsonStream_TrailingValueOnALine_ShouldRejectThatLine() throws Exception {
+        String ndjson = """
+            {"retailer":"X","purchaseDate":"2022-02-02","purchaseTime":"12:00","items":[{"shortDescription":"A","price":"0.01"}],"total":"0.01"} {"retailer":"Y"}
+            {"retailer":"X","purchaseDate":"2022-02-02","purchaseTime":"12:00","items":[{"shortDescription":"A","price":"0.01"}],"total":"0.01"}
+            """;
+
+        String response = mockMvc.perform(post("/receipts/process")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = response.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Invalid receipt format", objectMapper.readTree(lines[0]).at("/errors/error").asText());
+        assertEquals(0, objectMapper.readTree(lines[0]).get("index").asInt());
+        assertEquals(1, objectMapper.readTree(lines[1]).get("index").asInt());
+        assertEquals(36, objectMapper.readTree(lines[1]).get("id").asText().length());
+    }
+
+    @Test
+    public void testGetPoints_UnknownId() throws Exception {
+        mockMvc.perform(get("/receipts/{id}/points", "6f1f3c2e-9b7a-4d1e-8c4f-2a5b6c7d8e9f"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Resource Not Found"))
+                .andExpect(jsonPath("$.details").value("Receipt not found with id: 6f1f3c2e-9b7a-4d1e-8c4f-2a5b6c7d8e9f"));
+    }
+
+    @Test
+    public void testGetPoints_NilUuid_ShouldBeNotFound() throws Exception {
+        mockMvc.perform(get("/receipts/{id}/points", "00000000-0000-0000-0000-000000000000"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testGetPoints_ShouldBeCacheableAndHonorIfNoneMatch() throws Exception {
+        String receiptJson = """
+            {"retailer":"Target","purchaseDate":"2022-01-01","purchaseTime":"13:01",
+             "items":[{"shortDescription":"Mountain Dew 12PK","price":"6.49"}],"total":"6.49"}
+            """;
+        String response = mockMvc.perform(post("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(receiptJson))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String receiptId = objectMapper.readTree(response).get("id").asText();
+
+        mockMvc.perform(get("/receipts/{id}/points", receiptId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"12\""))
+                .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("{\"points\":12}"));
+        mockMvc.perform(get("/receipts/{id}/points", receiptId).header("If-None-Match", "W/\"9\", \"12\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"12\""))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/receipts/{id}/points", receiptId).header("If-None-Match", "\"13\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points").value(12));
+    }
 }
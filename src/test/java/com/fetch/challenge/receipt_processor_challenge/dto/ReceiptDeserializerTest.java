@@ -0,0 +1,139 @@
+package com.fetch.challenge.receipt_processor_challenge.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReceiptDeserializerTest {
+    private static final String RECEIPT = """
+            {"retailer": %s, "purchaseDate": %s, "purchaseTime": %s,
+             "items": [{"shortDescription": %s, "price": %s}], "total": %s}""";
+
+    private final ObjectMapper jackson = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper handWritten = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new ReceiptJsonModule())
+            .build();
+
+    @Test
+    void deserialize_ShouldParseReceipt() throws Exception {
+        // Arrange
+        String json = """
+                {"retailer": "M&M Corner Market", "purchaseDate": "2022-03-20", "purchaseTime": "14:33",
+                 "items": [{"shortDescription": "Gatorade", "price": "2.25"}, {"shortDescription": "Pizza", "price": 12}],
+                 "total": "14.25"}""";
+
+        // Act
+        ReceiptDTO receipt = handWritten.readValue(json, ReceiptDTO.class);
+
+        // Assert
+        assertEquals("M&M Corner Market", receipt.getRetailer());
+        assertEquals(LocalDate.of(2022, 3, 20), receipt.getPurchaseDate());
+        assertEquals(LocalTime.of(14, 33), receipt.getPurchaseTime());
+        assertEquals(2.25, receipt.getItems().get(0).getPrice());
+        assertEquals(12.0, receipt.getItems().get(1).getPrice());
+        assertEquals("14.25", receipt.getTotal());
+        assertEquals(jackson.readValue(json, ReceiptDTO.class), receipt);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"2022-01-01\"", "\"2024-02-29\"", "\"2023-02-29\"", "\"2022-04-31\"", "\"2022-13-01\"",
+            "\"2022-00-10\"", "\"2022-01-32\"", "\"0000-01-01\"", "\"22-01-01\"", "\"2022/01/01\"", "\" 2022-01-01\"",
+            "\"\"", "null", "20220101", "[2022, 1, 1]", "true", "{}", "\"2022-01-0x\""})
+    void purchaseDate_ShouldMatchJackson(String date) {
+        assertSameOutcome(String.format(RECEIPT, "\"T\"", date, "\"13:01\"", "\"A\"", "\"1.00\"", "\"1.00\""));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"00:00\"", "\"23:59\"", "\"24:00\"", "\"12:60\"", "\"9:30\"", "\"09:30:15\"",
+            "\"09-30\"", "\"\"", "null", "930", "[9, 30]", "\"ab:cd\""})
+    void purchaseTime_ShouldMatchJackson(String time) {
+        assertSameOutcome(String.format(RECEIPT, "\"T\"", "\"2022-01-01\"", time, "\"A\"", "\"1.00\"", "\"1.00\""));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"2.25\"", "\"0.1\"", "\"-0.00\"", "\"1.\"", "\".5\"", "\"1e3\"", "\" 2.25\"",
+            "\"123456789012345.6\"", "\"0.30000000000000004\"", "\"abc\"", "\"\"", "\"-\"", "\"+1\"", "\"NaN\"",
+            "2.25", "-7", "1e400", "null", "true", "[1]", "{}"})
+    void price_ShouldMatchJackson(String price) {
+        assertSameOutcome(String.format(RECEIPT, "\"T\"", "\"2022-01-01\"", "\"13:01\"", "\"A\"", price, "\"1.00\""));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"retailer\": 12, \"total\": 9.00}",
+            "{\"retailer\": null, \"total\": false, \"shortDescription\": 1}",
+            "{\"retailer\": {}, \"total\": \"1\"}",
+            "{\"total\": [\"1\"]}",
+            "{\"items\": null}",
+            "{\"items\": \"\"}",
+            "{\"items\": {\"price\": \"1\"}}",
+            "{\"items\": [null, 1, \"x\", {\"price\": \"1\", \"extra\": [1, {\"a\": 2}]}, {\"shortDescription\": 5}]}",
+            "{\"unknown\": {\"nested\": [1, 2]}, \"retailer\": \"A\", \"retailer\": \"B\"}",
+            "[]", "null", "\"receipt\"", "{\"retailer\": \"A\"", "{\"retailer\": \"\\u0041\\n\"}"})
+    void otherShapes_ShouldMatchJackson(String json) {
+        assertSameOutcome(json);
+    }
+
+    @Test
+    void unknownProperty_WhenFailing_ShouldMatchJacksonMessage() {
+        ObjectMapper strictJackson = jackson.copy().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        ObjectMapper strictHandWritten = handWritten.copy().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        String json = "{\"retailer\": \"A\", \"store\": 1, \"items\": [{\"sku\": 2}]}";
+
+        JsonProcessingException expected = assertThrows(JsonProcessingException.class,
+                () -> strictJackson.readValue(json, ReceiptDTO.class));
+        JsonProcessingException actual = assertThrows(JsonProcessingException.class,
+                () -> strictHandWritten.readValue(json, ReceiptDTO.class));
+        assertEquals(expected.getOriginalMessage(), actual.getOriginalMessage());
+    }
+
+    @Test
+    void randomPrices_ShouldEqualDoubleParsing() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder items = new StringBuilder("[");
+        for (int i = 0; i < 10_000; i++) {
+            String price = random.nextLong(1_000_000_000_000L) + "." + random.nextInt(1000);
+            items.append(i == 0 ? "" : ",").append("{\"price\": \"").append(price).append("\"}");
+        }
+        String json = "{\"items\": " + items.append("]}");
+
+        assertEquals(jackson.readValue(json, ReceiptDTO.class), handWritten.readValue(json, ReceiptDTO.class));
+    }
+
+    @Test
+    void batch_ShouldUseHandWrittenDeserializerForEachReceipt() throws Exception {
+        String json = "[{\"purchaseDate\": \"2022-01-01\"}, null, {\"purchaseDate\": \"2022-02-30\"}]";
+
+        List<ReceiptDTO> receipts = handWritten.readValue(json, new TypeReference<>() { });
+
+        assertEquals(jackson.readValue(json, new TypeReference<List<ReceiptDTO>>() { }), receipts);
+        assertEquals(LocalDate.of(2022, 2, 28), receipts.get(2).getPurchaseDate());
+    }
+
+    private void assertSameOutcome(String json) {
+        ReceiptDTO expected;
+        try {
+            expected = jackson.readValue(json, ReceiptDTO.class);
+        } catch (JsonProcessingException e) {
+            JsonProcessingException actual = assertThrows(JsonProcessingException.class,
+                    () -> handWritten.readValue(json, ReceiptDTO.class), json);
+            assertEquals(e.getClass(), actual.getClass(), json);
+            assertEquals(e.getOriginalMessage(), actual.getOriginalMessage(), json);
+            return;
+        }
+        ReceiptDTO actual = assertDoesNotThrow(() -> handWritten.readValue(json, ReceiptDTO.class), json);
+        assertEquals(expected, actual, json);
+    }
+}
@@ -0,0 +1,128 @@
+package com.fetch.challenge.receipt_processor_challenge.rule;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledRuleTest {
+    private static final Map<String, String> BUILT_IN = Map.of(
+            "retailer-name", "retailerAlphanumerics",
+            "round-dollar", "total % 100 == 0 ? 50 : 0",
+            "quarter-multiple", "total % 25 == 0 ? 25 : 0",
+            "item-count", "items / 2 * 5",
+            "item-description", "sum(descriptionLength % 3 == 0 ? ceilDiv(price, 500) : 0)",
+            "odd-day", "day % 2 == 1 ? 6 : 0",
+            "time-range", "time > 14:00 && time < 16:00 ? 10 : 0");
+
+    @ParameterizedTest
+    @CsvSource({
+            "Target, 100.00, 2022-01-01, 14:00:00",
+            "M&M Corner Market, 35.35, 2022-03-20, 14:00:01",
+            "Walgreens, 9.75, 2022-03-21, 15:59:59",
+            "'  ', 9.5, 2022-12-31, 16:00",
+            "Trader Joe's 2, 0.00, 2022-02-28, 00:00"
+    })
+    void compiledRules_ShouldMatchBuiltInRules(String retailer, String total, String date, String time) {
+        // Arrange
+        ReceiptDTO receipt = createReceipt(retailer, total, LocalDate.parse(date), LocalTime.parse(time));
+        List<PointRule> builtIn = List.of(new RetailerNameRule(), new RoundDollarRule(), new QuarterMultipleRule(),
+                new ItemCountRule(), new ItemDescriptionRule(), new OddDayRule(), new TimeRangeRule());
+        List<PointRule> compiled = new ArrayList<>();
+        BUILT_IN.forEach((name, expression) -> compiled.add(RuleExpressionCompiler.compile(name, expression)));
+
+        // Act
+        int expected = new ScoringEngine(builtIn).score(receipt);
+        int actual = new ScoringEngine(compiled).score(receipt);
+
+        // Assert
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void compile_ShouldFollowPrecedenceAndShortCircuit() {
+        ReceiptDTO receipt = createReceipt("Target", "12.00", LocalDate.of(2022, 1, 7), LocalTime.of(9, 30));
+
+        assertEquals(14, points("2 + 3 * 4", receipt));
+        assertEquals(20, points("(2 + 3) * 4", receipt));
+        assertEquals(-1, points("-(7 % 3)", receipt));
+        assertEquals(1, points("(1 < 2) == 1", receipt));
+        assertEquals(3, points("0 ? 1 : items > 3 ? 3 : 4", receipt));
+        assertEquals(1, points("!0 && 5", receipt));
+        assertEquals(0, points("items == 0 && items / 0", receipt));
+        assertEquals(1, points("day == 7 || 1 / 0", receipt));
+        assertEquals(1, points("1 ? 1:0", receipt));
+        assertEquals(1, points("time >= 09:30 && time < 09:30:01", receipt));
+        assertEquals(4, points("min(items, 10) - max(0, -5) + ceilDiv(1, 3) - 1", receipt));
+    }
+
+    @Test
+    void compile_ShouldSumOverItemsAndTreatDivisionByZeroAsZero() {
+        ReceiptDTO receipt = createReceipt("Target", "12.00", LocalDate.of(2022, 1, 7), LocalTime.of(9, 30));
+
+        assertEquals(4, points("sum(1)", receipt));
+        assertEquals(1225 + 1325 + 1425 + 1525, points("sum(price)", receipt));
+        assertEquals(0, points("total / 0 + total % 0", receipt));
+        assertEquals(0, points("sum(1)", new ReceiptDTO()));
+    }
+
+    @Test
+    void compile_InvalidExpression_ReportsPosition() {
+        assertError("Invalid rule expression at position 8: unknown field 'totl'", "total + totl");
+        assertError("Invalid rule expression at position 0: item field 'price' is only available inside sum(...)", "price");
+        assertError("Invalid rule expression at position 4: unknown function 'avg'", "1 + avg(total)");
+        assertError("Invalid rule expression at position 6: expected ':'", "1 ? 2 ");
+        assertError("Invalid rule expression at position 2: unexpected ')'", "1 ) 2");
+        assertError("Invalid rule expression at position 4: sum(...) cannot be nested", "sum(sum(1))");
+        assertError("Invalid rule expression at position 0: time must be HH:mm or HH:mm:ss", "25:00");
+        assertError("Invalid rule expression at position 3: unexpected end of expression", "1 +");
+    }
+
+    @Test
+    void compiledRule_ShouldExposeNameAndBeTimedUnderIt() {
+        CompiledRule rule = RuleExpressionCompiler.compile("bonus", "items * 2");
+
+        assertEquals("bonus", rule.name());
+        assertEquals("items * 2", rule.expression());
+        assertEquals(8, rule.calculatePoints(createReceipt("Target", "1.00", LocalDate.of(2022, 1, 1), LocalTime.NOON)));
+        assertNotSame(rule.getClass(), RuleExpressionCompiler.compile("other", "1").getClass());
+    }
+
+    private static long points(String expression, ReceiptDTO receipt) {
+        return RuleExpressionCompiler.compile("test", expression).calculatePoints(receipt);
+    }
+
+    private static void assertError(String message, String expression) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> RuleExpressionCompiler.compile("test", expression));
+        assertEquals(message + " in \"" + expression + "\"", exception.getMessage());
+    }
+
+    private static ReceiptDTO createReceipt(String retailer, String total, LocalDate date, LocalTime time) {
+        List<ItemDTO> items = new ArrayList<>();
+        String[] descriptions = {"Mountain Dew 12PK", "Emils Cheese Pizza", "   Klarbrunn 12-PK 12 FL OZ  ", "ABC"};
+        for (int i = 0; i < descriptions.length; i++) {
+            ItemDTO item = new ItemDTO();
+            item.setShortDescription(descriptions[i]);
+            item.setPrice(12.25 + i);
+            items.add(item);
+        }
+
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer(retailer);
+        receipt.setPurchaseDate(date);
+        receipt.setPurchaseTime(time);
+        receipt.setItems(items);
+        receipt.setTotal(total);
+        return receipt;
+    }
+}
@@ -4,6 +4,7 @@ import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
 import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -30,4 +31,29 @@ public class ItemDescriptionRuleTest {
         // Assert
         assertEquals(3, points); // ceil(10.00 * 0.2) + ceil(5.00 * 0.2)
     }
+
+    @Test
+    void calculatePoints_SurroundingWhitespace_IsIgnored() {
+        // Arrange
+        ReceiptDTO receipt = new ReceiptDTO();
+        ItemDTO item = new ItemDTO();
+        item.setShortDescription("   Klarbrunn 12-PK 12 FL OZ  "); // trimmed length 24
+        item.setPrice(12.00);
+
+        ItemDTO blank = new ItemDTO();
+        blank.setShortDescription("\t ");
+        blank.setPrice(1.00);
+
+        List<ItemDTO> items = new ArrayList<>();
+        items.add(item);
+        items.add(blank);
+        items.add(null);
+        receipt.setItems(items);
+
+        // Act
+        int points = rule.calculatePoints(receipt);
+
+        // Assert
+        assertEquals(4, points); // ceil(12.00 * 0.2) + ceil(1.00 * 0.2)
+    }
 }
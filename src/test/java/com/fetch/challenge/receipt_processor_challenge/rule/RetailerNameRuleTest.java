@@ -20,4 +20,18 @@ public class RetailerNameRuleTest {
         // Assert
         assertEquals(9, points); // "Target123" has 8 alphanumeric characters
     }
+
+    @Test
+    void calculatePoints_PunctuationAndNonAsciiLetters_AreNotCounted() {
+        // Arrange
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer("M&M Café 7-Eleven \uD83D\uDED2");
+
+        // Act
+        int points = rule.calculatePoints(receipt);
+
+        // Assert
+        assertEquals(receipt.getRetailer().replaceAll("[^A-Za-z0-9]", "").length(), points);
+        assertEquals(12, points);
+    }
 }
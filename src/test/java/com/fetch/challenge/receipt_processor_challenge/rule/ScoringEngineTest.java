@@ -0,0 +1,116 @@
+package com.fetch.challenge.receipt_processor_challenge.rule;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoringEngineTest {
+    private final List<FeatureRule> featureRules = List.of(
+            new RoundDollarRule(),
+            new QuarterMultipleRule(),
+            new ItemCountRule(),
+            new ItemDescriptionRule(),
+            new OddDayRule(),
+            new TimeRangeRule());
+
+    @ParameterizedTest
+    @CsvSource({
+            "100.00, 14:00:00",
+            "35.35, 14:00:01",
+            "9.75, 15:59:59",
+            "9.5, 16:00",
+            "12, 13:01",
+            "1e2, 14:33",
+            "0.00, 00:00",
+            "-3.25, 23:59"
+    })
+    void featureRules_ShouldMatchReceiptBasedScoring(String total, String time) {
+        // Arrange
+        ReceiptDTO receipt = createReceipt(total, LocalTime.parse(time));
+        ReceiptFeatures features = new ReceiptFeatures(receipt);
+
+        // Act & Assert
+        for (FeatureRule rule : featureRules) {
+            assertEquals(rule.calculatePoints(receipt), rule.calculatePoints(features),
+                    rule.getClass().getSimpleName() + " for total " + total + " at " + time);
+        }
+    }
+
+    @Test
+    void score_ShouldSumFeatureAndPlainRules() {
+        // Arrange
+        List<PointRule> rules = new ArrayList<>(featureRules);
+        rules.add(new RetailerNameRule());
+        rules.add(receipt -> 7);
+        ReceiptDTO receipt = createReceipt("35.35", LocalTime.of(14, 33));
+
+        int expected = 0;
+        for (PointRule rule : rules) {
+            expected += rule.calculatePoints(receipt);
+        }
+
+        // Act
+        int points = new ScoringEngine(rules).score(receipt);
+
+        // Assert
+        assertEquals(expected, points);
+    }
+
+    @Test
+    void features_ShouldTreatMissingFieldsAsAbsent() {
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setTotal("abc");
+
+        ReceiptFeatures features = new ReceiptFeatures(receipt);
+
+        assertEquals(ReceiptFeatures.ABSENT, features.totalCents());
+        assertEquals(ReceiptFeatures.ABSENT, features.itemCount());
+        assertEquals(ReceiptFeatures.ABSENT, features.dayOfMonth());
+        assertEquals(ReceiptFeatures.ABSENT, features.minuteOfDay());
+        assertEquals(0, new ScoringEngine(List.of(new ItemCountRule(), new OddDayRule())).score(receipt));
+    }
+
+    @Test
+    void features_ShouldParseTotalsAndTrimDescriptions() {
+        assertEquals(3535, ReceiptFeatures.parseCents("35.35"));
+        assertEquals(950, ReceiptFeatures.parseCents("9.5"));
+        assertEquals(1200, ReceiptFeatures.parseCents("12"));
+        assertEquals(ReceiptFeatures.ABSENT, ReceiptFeatures.parseCents("12."));
+        assertEquals(ReceiptFeatures.ABSENT, ReceiptFeatures.parseCents(".50"));
+        assertEquals(ReceiptFeatures.ABSENT, ReceiptFeatures.parseCents("1.005"));
+        assertEquals(ReceiptFeatures.ABSENT, ReceiptFeatures.parseCents("-1.00"));
+
+        assertEquals(0, ReceiptFeatures.trimmedLength(" \t "));
+        assertEquals("Klarbrunn 12-PK 12 FL OZ".length(),
+                ReceiptFeatures.trimmedLength("   Klarbrunn 12-PK 12 FL OZ  "));
+    }
+
+    private ReceiptDTO createReceipt(String total, LocalTime time) {
+        List<ItemDTO> items = new ArrayList<>();
+        String[] descriptions = {"Mountain Dew 12PK", "Emils Cheese Pizza", "   Klarbrunn 12-PK 12 FL OZ  ", "ABC"};
+        for (int i = 0; i < descriptions.length; i++) {
+            ItemDTO item = new ItemDTO();
+            item.setShortDescription(descriptions[i]);
+            item.setPrice(12.25 + i);
+            items.add(item);
+        }
+        items.add(null);
+
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer("M&M Corner Market");
+        receipt.setPurchaseDate(LocalDate.of(2022, 3, 21));
+        receipt.setPurchaseTime(time);
+        receipt.setItems(items);
+        receipt.setTotal(total);
+        return receipt;
+    }
+}
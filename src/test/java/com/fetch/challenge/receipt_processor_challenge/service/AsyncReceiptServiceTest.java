@@ -0,0 +1,167 @@
+package com.fetch.challenge.receipt_processor_challenge.service;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptAsyncProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.exception.ReceiptPendingException;
+import com.fetch.challenge.receipt_processor_challenge.exception.ReceiptQueueFullException;
+import com.fetch.challenge.receipt_processor_challenge.exception.ReceiptScoringFailedException;
+import com.fetch.challenge.receipt_processor_challenge.exception.ResourceNotFoundException;
+import com.fetch.challenge.receipt_processor_challenge.rule.PointRule;
+import com.fetch.challenge.receipt_processor_challenge.servcie.AsyncReceiptService;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncReceiptServiceTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final PointRule blockingRule = receipt -> {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 42;
+    };
+    private final ThreadPoolExecutor receiptQueue = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1));
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        receiptQueue.shutdown();
+    }
+
+    @Test
+    void getPoints_ShouldReportPendingUntilScored() throws Exception {
+        // Arrange
+        AsyncReceiptService service = createService(blockingRule, Duration.ZERO);
+
+        // Act
+        String id = service.processReceipt(createSampleReceipt());
+
+        // Assert
+        ReceiptPendingException pending = assertThrows(ReceiptPendingException.class, () -> service.getPoints(id));
+        assertEquals(id, pending.getId());
+
+        release.countDown();
+        receiptQueue.shutdown();
+        assertTrue(receiptQueue.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(42, service.getPoints(id));
+        assertEquals(0, service.pendingCount());
+    }
+
+    @Test
+    void getPoints_ShouldWaitForScoringWithinTimeout() {
+        // Arrange
+        AsyncReceiptService service = createService(receipt -> 7, Duration.ofSeconds(5));
+
+        // Act
+        String id = service.processReceipt(createSampleReceipt());
+
+        // Assert
+        assertEquals(7, service.getPoints(id));
+    }
+
+    @Test
+    void processReceipt_FullQueue_ThrowsQueueFullException() {
+        // Arrange
+        AsyncReceiptService service = createService(blockingRule, Duration.ZERO);
+        String running = service.processReceipt(createSampleReceipt());
+        while (receiptQueue.getActiveCount() == 0) {
+            Thread.onSpinWait();
+        }
+        String queued = service.processReceipt(createSampleReceipt());
+
+        // Act & Assert
+        assertThrows(ReceiptQueueFullException.class, () -> service.processReceipt(createSampleReceipt()));
+        assertEquals(2, service.pendingCount());
+        assertThrows(ReceiptPendingException.class, () -> service.getPoints(running));
+        assertThrows(ReceiptPendingException.class, () -> service.getPoints(queued));
+    }
+
+    @Test
+    void getPoints_UnknownId_ThrowsNotFound() {
+        AsyncReceiptService service = createService(receipt -> 7, Duration.ZERO);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.getPoints("6f1f3c2e-9b7a-4d1e-8c4f-2a5b6c7d8e9f"));
+    }
+
+    @Test
+    void getPoints_ScoringFailed_ShouldReportFailureInsteadOfNotFound() throws Exception {
+        // Arrange
+        AsyncReceiptService service = createService(receipt -> {
+            throw new IllegalStateException("Store unavailable");
+        }, Duration.ZERO);
+
+        // Act
+        String id = service.processReceipt(createSampleReceipt());
+        receiptQueue.shutdown();
+        assertTrue(receiptQueue.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        ReceiptScoringFailedException failed = assertThrows(ReceiptScoringFailedException.class,
+                () -> service.getPoints(id));
+        assertEquals(id, failed.getId());
+        assertEquals("Store unavailable", failed.getCause().getMessage());
+        assertEquals(0, service.pendingCount());
+    }
+
+    @Test
+    void close_ShouldScoreQueuedReceiptsFirst() throws Exception {
+        // Arrange
+        AsyncReceiptService service = createService(blockingRule, Duration.ZERO);
+        String running = service.processReceipt(createSampleReceipt());
+        String queued = service.processReceipt(createSampleReceipt());
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.start();
+
+        // Act
+        service.close();
+
+        // Assert
+        assertEquals(0, service.pendingCount());
+        assertEquals(42, service.getPoints(running));
+        assertEquals(42, service.getPoints(queued));
+        assertThrows(ReceiptQueueFullException.class, () -> service.processReceipt(createSampleReceipt()));
+    }
+
+    private AsyncReceiptService createService(PointRule rule, Duration pointsWait) {
+        ReceiptAsyncProperties properties = new ReceiptAsyncProperties();
+        properties.setPointsWait(pointsWait);
+        return new AsyncReceiptService(new ReceiptServiceImpl(List.of(rule)), receiptQueue, properties);
+    }
+
+    private ReceiptDTO createSampleReceipt() {
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer("Target");
+        receipt.setPurchaseDate(LocalDate.now());
+        receipt.setPurchaseTime(LocalTime.now());
+        receipt.setTotal("6.49");
+
+        ItemDTO item = new ItemDTO();
+        item.setShortDescription("Mountain Dew 12PK");
+        item.setPrice(6.49);
+        receipt.setItems(List.of(item));
+        return receipt;
+    }
+}
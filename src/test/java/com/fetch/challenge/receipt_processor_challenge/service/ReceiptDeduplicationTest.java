@@ -0,0 +1,135 @@
+package com.fetch.challenge.receipt_processor_challenge.service;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.rule.PointRule;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptServiceImpl;
+import com.fetch.challenge.receipt_processor_challenge.store.ConcurrentReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.DuplicateIndex;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptFingerprint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReceiptDeduplicationTest {
+
+    @Mock
+    private PointRule rule;
+
+    private ConcurrentReceiptStore store;
+    private DuplicateIndex duplicates;
+    private ReceiptServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        store = new ConcurrentReceiptStore();
+        duplicates = new DuplicateIndex(store, 1024);
+        ReceiptServiceImpl.Options options = new ReceiptServiceImpl.Options();
+        options.setStore(store);
+        options.setDuplicates(duplicates);
+        service = new ReceiptServiceImpl(List.of(rule), options);
+    }
+
+    @Test
+    void processReceipt_IdenticalReceipt_ReturnsExistingIdWithoutScoring() {
+        // Arrange
+        when(rule.calculatePoints(any(ReceiptDTO.class))).thenReturn(25);
+
+        // Act
+        String first = service.processReceipt(createReceipt("Target", "35.35"));
+        String second = service.processReceipt(createReceipt("Target", "35.35"));
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(25, service.getPoints(second));
+        assertEquals(1, store.size());
+        verify(rule, times(1)).calculatePoints(any(ReceiptDTO.class));
+        assertEquals(1, duplicates.hits());
+        assertEquals(1, duplicates.misses());
+    }
+
+    @Test
+    void processReceipt_DifferentField_IsScoredSeparately() {
+        when(rule.calculatePoints(any(ReceiptDTO.class))).thenReturn(5);
+
+        String first = service.processReceipt(createReceipt("Target", "35.35"));
+        String second = service.processReceipt(createReceipt("Target", "35.36"));
+
+        assertNotEquals(first, second);
+        assertEquals(2, store.size());
+        assertEquals(0, duplicates.hits());
+    }
+
+    @Test
+    void processReceipts_ShouldReuseIdsForKnownAndRepeatedReceipts() {
+        // Arrange
+        when(rule.calculatePoints(any(ReceiptDTO.class))).thenReturn(7);
+        String known = service.processReceipt(createReceipt("Target", "1.00"));
+
+        // Act
+        List<String> ids = service.processReceipts(List.of(
+                createReceipt("Target", "1.00"),
+                createReceipt("Walgreens", "2.00"),
+                createReceipt("Walgreens", "2.00")));
+
+        // Assert
+        assertEquals(known, ids.get(0));
+        assertNotEquals(known, ids.get(1));
+        assertEquals(ids.get(1), ids.get(2));
+        assertEquals(2, store.size());
+        verify(rule, times(2)).calculatePoints(any(ReceiptDTO.class));
+    }
+
+    @Test
+    void find_IdNoLongerStored_IsAMiss() {
+        ReceiptFingerprint fingerprint = ReceiptFingerprint.of(createReceipt("Target", "1.00"));
+        UUID gone = UUID.randomUUID();
+        duplicates.record(fingerprint, gone.getMostSignificantBits(), gone.getLeastSignificantBits());
+
+        assertNull(duplicates.find(fingerprint));
+        assertEquals(1, duplicates.misses());
+    }
+
+    @Test
+    void fingerprint_ShouldDependOnEveryFieldAndItsBoundaries() {
+        ReceiptDTO receipt = createReceipt("Target", "1.00");
+        ReceiptDTO shifted = createReceipt("Target1", ".00");
+        ReceiptDTO otherPrice = createReceipt("Target", "1.00");
+        otherPrice.getItems().get(0).setPrice(1.01);
+        ReceiptDTO otherTime = createReceipt("Target", "1.00");
+        otherTime.setPurchaseTime(LocalTime.of(13, 2));
+
+        assertEquals(ReceiptFingerprint.of(receipt), ReceiptFingerprint.of(createReceipt("Target", "1.00")));
+        assertNotEquals(ReceiptFingerprint.of(receipt), ReceiptFingerprint.of(shifted));
+        assertNotEquals(ReceiptFingerprint.of(receipt), ReceiptFingerprint.of(otherPrice));
+        assertNotEquals(ReceiptFingerprint.of(receipt), ReceiptFingerprint.of(otherTime));
+    }
+
+    private static ReceiptDTO createReceipt(String retailer, String total) {
+        ItemDTO item = new ItemDTO();
+        item.setShortDescription("Mountain Dew 12PK");
+        item.setPrice(1.00);
+
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer(retailer);
+        receipt.setPurchaseDate(LocalDate.of(2022, 1, 1));
+        receipt.setPurchaseTime(LocalTime.of(13, 1));
+        receipt.setItems(List.of(item));
+        receipt.setTotal(total);
+        return receipt;
+    }
+}
@@ -0,0 +1,142 @@
+package com.fetch.challenge.receipt_processor_challenge.service;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptMetricsProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.rule.ItemCountRule;
+import com.fetch.challenge.receipt_processor_challenge.rule.RetailerNameRule;
+import com.fetch.challenge.receipt_processor_challenge.rule.ScoringEngine;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptMetrics;
+import com.fetch.challenge.receipt_processor_challenge.servcie.ReceiptServiceImpl;
+import com.fetch.challenge.receipt_processor_challenge.store.ConcurrentReceiptStore;
+import com.fetch.challenge.receipt_processor_challenge.store.DuplicateIndex;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStoreMetrics;
+import com.fetch.challenge.receipt_processor_challenge.store.ReceiptStoreStats;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReceiptMetricsTest {
+
+    @Test
+    void service_ShouldTimeUploadsLookupsAndRulesWhenEveryCallIsSampled() {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ReceiptMetricsProperties properties = new ReceiptMetricsProperties();
+        properties.setProcessSampling(1);
+        properties.setLookupSampling(1);
+        properties.setRuleSampling(1);
+        ReceiptServiceImpl.Options options = new ReceiptServiceImpl.Options();
+        options.setMetrics(new ReceiptMetrics(registry, properties));
+        ReceiptServiceImpl service = new ReceiptServiceImpl(List.of(new RetailerNameRule(), new ItemCountRule()),
+                options);
+
+        // Act
+        String id = service.processReceipt(createReceipt(3));
+        service.processReceipts(List.of(createReceipt(1), createReceipt(2)));
+        service.getPoints(id);
+
+        // Assert
+        assertEquals(1, registry.get("receipt.process").tag("mode", "single").timer().count());
+        assertEquals(1, registry.get("receipt.process").tag("mode", "batch").timer().count());
+        assertEquals(1, registry.get("receipt.lookup").timer().count());
+        assertEquals(3, registry.get("receipt.items").summary().count());
+        assertEquals(6, registry.get("receipt.items").summary().totalAmount());
+        assertEquals(3, registry.get(ScoringEngine.RULE_TIMER).tag("rule", "RetailerNameRule").timer().count());
+        assertEquals(3, registry.get(ScoringEngine.RULE_TIMER).tag("rule", "ItemCountRule").timer().count());
+    }
+
+    @Test
+    void service_ZeroSampling_RecordsNothing() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ReceiptMetricsProperties properties = new ReceiptMetricsProperties();
+        properties.setProcessSampling(0);
+        properties.setLookupSampling(0);
+        properties.setRuleSampling(0);
+        ReceiptServiceImpl.Options options = new ReceiptServiceImpl.Options();
+        options.setMetrics(new ReceiptMetrics(registry, properties));
+        ReceiptServiceImpl service = new ReceiptServiceImpl(List.of(new RetailerNameRule()), options);
+
+        service.getPoints(service.processReceipt(createReceipt(1)));
+
+        assertEquals(0, registry.get("receipt.process").tag("mode", "single").timer().count());
+        assertEquals(0, registry.get("receipt.lookup").timer().count());
+        assertNull(registry.find(ScoringEngine.RULE_TIMER).timer());
+    }
+
+    @Test
+    void storeMetrics_ShouldReportApproximateMemory() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore();
+        ReceiptMetricsProperties properties = new ReceiptMetricsProperties();
+        properties.setStoreStatsMaxAge(Duration.ZERO);
+        new ReceiptStoreMetrics(store, new StaticListableBeanFactory().getBeanProvider(
+                DuplicateIndex.class), properties).bindTo(registry);
+        ReceiptServiceImpl.Options options = new ReceiptServiceImpl.Options();
+        options.setStore(store);
+        ReceiptServiceImpl service = new ReceiptServiceImpl(List.of(new RetailerNameRule()), options);
+        double emptyPoints = registry.get("receipt.store.memory").tag("kind", "points").gauge().value();
+
+        for (int i = 0; i < 1000; i++) {
+            service.processReceipt(createReceipt(2));
+        }
+
+        assertTrue(registry.get("receipt.store.memory").tag("kind", "points").gauge().value() > emptyPoints);
+        double receiptBytes = registry.get("receipt.store.memory").tag("kind", "receipts").gauge().value();
+        assertTrue(receiptBytes > 1000 * 200 && receiptBytes < 1000 * 2000, "receipt bytes: " + receiptBytes);
+    }
+
+    @Test
+    void storeMetrics_OneScrape_ShouldTakeOneStatsSnapshot() {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        AtomicInteger statsCalls = new AtomicInteger();
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore() {
+            @Override
+            public ReceiptStoreStats stats() {
+                statsCalls.incrementAndGet();
+                return super.stats();
+            }
+        };
+        ReceiptMetricsProperties properties = new ReceiptMetricsProperties();
+        properties.setStoreStatsMaxAge(Duration.ofMinutes(1));
+        new ReceiptStoreMetrics(store, new StaticListableBeanFactory().getBeanProvider(
+                DuplicateIndex.class), properties).bindTo(registry);
+
+        // Act
+        registry.getMeters().forEach(meter -> meter.measure().forEach(Measurement::getValue));
+
+        // Assert
+        assertEquals(7, registry.getMeters().size());
+        assertEquals(1, statsCalls.get());
+    }
+
+    private static ReceiptDTO createReceipt(int itemCount) {
+        List<ItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            ItemDTO item = new ItemDTO();
+            item.setShortDescription("Item " + i);
+            item.setPrice(1.25);
+            items.add(item);
+        }
+
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer("Target");
+        receipt.setPurchaseDate(LocalDate.of(2022, 1, 1));
+        receipt.setPurchaseTime(LocalTime.of(13, 1));
+        receipt.setItems(items);
+        receipt.setTotal("1.25");
+        return receipt;
+    }
+}
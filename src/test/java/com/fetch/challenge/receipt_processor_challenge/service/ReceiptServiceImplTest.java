@@ -127,6 +127,22 @@ public class ReceiptServiceImplTest {
         assertEquals(15, receiptService.getPoints(id));
     }
 
+    @Test
+    void processReceipts_ShouldScoreAndStoreEveryReceipt() {
+        // Arrange
+        when(rule1.calculatePoints(any(ReceiptDTO.class))).thenReturn(10);
+        when(rule2.calculatePoints(any(ReceiptDTO.class))).thenReturn(5);
+        List<ReceiptDTO> receipts = List.of(createSampleReceipt(), createSampleReceipt(), createSampleReceipt());
+
+        // Act
+        List<String> ids = receiptService.processReceipts(receipts);
+
+        // Assert
+        assertEquals(3, ids.size());
+        assertEquals(3, ids.stream().distinct().count());
+        ids.forEach(id -> assertEquals(15, receiptService.getPoints(id)));
+    }
+
     private ReceiptDTO createSampleReceipt() {
         ReceiptDTO receipt = new ReceiptDTO();
         receipt.setRetailer("Target");
@@ -0,0 +1,60 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockBloomFilterTest {
+
+    @Test
+    void mightContain_AddedKeys_ShouldAlwaysBeTrue() {
+        // Arrange
+        BlockBloomFilter filter = filter(1 << 12);
+        SplittableRandom random = new SplittableRandom(1);
+        long[] keys = new long[3584];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            filter.add(PointsIndex.hash(keys[i], i));
+        }
+
+        // Act & Assert
+        for (int i = 0; i < keys.length; i++) {
+            assertTrue(filter.mightContain(PointsIndex.hash(keys[i], i)));
+        }
+    }
+
+    @Test
+    void mightContain_TableSevenEighthsFull_ShouldRarelyBeWrong() {
+        // Arrange
+        int capacity = 1 << 16;
+        BlockBloomFilter filter = filter(capacity);
+        for (long i = 0; i < capacity - capacity / 8; i++) {
+            filter.add(PointsIndex.hash(i, i));
+        }
+
+        // Act
+        int falsePositives = 0;
+        int probes = 1_000_000;
+        for (long i = 0; i < probes; i++) {
+            falsePositives += filter.mightContain(PointsIndex.hash(-1 - i, i)) ? 1 : 0;
+        }
+
+        // Assert
+        assertTrue(falsePositives < probes / 1000, falsePositives + " false positives");
+    }
+
+    @Test
+    void blocks_SmallTable_ShouldStillHaveOneBlock() {
+        assertEquals(1, BlockBloomFilter.blocks(16));
+        assertEquals(2, BlockBloomFilter.blocks(64));
+        assertArrayEquals(new long[]{64}, BlockBloomFilter.bufferSizes(1));
+    }
+
+    private static BlockBloomFilter filter(long capacity) {
+        long blocks = BlockBloomFilter.blocks(capacity);
+        return new BlockBloomFilter(new ByteBuffer[]{ByteBuffer.allocate((int) BlockBloomFilter.bytes(blocks))}, blocks);
+    }
+}
@@ -0,0 +1,94 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentReceiptStoreTest {
+    private static final int OPS_PER_THREAD = 100_000;
+
+    @Test
+    void put_ShouldMakeReceiptAndPointsVisibleTogether() {
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore();
+        ReceiptDTO receipt = new ReceiptDTO();
+
+        String id = UUID.randomUUID().toString();
+
+        store.put(id, receipt, 42);
+
+        assertEquals(42, store.findPoints(id).getAsInt());
+        assertSame(receipt, store.findReceipt(id).orElseThrow());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void findPoints_UnknownId_ReturnsEmpty() {
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore();
+
+        assertTrue(store.findPoints(UUID.randomUUID().toString()).isEmpty());
+        assertTrue(store.findPoints("missing").isEmpty());
+        assertTrue(store.findReceipt("missing").isEmpty());
+    }
+
+    @Test
+    void put_NonUuidId_ThrowsException() {
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore();
+
+        assertThrows(IllegalArgumentException.class, () -> store.put("id-1", new ReceiptDTO(), 1));
+    }
+
+    @Test
+    void concurrentWritersAndReaders_ShouldNotLoseWrites() throws Exception {
+        // Arrange
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore();
+        ReceiptDTO receipt = new ReceiptDTO();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<String> lost = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        String id = new UUID(thread + 1, i).toString();
+                        store.put(id, receipt, i);
+                        if (store.findPoints(id).orElse(-1) != i) {
+                            lost.add(id);
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertTrue(lost.isEmpty(), "lost writes: " + lost.size());
+        assertEquals(threads * OPS_PER_THREAD, store.size());
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < OPS_PER_THREAD; i += 997) {
+                String id = new UUID(t + 1, i).toString();
+                assertEquals(i, store.findPoints(id).getAsInt());
+                assertSame(receipt, store.findReceipt(id).orElseThrow());
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PointsIndexTest {
+
+    @Test
+    void get_ShouldReturnStoredPointsAcrossResizes() {
+        PointsIndex index = new PointsIndex();
+        Map<UUID, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            UUID id = UUID.randomUUID();
+            index.put(id.getMostSignificantBits(), id.getLeastSignificantBits(), i);
+            expected.put(id, i);
+        }
+
+        expected.forEach((id, points) ->
+                assertEquals(points, index.get(id.getMostSignificantBits(), id.getLeastSignificantBits())));
+        assertEquals(50_000, index.size());
+        assertEquals(PointsIndex.MISSING, index.get(1, 2));
+    }
+
+    @Test
+    void put_ExistingKey_OverwritesPoints() {
+        PointsIndex index = new PointsIndex();
+
+        index.put(7, 9, 10);
+        index.put(7, 9, 20);
+
+        assertEquals(20, index.get(7, 9));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void forEach_ShouldVisitEveryLiveEntryWithItsWriteTime() {
+        long[] now = {1_000_000};
+        PointsIndex index = new PointsIndex(0, 10_000, () -> now[0], (high, low) -> { });
+        index.put(1, 1, 10);
+        now[0] += 20_000;
+        index.put(2, 2, 20);
+        Map<Long, Long> visited = new HashMap<>();
+
+        index.forEach((high, low, points, writtenAt) -> {
+            assertEquals(high * 10, points);
+            visited.put(high, writtenAt);
+        });
+
+        assertEquals(Map.of(2L, 1_020_000L), visited);
+    }
+
+    @Test
+    void put_ReservedKey_ThrowsException() {
+        PointsIndex index = new PointsIndex();
+
+        assertThrows(IllegalArgumentException.class, () -> index.put(0, 0, 1));
+    }
+
+    @Test
+    void get_ReservedKey_ReturnsMissing() {
+        PointsIndex index = new PointsIndex();
+        assertEquals(PointsIndex.MISSING, index.get(0, 0));
+
+        for (int i = 1; i <= 100; i++) {
+            index.put(i, i, 5);
+        }
+
+        assertEquals(PointsIndex.MISSING, index.get(0, 0));
+    }
+
+    @Test
+    void eviction_ShouldKeepRemainingEntriesReachable() {
+        Set<UUID> evicted = new HashSet<>();
+        PointsIndex index = new PointsIndex(1000, 0, System::currentTimeMillis,
+                (high, low) -> evicted.add(new UUID(high, low)));
+        Map<UUID, Integer> written = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            UUID id = UUID.randomUUID();
+            index.put(id.getMostSignificantBits(), id.getLeastSignificantBits(), i);
+            written.put(id, i);
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(19_000, index.evictions());
+        written.forEach((id, points) -> {
+            int found = index.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            assertEquals(evicted.contains(id) ? PointsIndex.MISSING : points, found);
+        });
+    }
+
+    @Test
+    void concurrentReadersAndWriters_ShouldNeverSeeWrongPoints() throws Exception {
+        PointsIndex index = new PointsIndex();
+        int writers = 4;
+        int perWriter = 100_000;
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+        try {
+            Future<?>[] readers = new Future<?>[2];
+            for (int r = 0; r < readers.length; r++) {
+                readers[r] = executor.submit(() -> {
+                    while (!done.get()) {
+                        int writer = ThreadLocalRandom.current().nextInt(writers) + 1;
+                        int i = ThreadLocalRandom.current().nextInt(perWriter);
+                        int points = index.get(writer, i);
+                        if (points != PointsIndex.MISSING && points != i) {
+                            throw new AssertionError("key " + writer + "/" + i + " returned " + points);
+                        }
+                    }
+                });
+            }
+            Future<?>[] writes = new Future<?>[writers];
+            for (int w = 0; w < writers; w++) {
+                long writer = w + 1;
+                writes[w] = executor.submit(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        index.put(writer, i, i);
+                    }
+                });
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(writers * perWriter, index.size());
+        for (int w = 1; w <= writers; w++) {
+            for (int i = 0; i < perWriter; i++) {
+                assertEquals(i, index.get(w, i));
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import com.fetch.challenge.receipt_processor_challenge.aggregate.ReceiptAggregates;
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptAggregateProperties;
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.store.StoreFixtures.MutableClock;
+import com.fetch.challenge.receipt_processor_challenge.util.ReceiptIdUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ObjIntConsumer;
+import java.util.zip.CRC32C;
+
+import static com.fetch.challenge.receipt_processor_challenge.store.StoreFixtures.createReceipt;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PointsSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recover_ShouldServeSnapshotAndReplayOnlyTheLogTail() throws Exception {
+        // Arrange
+        ReceiptDTO receipt = createReceipt();
+        List<String> before = ids(500);
+        List<String> after = ids(20);
+        try (DurableReceiptStore store = open()) {
+            putAll(store, before, receipt);
+            assertEquals(500, store.snapshot(true));
+            putAll(store, after, receipt);
+        }
+
+        // Act
+        try (DurableReceiptStore recovered = open()) {
+            // Assert
+            assertEquals(500, recovered.snapshot().entries());
+            assertEquals(20, recovered.size() - recovered.snapshot().entries());
+            assertEquals(520, recovered.size());
+            for (int i = 0; i < before.size(); i++) {
+                assertEquals(i, recovered.findPoints(before.get(i)).getAsInt());
+            }
+            for (int i = 0; i < after.size(); i++) {
+                assertEquals(i, recovered.findPoints(after.get(i)).getAsInt());
+            }
+            assertEquals(receipt, recovered.findReceipt(before.get(7)).orElseThrow());
+            assertTrue(recovered.findPoints(UUID.randomUUID().toString()).isEmpty());
+        }
+    }
+
+    @Test
+    void recover_ShouldRebuildAggregatesOnceFromSnapshotAndLogTail() throws Exception {
+        // Arrange
+        ReceiptDTO receipt = createReceipt();
+        try (DurableReceiptStore store = open()) {
+            putAll(store, ids(300), receipt);
+            store.snapshot(true);
+            putAll(store, ids(20), receipt);
+        }
+        ReceiptAggregates aggregates = new ReceiptAggregates(new ReceiptAggregateProperties());
+
+        // Act
+        try (DurableReceiptStore recovered = open(aggregates::add)) {
+            // Assert
+            assertEquals(320, aggregates.retailer("Target").receipts());
+            assertEquals(299 * 300 / 2 + 19 * 20 / 2, aggregates.retailer("Target").points());
+            assertEquals(320, aggregates.day(receipt.getPurchaseDate()).receipts());
+        }
+    }
+
+    @Test
+    void snapshot_ShouldMergePreviousSnapshotWithNewWrites() throws Exception {
+        // Arrange
+        List<String> first = ids(100);
+        List<String> second = ids(100);
+        try (DurableReceiptStore store = open()) {
+            putAll(store, first, null);
+            store.snapshot(false);
+        }
+
+        // Act
+        try (DurableReceiptStore store = open()) {
+            putAll(store, second, null);
+            assertEquals(200, store.snapshot(false));
+        }
+
+        // Assert
+        try (DurableReceiptStore recovered = open()) {
+            assertEquals(200, recovered.snapshot().entries());
+            assertEquals(99, recovered.findPoints(first.get(99)).getAsInt());
+            assertEquals(99, recovered.findPoints(second.get(99)).getAsInt());
+        }
+    }
+
+    @Test
+    void size_RightAfterSnapshot_CountsEachEntryOnce() throws Exception {
+        try (DurableReceiptStore store = open()) {
+            putAll(store, ids(100), null);
+            store.snapshot(false);
+            assertEquals(100, store.size());
+
+            putAll(store, ids(5), null);
+            assertEquals(105, store.size());
+        }
+    }
+
+    @Test
+    void snapshot_OverMaxEntries_KeepsTheNewest() throws Exception {
+        // Arrange
+        MutableClock clock = new MutableClock();
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setPointsTtl(Duration.ofDays(1));
+        WriteAheadLog wal = new WriteAheadLog(tempDir.resolve("receipts.wal"), WriteAheadLog.FsyncPolicy.BATCH,
+                Duration.ofMillis(20));
+        List<String> older = ids(20);
+        List<String> newer = ids(10);
+        try (DurableReceiptStore store = DurableReceiptStore.recover(new ConcurrentReceiptStore(properties, clock),
+                wal, tempDir.resolve("receipts.snapshot"), false, Duration.ofDays(1).toMillis(), 10, clock, null)) {
+            putAll(store, older, null);
+            clock.advance(Duration.ofMinutes(1));
+            putAll(store, newer, null);
+
+            // Act
+            long written = store.snapshot(false);
+
+            // Assert
+            assertEquals(10, written);
+            for (String id : newer) {
+                assertNotEquals(PointsIndex.MISSING, store.snapshot().get(ReceiptIdUtil.high(id),
+                        ReceiptIdUtil.low(id), 0, 0));
+            }
+        }
+    }
+
+    @Test
+    void snapshot_ShouldNotLoseWritesMadeWhileItRuns() throws Exception {
+        // Arrange
+        List<String> written = new ArrayList<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (DurableReceiptStore store = open()) {
+            putAll(store, ids(20_000), null);
+            List<Future<List<String>>> writers = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                writers.add(executor.submit(() -> {
+                    List<String> ids = new ArrayList<>();
+                    while (running.get() || ids.size() < 1000) {
+                        String id = UUID.randomUUID().toString();
+                        store.put(id, null, 42);
+                        ids.add(id);
+                    }
+                    return ids;
+                }));
+            }
+
+            // Act
+            store.snapshot(false);
+            store.snapshot(false);
+            running.set(false);
+            for (Future<List<String>> writer : writers) {
+                written.addAll(writer.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        try (DurableReceiptStore recovered = open()) {
+            for (String id : written) {
+                assertEquals(42, recovered.findPoints(id).getAsInt());
+            }
+        }
+    }
+
+    @Test
+    void recover_UnreadableSnapshot_ReplaysLogTail() throws Exception {
+        List<String> before = ids(50);
+        List<String> after = ids(10);
+        try (DurableReceiptStore store = open()) {
+            putAll(store, before, null);
+            store.snapshot(false);
+            putAll(store, after, null);
+        }
+        Files.write(tempDir.resolve("receipts.snapshot"), new byte[]{1, 2, 3});
+
+        try (DurableReceiptStore recovered = open()) {
+            assertNull(recovered.snapshot());
+            assertEquals(10, recovered.size());
+            assertEquals(9, recovered.findPoints(after.get(9)).getAsInt());
+            assertTrue(recovered.findPoints(before.get(0)).isEmpty());
+        }
+    }
+
+    @Test
+    void snapshot_ShouldDropTheLogRecordsItHolds() throws Exception {
+        // Arrange
+        Path wal = tempDir.resolve("receipts.wal");
+        List<String> first = ids(1000);
+        List<String> second = ids(5);
+        long logged;
+        long compacted;
+        try (DurableReceiptStore store = open()) {
+            putAll(store, first, null);
+            logged = Files.size(wal);
+
+            // Act
+            store.snapshot(false);
+            compacted = Files.size(wal);
+            putAll(store, second, null);
+            store.snapshot(false);
+            putAll(store, second.subList(0, 1), null);
+        }
+
+        // Assert
+        assertTrue(compacted < logged / 100, compacted + " of " + logged + " bytes left");
+        try (DurableReceiptStore recovered = open()) {
+            assertEquals(1005, recovered.snapshot().entries());
+            assertEquals(999, recovered.findPoints(first.get(999)).getAsInt());
+            assertEquals(4, recovered.findPoints(second.get(4)).getAsInt());
+            assertEquals(0, recovered.findPoints(second.get(0)).getAsInt());
+        }
+    }
+
+    @Test
+    void get_ExpiredEntry_ReturnsMissing() throws Exception {
+        Path file = tempDir.resolve("expiring.snapshot");
+        long now = System.currentTimeMillis();
+        PointsSnapshot snapshot;
+        try (PointsSnapshot.Writer writer = new PointsSnapshot.Writer(file, 2, 0)) {
+            writer.add(1, 1, 10, now - 60_000, null);
+            writer.add(2, 2, 20, now, null);
+            snapshot = writer.commit(0);
+        }
+
+        assertEquals(PointsIndex.MISSING, snapshot.get(1, 1, 30_000, now));
+        assertEquals(20, snapshot.get(2, 2, 30_000, now));
+        assertEquals(10, snapshot.get(1, 1, 0, now));
+        snapshot.close();
+    }
+
+    @Test
+    void get_AbsentKeys_ShouldBeTurnedAwayByFilter() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("filtered.snapshot");
+        PointsSnapshot snapshot;
+        try (PointsSnapshot.Writer writer = new PointsSnapshot.Writer(file, 1000, 0)) {
+            for (int i = 1; i <= 1000; i++) {
+                writer.add(i, -i, i, 0, null);
+            }
+            snapshot = writer.commit(0);
+        }
+
+        // Act & Assert
+        assertTrue(snapshot.isFiltered());
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals(i, snapshot.get(i, -i, 0, 0));
+            assertEquals(PointsIndex.MISSING, snapshot.get(-i, i, 0, 0));
+        }
+        snapshot.close();
+    }
+
+    @Test
+    void open_VersionOneSnapshot_ShouldBeReadWithoutFilter() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("v1.snapshot");
+        try (PointsSnapshot.Writer writer = new PointsSnapshot.Writer(file, 3, 0)) {
+            writer.add(7, 7, 70, 0, null);
+            writer.commit(0).close();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(64);
+            channel.read(header, 0);
+            long tableEnd = 64 + header.getLong(8) * 32;
+            header.putInt(4, 1).putLong(32, tableEnd);
+            CRC32C crc = new CRC32C();
+            crc.update(header.array(), 0, 48);
+            header.putInt(48, (int) crc.getValue());
+            channel.write(header.clear(), 0);
+        }
+
+        // Act
+        PointsSnapshot snapshot = PointsSnapshot.open(file);
+
+        // Assert
+        assertFalse(snapshot.isFiltered());
+        assertEquals(70, snapshot.get(7, 7, 0, 0));
+        assertEquals(PointsIndex.MISSING, snapshot.get(8, 8, 0, 0));
+        assertEquals(PointsIndex.MISSING, snapshot.get(0, 0, 0, 0));
+        snapshot.close();
+    }
+
+    private DurableReceiptStore open() throws IOException {
+        return open(null);
+    }
+
+    private DurableReceiptStore open(ObjIntConsumer<ReceiptDTO> recovered) throws IOException {
+        WriteAheadLog wal = new WriteAheadLog(tempDir.resolve("receipts.wal"), WriteAheadLog.FsyncPolicy.BATCH,
+                Duration.ofMillis(20));
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        return DurableReceiptStore.recover(new ConcurrentReceiptStore(properties, Clock.systemUTC()), wal,
+                tempDir.resolve("receipts.snapshot"), true, 0, 0, Clock.systemUTC(), recovered);
+    }
+
+    private static void putAll(DurableReceiptStore store, List<String> ids, ReceiptDTO receipt) {
+        List<ReceiptDTO> receipts = new ArrayList<>();
+        int[] points = new int[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            receipts.add(receipt);
+            points[i] = i;
+        }
+        store.putAll(ids, receipts, points);
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        return ids;
+    }
+}
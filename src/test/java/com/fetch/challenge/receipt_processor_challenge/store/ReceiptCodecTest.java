@@ -0,0 +1,115 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReceiptCodecTest {
+    private final ReceiptCodec codec = new ReceiptCodec();
+
+    @Test
+    void decode_ShouldRoundTripAllFields() {
+        ReceiptDTO receipt = createReceipt(3);
+
+        ReceiptDTO decoded = codec.decode(codec.encode(receipt));
+
+        assertEquals(receipt, decoded);
+    }
+
+    @Test
+    void decode_ShouldRoundTripMissingFieldsAndIrregularAmounts() {
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer("Déjà Vu Café");
+        receipt.setTotal("7.5");
+        ItemDTO item = new ItemDTO();
+        item.setPrice(0.125);
+        List<ItemDTO> items = new ArrayList<>();
+        items.add(item);
+        items.add(null);
+        receipt.setItems(items);
+
+        ReceiptDTO decoded = codec.decode(codec.encode(receipt));
+
+        assertEquals(receipt.getRetailer(), decoded.getRetailer());
+        assertEquals("7.5", decoded.getTotal());
+        assertNull(decoded.getPurchaseDate());
+        assertEquals(0.125, decoded.getItems().get(0).getPrice());
+        assertNull(decoded.getItems().get(1).getShortDescription());
+    }
+
+    @Test
+    void binaryStore_ShouldDecodeOnRead() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setEncoding(ReceiptStoreProperties.Encoding.BINARY);
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore(properties, Clock.systemUTC());
+        ReceiptDTO receipt = createReceipt(5);
+        String id = UUID.randomUUID().toString();
+
+        store.put(id, receipt, 12);
+
+        ReceiptDTO stored = store.findReceipt(id).orElseThrow();
+        assertNotSame(receipt, stored);
+        assertEquals(receipt, stored);
+    }
+
+    @Test
+    void encode_ShouldUseLessMemoryThanObjectGraph() {
+        for (int items : new int[]{1, 5, 50}) {
+            ReceiptDTO receipt = createReceipt(items);
+            ByteBuffer encoded = codec.encode(receipt);
+
+            long objectBytes = GraphLayout.parseInstance(receipt).totalSize();
+            long binaryBytes = GraphLayout.parseInstance(encoded).totalSize();
+
+            assertTrue(binaryBytes * 2 < objectBytes, items + " items: " + binaryBytes + " B against " + objectBytes);
+        }
+    }
+
+    @Test
+    void encode_PriceTooLargeForCents_ThrowsException() {
+        ReceiptDTO receipt = createReceipt(1);
+        receipt.getItems().get(0).setPrice(1e17);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(receipt));
+        receipt.getItems().get(0).setPrice(Double.POSITIVE_INFINITY);
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(receipt));
+    }
+
+    @Test
+    void encode_ShouldHoldEachReceiptInAnArrayOfItsOwnSize() {
+        ByteBuffer encoded = codec.encode(createReceipt(1));
+
+        assertTrue(encoded.hasArray());
+        assertFalse(encoded.isDirect());
+        assertEquals(encoded.remaining(), encoded.array().length);
+    }
+
+    private ReceiptDTO createReceipt(int itemCount) {
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer("M&M Corner Market");
+        receipt.setPurchaseDate(LocalDate.of(2022, 3, 20));
+        receipt.setPurchaseTime(LocalTime.of(14, 33));
+        List<ItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            ItemDTO item = new ItemDTO();
+            item.setShortDescription("Gatorade " + i);
+            item.setPrice(2.25 + i);
+            items.add(item);
+        }
+        receipt.setItems(items);
+        receipt.setTotal("109.00");
+        return receipt;
+    }
+}
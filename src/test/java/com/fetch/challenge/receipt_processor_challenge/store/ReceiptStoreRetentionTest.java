@@ -0,0 +1,150 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.store.StoreFixtures.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReceiptStoreRetentionTest {
+
+    @Test
+    void put_OverMaxPoints_EvictsDownToCap() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setMaxPoints(100);
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore(properties, Clock.systemUTC());
+
+        for (int i = 0; i < 1000; i++) {
+            store.put(newId(), new ReceiptDTO(), i);
+        }
+
+        assertEquals(100, store.size());
+        assertEquals(900, store.stats().pointEvictions());
+        assertEquals(100, store.stats().receipts());
+    }
+
+    @Test
+    void put_OverMaxPoints_KeepsEntriesThatAreRead() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setMaxPoints(100);
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore(properties, Clock.systemUTC());
+        String hot = newId();
+        store.put(hot, new ReceiptDTO(), 1);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(1, store.findPoints(hot).getAsInt());
+            store.put(newId(), new ReceiptDTO(), i);
+        }
+
+        assertTrue(store.findReceipt(hot).isPresent());
+    }
+
+    @Test
+    void findPoints_AfterTtl_ReturnsEmpty() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setPointsTtl(Duration.ofMinutes(5));
+        MutableClock clock = new MutableClock();
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore(properties, clock);
+        String id = newId();
+
+        store.put(id, new ReceiptDTO(), 10);
+        clock.advance(Duration.ofMinutes(4));
+        assertEquals(10, store.findPoints(id).getAsInt());
+
+        clock.advance(Duration.ofMinutes(1));
+        assertTrue(store.findPoints(id).isEmpty());
+        assertTrue(store.findReceipt(id).isEmpty());
+    }
+
+    @Test
+    void put_ExpiredEntriesAreSweptOnWrite() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setPointsTtl(Duration.ofSeconds(30));
+        MutableClock clock = new MutableClock();
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore(properties, clock);
+
+        for (int i = 0; i < 200; i++) {
+            store.put(newId(), new ReceiptDTO(), i);
+        }
+        clock.advance(Duration.ofMinutes(1));
+        for (int i = 0; i < 2000; i++) {
+            store.put(newId(), new ReceiptDTO(), i);
+        }
+
+        assertEquals(2000, store.size());
+        assertEquals(200, store.stats().pointExpirations());
+        assertEquals(2000, store.stats().receipts());
+    }
+
+    @Test
+    void put_OverMaxReceipts_DropsReceiptButKeepsPoints() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setMaxReceipts(1);
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore(properties, Clock.systemUTC());
+        String first = newId();
+        String second = newId();
+
+        store.put(first, new ReceiptDTO(), 1);
+        store.put(second, new ReceiptDTO(), 2);
+
+        assertTrue(store.findReceipt(first).isEmpty());
+        assertTrue(store.findReceipt(second).isPresent());
+        assertEquals(1, store.findPoints(first).getAsInt());
+        assertEquals(1, store.stats().receiptEvictions());
+    }
+
+    @Test
+    void put_MaxPointsBelowMaxReceipts_KeepsTheReceiptOrderBounded() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setMaxPoints(10);
+        properties.setMaxReceipts(100);
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore(properties, Clock.systemUTC());
+
+        for (int i = 0; i < 10_000; i++) {
+            store.put(newId(), new ReceiptDTO(), i);
+        }
+
+        assertEquals(10, store.stats().receipts());
+        assertEquals(100, store.receiptOrderSize());
+    }
+
+    @Test
+    void put_ExpiredPointsWithMaxReceipts_KeepsTheReceiptOrderBounded() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setPointsTtl(Duration.ofSeconds(30));
+        properties.setMaxReceipts(100);
+        MutableClock clock = new MutableClock();
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore(properties, clock);
+
+        for (int i = 0; i < 5000; i++) {
+            store.put(newId(), new ReceiptDTO(), i);
+            clock.advance(Duration.ofSeconds(1));
+        }
+
+        assertTrue(store.stats().receipts() <= 100);
+        assertEquals(100, store.receiptOrderSize());
+    }
+
+    @Test
+    void put_RetainReceiptsDisabled_StoresPointsOnly() {
+        ReceiptStoreProperties properties = new ReceiptStoreProperties();
+        properties.setRetainReceipts(false);
+        ConcurrentReceiptStore store = new ConcurrentReceiptStore(properties, Clock.systemUTC());
+        String id = newId();
+
+        store.put(id, new ReceiptDTO(), 7);
+
+        assertTrue(store.findReceipt(id).isEmpty());
+        assertEquals(7, store.findPoints(id).getAsInt());
+        assertEquals(0, store.stats().receipts());
+    }
+
+    private static String newId() {
+        return UUID.randomUUID().toString();
+    }
+}
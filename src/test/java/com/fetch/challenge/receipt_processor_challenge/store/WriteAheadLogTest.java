@@ -0,0 +1,401 @@
+package com.fetch.challenge.receipt_processor_challenge.store;
+
+import com.fetch.challenge.receipt_processor_challenge.config.ReceiptStoreProperties;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.fetch.challenge.receipt_processor_challenge.store.StoreFixtures.createReceipt;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteAheadLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recover_ShouldRestorePointsAndReceiptsAfterRestart() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("receipts.wal");
+        ReceiptDTO receipt = createReceipt();
+        List<String> ids = new ArrayList<>();
+        try (DurableReceiptStore store = open(file, WriteAheadLog.FsyncPolicy.BATCH)) {
+            String single = UUID.randomUUID().toString();
+            store.put(single, receipt, 28);
+            ids.add(single);
+            List<String> batch = List.of(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+            store.putAll(batch, List.of(receipt, receipt), new int[]{97, 84});
+            ids.addAll(batch);
+        }
+
+        // Act
+        try (DurableReceiptStore recovered = open(file, WriteAheadLog.FsyncPolicy.BATCH)) {
+            // Assert
+            assertEquals(3, recovered.size());
+            assertEquals(28, recovered.findPoints(ids.get(0)).getAsInt());
+            assertEquals(97, recovered.findPoints(ids.get(1)).getAsInt());
+            assertEquals(84, recovered.findPoints(ids.get(2)).getAsInt());
+            assertEquals(receipt, recovered.findReceipt(ids.get(0)).orElseThrow());
+        }
+    }
+
+    @Test
+    void replay_ShouldTruncateTornTailAndKeepAppending() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("receipts.wal");
+        String kept = UUID.randomUUID().toString();
+        try (DurableReceiptStore store = open(file, WriteAheadLog.FsyncPolicy.WRITE)) {
+            store.put(kept, createReceipt(), 10);
+        }
+        long intactSize = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3, 4, 5, 6}));
+        }
+
+        // Act
+        String added = UUID.randomUUID().toString();
+        try (DurableReceiptStore store = open(file, WriteAheadLog.FsyncPolicy.WRITE)) {
+            assertEquals(intactSize, Files.size(file));
+            store.put(added, createReceipt(), 20);
+        }
+
+        // Assert
+        try (DurableReceiptStore recovered = open(file, WriteAheadLog.FsyncPolicy.WRITE)) {
+            assertEquals(10, recovered.findPoints(kept).getAsInt());
+            assertEquals(20, recovered.findPoints(added).getAsInt());
+        }
+    }
+
+    @Test
+    void replay_ShouldStopAtCorruptRecord() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("receipts.wal");
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        try (DurableReceiptStore store = open(file, WriteAheadLog.FsyncPolicy.BATCH)) {
+            store.put(first, createReceipt(), 1);
+            store.put(second, createReceipt(), 2);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), Files.size(file) - 1);
+        }
+
+        // Act
+        try (DurableReceiptStore recovered = open(file, WriteAheadLog.FsyncPolicy.BATCH)) {
+            // Assert
+            assertEquals(1, recovered.findPoints(first).getAsInt());
+            assertTrue(recovered.findPoints(second).isEmpty());
+        }
+    }
+
+    @Test
+    void append_ShouldGroupConcurrentWritesIntoFewerSyncs() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("receipts.wal");
+        int threads = 8;
+        int perThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long syncs;
+        try (DurableReceiptStore store = open(file, WriteAheadLog.FsyncPolicy.BATCH)) {
+            // Act
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        store.put(UUID.randomUUID().toString(), createReceipt(), i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            syncs = store.wal().syncCount();
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertTrue(syncs > 0);
+        assertTrue(syncs < threads * perThread, syncs + " fsyncs for " + threads * perThread + " appends");
+        try (DurableReceiptStore recovered = open(file, WriteAheadLog.FsyncPolicy.BATCH)) {
+            assertEquals(threads * perThread, recovered.size());
+        }
+    }
+
+    @Test
+    void intervalPolicy_ShouldPersistOnClose() throws Exception {
+        Path file = tempDir.resolve("receipts.wal");
+        String id = UUID.randomUUID().toString();
+        try (DurableReceiptStore store = open(file, WriteAheadLog.FsyncPolicy.INTERVAL)) {
+            store.put(id, null, 5);
+        }
+
+        try (DurableReceiptStore recovered = open(file, WriteAheadLog.FsyncPolicy.INTERVAL)) {
+            assertEquals(5, recovered.findPoints(id).getAsInt());
+            assertTrue(recovered.findReceipt(id).isEmpty());
+        }
+    }
+
+    @Test
+    void append_FailedWrite_ShouldBeCutOffAndLaterAppendsKept() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("receipts.wal");
+        FaultyChannel channel = new FaultyChannel(file);
+        WriteAheadLog wal = new WriteAheadLog(file, channel, WriteAheadLog.FsyncPolicy.BATCH, Duration.ofMillis(20));
+        wal.replay(payload -> { });
+        wal.append(record(1));
+
+        // Act
+        channel.failNextWrite = true;
+        assertThrows(UncheckedIOException.class, () -> wal.append(record(2)));
+        wal.append(record(3));
+        wal.close();
+
+        // Assert
+        List<Integer> replayed = new ArrayList<>();
+        try (WriteAheadLog reopened = new WriteAheadLog(file, WriteAheadLog.FsyncPolicy.BATCH, Duration.ofMillis(20))) {
+            reopened.replay(payload -> replayed.add(payload.getInt()));
+        }
+        assertEquals(List.of(1, 3), replayed);
+    }
+
+    @Test
+    void append_AfterWriterFailure_ShouldFailInsteadOfWaiting() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("receipts.wal");
+        FaultyChannel channel = new FaultyChannel(file);
+        WriteAheadLog wal = new WriteAheadLog(file, channel, WriteAheadLog.FsyncPolicy.BATCH, Duration.ofMillis(20));
+        wal.replay(payload -> { });
+        channel.failForce = true;
+
+        // Act & Assert
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            IllegalStateException failed = assertThrows(IllegalStateException.class, () -> wal.append(record(1)));
+            assertInstanceOf(IllegalArgumentException.class, failed.getCause());
+            assertThrows(IllegalStateException.class, () -> wal.append(record(2)));
+        });
+        channel.failForce = false;
+        wal.close();
+    }
+
+    @Test
+    void put_AfterWriterFailure_ShouldNotKeepTheEntry() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("receipts.wal");
+        FaultyChannel channel = new FaultyChannel(file);
+        WriteAheadLog wal = new WriteAheadLog(file, channel, WriteAheadLog.FsyncPolicy.BATCH, Duration.ofMillis(20));
+        DurableReceiptStore store = DurableReceiptStore.recover(
+                new ConcurrentReceiptStore(new ReceiptStoreProperties(), Clock.systemUTC()), wal, true, 0,
+                Clock.systemUTC());
+        String kept = UUID.randomUUID().toString();
+        store.put(kept, createReceipt(), 1);
+        channel.failForce = true;
+        String single = UUID.randomUUID().toString();
+        List<String> batch = List.of(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> store.put(single, createReceipt(), 2));
+        assertThrows(IllegalStateException.class,
+                () -> store.putAll(batch, List.of(createReceipt(), createReceipt()), new int[]{3, 4}));
+
+        // Assert
+        assertTrue(store.findPoints(single).isEmpty());
+        assertTrue(store.findReceipt(single).isEmpty());
+        assertTrue(store.findPoints(batch.get(0)).isEmpty());
+        assertTrue(store.findPoints(batch.get(1)).isEmpty());
+        assertEquals(1, store.findPoints(kept).getAsInt());
+        assertEquals(1, store.size());
+        assertEquals(0, store.stats().pointEvictions());
+        channel.failForce = false;
+        store.close();
+    }
+
+    @Test
+    void discardBefore_ShouldKeepPositionsAndLaterRecords() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("receipts.wal");
+        WriteAheadLog wal = new WriteAheadLog(file, WriteAheadLog.FsyncPolicy.BATCH, Duration.ofMillis(20));
+        wal.replay(payload -> { });
+        for (int i = 0; i < 100; i++) {
+            wal.append(record(i));
+        }
+        long cut = wal.position();
+        wal.append(record(100));
+        long end = wal.position();
+
+        // Act
+        wal.discardBefore(cut);
+        wal.append(record(101));
+        wal.close();
+
+        // Assert
+        List<Integer> tail = new ArrayList<>();
+        List<Integer> fromEnd = new ArrayList<>();
+        try (WriteAheadLog reopened = new WriteAheadLog(file, WriteAheadLog.FsyncPolicy.BATCH, Duration.ofMillis(20))) {
+            reopened.replay(payload -> tail.add(payload.getInt()), cut);
+        }
+        try (WriteAheadLog reopened = new WriteAheadLog(file, WriteAheadLog.FsyncPolicy.BATCH, Duration.ofMillis(20))) {
+            reopened.replay(payload -> fromEnd.add(payload.getInt()), end);
+        }
+        assertEquals(List.of(100, 101), tail);
+        assertEquals(List.of(101), fromEnd);
+        assertTrue(Files.size(file) < 100);
+    }
+
+    @Test
+    void replay_LogWithoutHeader_ShouldStartAtZero() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("receipts.wal");
+        Files.write(file, record(1));
+
+        // Act
+        List<Integer> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = new WriteAheadLog(file, WriteAheadLog.FsyncPolicy.BATCH, Duration.ofMillis(20))) {
+            wal.replay(payload -> replayed.add(payload.getInt()));
+            wal.append(record(2));
+        }
+        try (WriteAheadLog wal = new WriteAheadLog(file, WriteAheadLog.FsyncPolicy.BATCH, Duration.ofMillis(20))) {
+            wal.replay(payload -> replayed.add(payload.getInt()), record(1).length);
+        }
+
+        // Assert
+        assertEquals(List.of(1, 2), replayed);
+    }
+
+    private DurableReceiptStore open(Path file, WriteAheadLog.FsyncPolicy policy) throws IOException {
+        WriteAheadLog wal = new WriteAheadLog(file, policy, Duration.ofMillis(20));
+        return DurableReceiptStore.recover(new ConcurrentReceiptStore(new ReceiptStoreProperties(), Clock.systemUTC()),
+                wal, true, 0, Clock.systemUTC());
+    }
+
+    private static byte[] record(int value) {
+        return WriteAheadLog.frame(ByteBuffer.allocate(4).putInt(0, value));
+    }
+
+    /** Fails the next gathering write after writing part of it, or every force, when told to. */
+    private static final class FaultyChannel extends FileChannel {
+        private final FileChannel delegate;
+        volatile boolean failNextWrite;
+        volatile boolean failForce;
+
+        FaultyChannel(Path file) throws IOException {
+            this.delegate = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            if (failNextWrite) {
+                failNextWrite = false;
+                delegate.write(srcs[offset].slice().limit(3));
+                throw new IOException("Disk full");
+            }
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                throw new IllegalArgumentException("Unexpected failure");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
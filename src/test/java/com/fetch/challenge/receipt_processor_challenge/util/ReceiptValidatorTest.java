@@ -0,0 +1,135 @@
+package com.fetch.challenge.receipt_processor_challenge.util;
+
+import com.fetch.challenge.receipt_processor_challenge.dto.ItemDTO;
+import com.fetch.challenge.receipt_processor_challenge.dto.ReceiptDTO;
+import com.fetch.challenge.receipt_processor_challenge.exception.InvalidReceiptException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReceiptValidatorTest {
+    private final ReceiptValidator validator = new ReceiptValidator();
+
+    @Test
+    void validate_ValidReceipt_ReturnsNoErrors() {
+        // Arrange
+        ReceiptDTO receipt = receipt("35.35", 6.49, 12.25, 1.26, 3.35, 12.00);
+
+        // Act
+        Map<String, String> errors = validator.validate(receipt);
+
+        // Assert
+        assertTrue(errors.isEmpty());
+        assertSame(receipt, validator.requireValid(receipt));
+    }
+
+    @Test
+    void validate_NullReceipt_ReturnsError() {
+        assertEquals(Map.of("error", "Receipt cannot be null"), validator.validate(null));
+    }
+
+    @Test
+    void validate_MissingFields_ReturnsEveryFieldMessage() {
+        // Arrange
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer("  ");
+        receipt.setItems(List.of());
+
+        // Act
+        Map<String, String> errors = validator.validate(receipt);
+
+        // Assert
+        assertEquals(Map.of(
+                "retailer", "Retailer is required",
+                "purchaseDate", "Purchase date is required",
+                "purchaseTime", "Purchase time is required",
+                "items", "Items cannot be empty",
+                "total", "Total is required",
+                "error", "Invalid receipt format"), errors);
+        assertEquals("Items cannot be null", validator.validate(new ReceiptDTO()).get("items"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1,25", "1.250", "1.", ".25", "-1.25", "1e2", "NaN", " 1.25", "1234567890123456"})
+    void validate_MalformedTotal_ReturnsTotalError(String total) {
+        Map<String, String> errors = validator.validate(receipt(total, 1.25));
+
+        assertEquals("Total must be an amount such as 35.35", errors.get("total"), total);
+        assertEquals("Invalid receipt format", errors.get("error"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-0.01, 2.255, Double.NaN, Double.POSITIVE_INFINITY, 1e14})
+    void validate_MalformedPrice_ReturnsPriceError(double price) {
+        Map<String, String> errors = validator.validate(receipt("1.00", 1.00, price));
+
+        assertEquals("Price must be an amount such as 2.25", errors.get("items[1].price"));
+        assertFalse(errors.containsKey("total"));
+    }
+
+    @Test
+    void validate_BadItems_ReturnsIndexedErrors() {
+        // Arrange
+        ReceiptDTO receipt = receipt("1.00", 1.00);
+        ItemDTO noPrice = new ItemDTO();
+        noPrice.setShortDescription(" ");
+        List<ItemDTO> items = new ArrayList<>(receipt.getItems());
+        items.add(null);
+        items.add(noPrice);
+        receipt.setItems(items);
+
+        // Act
+        Map<String, String> errors = validator.validate(receipt);
+
+        // Assert
+        assertEquals(Map.of(
+                "items[1]", "Item cannot be null",
+                "items[2].shortDescription", "Short description is required",
+                "items[2].price", "Price is required",
+                "error", "Invalid receipt format"), errors);
+    }
+
+    @Test
+    void validate_TotalNotSumOfPrices_ReturnsTotalError() {
+        // Arrange
+        ReceiptDTO receipt = receipt("9.01", 2.25, 2.25, 2.25, 2.25);
+
+        // Act
+        InvalidReceiptException e = assertThrows(InvalidReceiptException.class, () -> validator.requireValid(receipt));
+
+        // Assert
+        assertEquals(Map.of("total", "Total must equal the sum of item prices", "error", "Invalid receipt format"),
+                e.getErrors());
+    }
+
+    @Test
+    void validate_PricesWithoutExactBinaryForm_ShouldSumInCents() {
+        assertTrue(validator.validate(receipt("0.60", 0.10, 0.20, 0.30)).isEmpty());
+        assertTrue(validator.validate(receipt("12", 0.29, 11.71)).isEmpty());
+        assertTrue(validator.validate(receipt("123456789012.34", 123456789012.34)).isEmpty());
+    }
+
+    private static ReceiptDTO receipt(String total, double... prices) {
+        ReceiptDTO receipt = new ReceiptDTO();
+        receipt.setRetailer("Target");
+        receipt.setPurchaseDate(LocalDate.of(2022, 1, 1));
+        receipt.setPurchaseTime(LocalTime.of(13, 1));
+        receipt.setTotal(total);
+        receipt.setItems(Arrays.stream(prices).mapToObj(price -> {
+            ItemDTO item = new ItemDTO();
+            item.setShortDescription("Item");
+            item.setPrice(price);
+            return item;
+        }).toList());
+        return receipt;
+    }
+}
@@ -0,0 +1,96 @@
+package com.fetch.challenge.receipt_processor_challenge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void next_ShouldBeVersion7WithTimestampAndIncreasing() {
+        // Arrange
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> 1_700_000_000_123L);
+
+        // Act
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(generator.next());
+        }
+
+        // Assert
+        for (int i = 0; i < ids.size(); i++) {
+            UUID uuid = UUID.fromString(ids.get(i));
+            assertTrue(ReceiptIdUtil.isValid(ids.get(i)));
+            assertEquals(7, uuid.version());
+            assertEquals(2, uuid.variant());
+            assertEquals(1_700_000_000_123L, uuid.getMostSignificantBits() >>> 16);
+            if (i > 0) {
+                assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0);
+            }
+        }
+    }
+
+    @Test
+    void next_SequenceExhausted_ShouldMoveAheadWithoutWaiting() {
+        // Arrange
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> 5_000L);
+
+        // Act
+        String previous = generator.next();
+        for (int i = 0; i < 10_000; i++) {
+            String id = generator.next();
+
+            // Assert
+            assertTrue(previous.compareTo(id) < 0);
+            previous = id;
+        }
+        assertTrue(UUID.fromString(previous).getMostSignificantBits() >>> 16 > 5_000L);
+    }
+
+    @Test
+    void next_ClockGoingBack_ShouldStayIncreasing() {
+        AtomicLong millis = new AtomicLong(10_000);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(millis::get);
+
+        String before = generator.next();
+        millis.set(9_000);
+        String after = generator.next();
+
+        assertTrue(before.compareTo(after) < 0);
+    }
+
+    @Test
+    void next_ManyThreads_ShouldNotRepeat() throws InterruptedException {
+        // Arrange
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                Set<String> local = new HashSet<>();
+                for (int i = 0; i < 50_000; i++) {
+                    local.add(generator.next(7));
+                }
+                ids.addAll(local);
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        assertEquals(200_000, ids.size());
+        assertTrue(ids.stream().allMatch(id -> ReceiptIdUtil.shard(id) == 7));
+    }
+}